@@ -1,4 +1,8 @@
 import axios, { type AxiosInstance, type AxiosRequestConfig, type AxiosResponse } from 'axios'
+import type { CursorPage } from '@/types'
+
+// The largest page the listing endpoints serve
+const PAGE_LIMIT = 100
 
 class ApiService {
   private axiosInstance: AxiosInstance
@@ -50,6 +54,21 @@ class ApiService {
     return this.axiosInstance.get<T>(url, config)
   }
 
+  // Reads a whole cursor-paginated listing, one page after another
+  public async getAllPages<T>(url: string, config: AxiosRequestConfig = {}): Promise<T[]> {
+    const items: T[] = []
+    let after: string | undefined
+    do {
+      const response = await this.axiosInstance.get<CursorPage<T>>(url, {
+        ...config,
+        params: { ...config.params, limit: PAGE_LIMIT, after },
+      })
+      items.push(...response.data.items)
+      after = response.data.nextCursor ?? undefined
+    } while (after)
+    return items
+  }
+
   public post<T>(url: string, data?: any, config?: AxiosRequestConfig): Promise<AxiosResponse<T>> {
     return this.axiosInstance.post<T>(url, data, config)
   }
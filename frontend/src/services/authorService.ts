@@ -1,5 +1,5 @@
 import api from './api'
-import type { Author, AuthorDTO } from '@/types'
+import type { Author, AuthorDTO, CursorPage, Suggestion } from '@/types'
 
 export const authorService = {
   // Query keys
@@ -13,7 +13,16 @@ export const authorService = {
 
   // Queries
   getAll: async (): Promise<Author[]> => {
-    const response = await api.get<Author[]>('/api/v1/authors')
+    return api.getAllPages<Author>('/api/v1/authors')
+  },
+
+  getPage: async (params: { limit?: number; after?: string; before?: string } = {}): Promise<CursorPage<Author>> => {
+    const response = await api.get<CursorPage<Author>>('/api/v1/authors', { params })
+    return response.data
+  },
+
+  suggest: async (prefix: string, limit = 10): Promise<Suggestion[]> => {
+    const response = await api.get<Suggestion[]>('/api/v1/authors/suggest', { params: { prefix, limit } })
     return response.data
   },
 
@@ -1,5 +1,5 @@
 import api from './api'
-import type { Book, BookDTO } from '@/types'
+import type { Book, BookDTO, BookPageParams, CursorPage } from '@/types'
 
 export const bookService = {
   // Query keys
@@ -13,7 +13,11 @@ export const bookService = {
 
   // Queries
   getAll: async (): Promise<Book[]> => {
-    const response = await api.get<Book[]>('/api/v1/books')
+    return api.getAllPages<Book>('/api/v1/books')
+  },
+
+  getPage: async (params: BookPageParams = {}): Promise<CursorPage<Book>> => {
+    const response = await api.get<CursorPage<Book>>('/api/v1/books', { params })
     return response.data
   },
 
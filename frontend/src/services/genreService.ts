@@ -1,5 +1,5 @@
 import api from './api'
-import type { Genre, GenreDTO } from '@/types'
+import type { Genre, GenreDTO, CursorPage, Suggestion } from '@/types'
 
 export const genreService = {
   // Query keys
@@ -13,7 +13,16 @@ export const genreService = {
 
   // Queries
   getAll: async (): Promise<Genre[]> => {
-    const response = await api.get<Genre[]>('/api/v1/genres')
+    return api.getAllPages<Genre>('/api/v1/genres')
+  },
+
+  getPage: async (params: { limit?: number; after?: string; before?: string } = {}): Promise<CursorPage<Genre>> => {
+    const response = await api.get<CursorPage<Genre>>('/api/v1/genres', { params })
+    return response.data
+  },
+
+  suggest: async (prefix: string, limit = 10): Promise<Suggestion[]> => {
+    const response = await api.get<Suggestion[]>('/api/v1/genres/suggest', { params: { prefix, limit } })
     return response.data
   },
 
@@ -2,3 +2,5 @@ export * from './auth'
 export * from './book'
 export * from './author'
 export * from './genre'
+export * from './page'
+export * from './suggestion'
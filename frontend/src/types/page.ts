@@ -0,0 +1,17 @@
+export interface CursorPage<T> {
+  items: T[]
+  limit: number
+  nextCursor: string | null
+  prevCursor: string | null
+}
+
+export interface BookPageParams {
+  authorId?: number
+  genreId?: number
+  publishedFrom?: string
+  publishedTo?: string
+  sort?: 'id' | 'title' | 'publicationDate' | '-id' | '-title' | '-publicationDate'
+  limit?: number
+  after?: string
+  before?: string
+}
@@ -0,0 +1,86 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files, written with {@code -rf json -rff <file>}, typically from two commits.
+ * <p>
+ * Prints, for every benchmark and parameter combination in both files, the score of each run with its
+ * error and the change, and the same for the allocation per operation ({@code gc.alloc.rate.norm}) if both
+ * runs used the GC profiler. A change is marked as significant when the error intervals do not overlap.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.example.librarymanagementsystem.benchmark.BenchmarkComparison -Djmh.args="base.json head.json"}
+ */
+public final class BenchmarkComparison {
+
+  private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+  private BenchmarkComparison() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: BenchmarkComparison <base.json> <head.json>");
+      System.exit(2);
+    }
+    Map<String, JsonNode> base = read(new File(args[0]));
+    Map<String, JsonNode> head = read(new File(args[1]));
+
+    System.out.printf("%-70s %22s %22s %9s%n", "Benchmark", "base", "head", "change");
+    for (Map.Entry<String, JsonNode> entry : head.entrySet()) {
+      JsonNode before = base.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-70s %22s %22s%n", entry.getKey(), "-", format(entry.getValue().path("primaryMetric")));
+        continue;
+      }
+      print(entry.getKey(), before.path("primaryMetric"), entry.getValue().path("primaryMetric"));
+      JsonNode allocationBefore = before.path("secondaryMetrics").path(ALLOCATION);
+      JsonNode allocationAfter = entry.getValue().path("secondaryMetrics").path(ALLOCATION);
+      if (!allocationBefore.isMissingNode() && !allocationAfter.isMissingNode()) {
+        print("  " + ALLOCATION, allocationBefore, allocationAfter);
+      }
+    }
+  }
+
+  private static Map<String, JsonNode> read(File file) throws IOException {
+    Map<String, JsonNode> results = new LinkedHashMap<>();
+    for (JsonNode result : new ObjectMapper().readTree(file)) {
+      StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+          .replace("com.example.librarymanagementsystem.benchmark.", ""));
+      Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+      while (params.hasNext()) {
+        Map.Entry<String, JsonNode> param = params.next();
+        key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+      }
+      results.put(key.toString(), result);
+    }
+    return results;
+  }
+
+  private static void print(String name, JsonNode before, JsonNode after) {
+    double scoreBefore = before.path("score").asDouble();
+    double scoreAfter = after.path("score").asDouble();
+    double change = scoreBefore == 0 ? 0 : (scoreAfter - scoreBefore) / scoreBefore * 100;
+    boolean significant = Math.abs(scoreAfter - scoreBefore)
+        > error(before) + error(after);
+    System.out.printf("%-70s %22s %22s %+8.1f%%%s%n", name, format(before), format(after), change,
+        significant ? " *" : "");
+  }
+
+  private static double error(JsonNode metric) {
+    double error = metric.path("scoreError").asDouble();
+    return Double.isNaN(error) ? 0 : error;
+  }
+
+  private static String format(JsonNode metric) {
+    return String.format("%.3f +- %.3f %s", metric.path("score").asDouble(), error(metric),
+        metric.path("scoreUnit").asText());
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares JSON, CBOR and Smile for a list of {@code books} {@link BookDTO}s, the payload that
+ * dominates the catalogue listings and the batch consumers. The sizes are those of a small page, the
+ * default page limit and a large page, so fixed per-list costs show up as well as per-item ones.
+ * <p>
+ * The mappers are configured as the application configures them: the JSON mapper with the Spring Boot
+ * defaults, and the binary ones as copies of it (see {@code WebConfig}). Encoding and decoding time is
+ * measured per list; the size of the encoded list, raw and gzip-compressed, is printed once per fork
+ * at setup, since the bytes on the wire do not change between iterations.
+ * <p>
+ * Run with the GC profiler to see allocation per list as well:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="Encoding -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"10", "100", "1000"})
+  private int books;
+
+  private ObjectMapper mapper;
+  private JavaType listType;
+  private List<BookDTO> items;
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .filters(FieldSet.ALL.filters())
+        .build();
+    mapper = switch (format) {
+      case "json" -> json;
+      case "cbor" -> json.copyWith(new CBORFactory());
+      case "smile" -> json.copyWith(new SmileFactory());
+      default -> throw new IllegalArgumentException("Unknown format: " + format);
+    };
+    listType = mapper.getTypeFactory().constructCollectionType(List.class, BookDTO.class);
+
+    items = new ArrayList<>(books);
+    for (int i = 0; i < books; i++) {
+      items.add(new BookDTO(100_000L + i, "Benchmark book " + i, String.format("978%010d", i),
+          LocalDate.of(1900, 1, 1).plusDays(i * 37L % 40_000), "Description of benchmark book " + i,
+          1L + i % 50, 1L + i % 12, (long) i % 5));
+    }
+    encoded = mapper.writeValueAsBytes(items);
+    System.out.printf("%n%s: %d bytes per %d books, %d gzipped%n", format, encoded.length, books, gzip(encoded).length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return mapper.writeValueAsBytes(items);
+  }
+
+  @Benchmark
+  public List<BookDTO> decode() throws IOException {
+    return mapper.readValue(encoded, listType);
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the JWT filter for one authenticated request, from the {@code Authorization} header to the
+ * authentication in the security context.
+ * <p>
+ * Variants:
+ * - {@code legacy}: The filter as it was before tokens were parsed once, reproduced here: the token is
+ *   validated, then parsed for the username and again for the roles, and every parse rebuilds the key and
+ *   the parser and verifies the signature.
+ * - {@code parse-once}: {@link JwtTokenProvider} with its cache of verified tokens turned off, so each
+ *   request verifies and parses the token once with the parser built at startup.
+ * - {@code cached}: {@link JwtTokenProvider} as configured by default; after the first request the token
+ *   is only digested and looked up.
+ * <p>
+ * Run with the GC profiler to see allocation per request as well:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtFilter -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+  private static final String SECRET = "7b9c2d6e8f1a3c5e7d9f2a4b6c8d0e1f3a5b7c9d1e2f4a6b8c0d2e4f6a8b0c2d4e6f8a0b2c4d6e8f0a2b4c6d8e0f2a4";
+  private static final int EXPIRATION = 86_400_000;
+
+  @Param({"legacy", "parse-once", "cached"})
+  private String variant;
+
+  private OncePerRequestFilter filter;
+  private String authorization;
+  private FilterChain chain;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    JwtTokenProvider provider = new JwtTokenProvider(SECRET, EXPIRATION, 10_000, null);
+    authorization = "Bearer " + provider.generateToken("user", "ROLE_USER");
+    filter = switch (variant) {
+      case "legacy" -> new LegacyJwtFilter(SECRET);
+      case "parse-once" -> new JwtTokenProvider(SECRET, EXPIRATION, 0, null);
+      case "cached" -> provider;
+      default -> throw new IllegalArgumentException("Unknown variant: " + variant);
+    };
+    chain = (request, response) -> { };
+  }
+
+  @Benchmark
+  public Authentication filter() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+    request.addHeader("Authorization", authorization);
+    try {
+      filter.doFilter(request, new MockHttpServletResponse(), chain);
+      return SecurityContextHolder.getContext().getAuthentication();
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  /**
+   * Checks once that each variant authenticates the request, so the numbers compare equal work.
+   */
+  @Setup(Level.Iteration)
+  public void verify() throws ServletException, IOException {
+    Authentication authentication = filter();
+    if (authentication == null || !"user".equals(authentication.getName())) {
+      throw new IllegalStateException(variant + " did not authenticate the request");
+    }
+  }
+
+  /**
+   * The filter of {@code JwtTokenProvider} before it parsed tokens once.
+   */
+  private static final class LegacyJwtFilter extends OncePerRequestFilter {
+
+    private final String jwtSecret;
+
+    LegacyJwtFilter(String jwtSecret) {
+      this.jwtSecret = jwtSecret;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+      try {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+          String jwt = bearerToken.substring(7);
+          if (validateToken(jwt)) {
+            String username = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build()
+                .parseClaimsJws(jwt).getBody().getSubject();
+            @SuppressWarnings("unchecked")
+            List<String> roles = (List<String>) Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build()
+                .parseClaimsJws(jwt).getBody().get("roles");
+            List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+            SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, authorities));
+          }
+        }
+      } catch (Exception ex) {
+        // As in the original filter
+      }
+      filterChain.doFilter(request, response);
+    }
+
+    private boolean validateToken(String token) {
+      try {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build().parseClaimsJws(token);
+        return true;
+      } catch (Exception e) {
+        return false;
+      }
+    }
+  }
+}
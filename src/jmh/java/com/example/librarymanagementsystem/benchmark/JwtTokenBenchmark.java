@@ -0,0 +1,60 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtTokenProvider} on its own: issuing a token at login, and verifying one as every
+ * authenticated request does when the token is not cached yet. {@link JwtFilterBenchmark} measures the
+ * whole filter, including the cached path.
+ * <p>
+ * Run with the GC profiler to see allocation per token as well:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtToken -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+  private static final String SECRET = "7b9c2d6e8f1a3c5e7d9f2a4b6c8d0e1f3a5b7c9d1e2f4a6b8c0d2e4f6a8b0c2d4e6f8a0b2c4d6e8f0a2b4c6d8e0f2a4";
+
+  private JwtTokenProvider provider;
+  private String token;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    provider = new JwtTokenProvider(SECRET, 86_400_000, 0, null);
+    token = provider.generateToken("user", "ROLE_USER");
+  }
+
+  @Benchmark
+  public String generate() {
+    return provider.generateToken("user", "ROLE_USER");
+  }
+
+  @Benchmark
+  public boolean validate() {
+    return provider.validateToken(token);
+  }
+
+  @Benchmark
+  public UsernamePasswordAuthenticationToken authenticate() {
+    return provider.getAuthentication(token);
+  }
+}
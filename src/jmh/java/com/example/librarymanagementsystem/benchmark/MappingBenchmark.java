@@ -0,0 +1,93 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.model.Author;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Genre;
+import com.example.librarymanagementsystem.services.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code BookService.convertToDTO} and {@code convertToEntity}, the copies between {@link Book}
+ * entities and {@link BookDTO}s made by every book write.
+ * <p>
+ * Both methods are private; they are called through method handles held in static final fields, which the
+ * JIT compiles to direct calls, so the numbers are those of the methods themselves. The service is built
+ * without its collaborators, which the two methods do not use.
+ * <p>
+ * Run with the GC profiler to see allocation per copy as well:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="Mapping -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+  private static final MethodHandle CONVERT_TO_DTO;
+  private static final MethodHandle CONVERT_TO_ENTITY;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(BookService.class, MethodHandles.lookup());
+      CONVERT_TO_DTO = lookup.findVirtual(BookService.class, "convertToDTO", MethodType.methodType(BookDTO.class, Book.class));
+      CONVERT_TO_ENTITY = lookup.findVirtual(BookService.class, "convertToEntity", MethodType.methodType(Book.class, BookDTO.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private BookService bookService;
+  private Book book;
+  private BookDTO dto;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    bookService = new BookService(null, null, null, null, null, null, null, null, null);
+
+    Author author = new Author("George Orwell", null, LocalDate.of(1903, 6, 25));
+    author.setId(7L);
+    Genre genre = new Genre("Fiction", null);
+    genre.setId(3L);
+    book = new Book();
+    book.setId(42L);
+    book.setTitle("Nineteen Eighty-Four");
+    book.setIsbn("9780451524935");
+    book.setPublicationDate(LocalDate.of(1949, 6, 8));
+    book.setDescription("A dystopian social science fiction novel and cautionary tale.");
+    book.setAuthor(author);
+    book.setGenre(genre);
+    book.setVersion(3);
+
+    dto = new BookDTO(42L, "Nineteen Eighty-Four", "9780451524935", LocalDate.of(1949, 6, 8),
+        "A dystopian social science fiction novel and cautionary tale.", 7L, 3L, 3L);
+  }
+
+  @Benchmark
+  public BookDTO convertToDTO() throws Throwable {
+    return (BookDTO) CONVERT_TO_DTO.invokeExact(bookService, book);
+  }
+
+  @Benchmark
+  public Book convertToEntity() throws Throwable {
+    return (Book) CONVERT_TO_ENTITY.invokeExact(bookService, dto);
+  }
+}
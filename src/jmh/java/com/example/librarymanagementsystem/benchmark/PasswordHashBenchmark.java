@@ -0,0 +1,51 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BCryptPasswordEncoder#matches}, the CPU cost of one login, at the application's strength
+ * (the encoder's default of 10) and above it. Each step of {@code strength} doubles the cost. The threads
+ * of the login pool (see {@code PasswordVerifier}) divided by the time per check is the login rate one node
+ * sustains.
+ * <p>
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="PasswordHash"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+  @Param({"10", "12"})
+  private int strength;
+
+  private BCryptPasswordEncoder encoder;
+  private String hash;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    encoder = new BCryptPasswordEncoder(strength);
+    hash = encoder.encode("password");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches("password", hash);
+  }
+}
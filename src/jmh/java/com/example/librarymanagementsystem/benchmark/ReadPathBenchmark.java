@@ -0,0 +1,152 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.repository.BookFilter;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.BookSort;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of one read request served through managed entities with the same read
+ * served through a DTO constructor projection.
+ * <p>
+ * The entity variants reproduce the previous read path: load {@link Book} entities into the
+ * persistence context, then copy their fields into {@link BookDTO}s. The projected variants call
+ * the repository methods used by the services today. Both run in a read-only transaction, as the
+ * services do, against an in-memory H2 database seeded with {@code books} rows.
+ * <p>
+ * Run with the GC profiler to see allocation per request ({@code gc.alloc.rate.norm}):
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ReadPath -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+  @Param("100000")
+  private int books;
+
+  @Param("100")
+  private int pageSize;
+
+  private ConfigurableApplicationContext context;
+  private EntityManager entityManager;
+  private BookRepository bookRepository;
+  private TransactionTemplate readOnly;
+  private long firstId;
+  private long lastId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+        .run("--spring.profiles.active=test", "--server.port=0", "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN");
+    entityManager = context.getBean(EntityManager.class);
+    bookRepository = context.getBean(BookRepository.class);
+    readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnly.setReadOnly(true);
+    seed(context.getBean(JdbcTemplate.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<BookDTO> pageEntities() {
+    long after = randomId() - 1;
+    return readOnly.execute(status -> entityManager
+        .createQuery("SELECT b FROM Book b WHERE b.id > :after ORDER BY b.id ASC", Book.class)
+        .setParameter("after", after)
+        .setMaxResults(pageSize)
+        .getResultList().stream()
+        .map(ReadPathBenchmark::toDTO)
+        .toList());
+  }
+
+  @Benchmark
+  public List<BookDTO> pageProjected() {
+    long after = randomId() - 1;
+    return readOnly.execute(status -> bookRepository.findPage(BookFilter.NONE, BookSort.DEFAULT, after, null, false, pageSize,
+        FieldSet.ALL));
+  }
+
+  @Benchmark
+  public BookDTO byIdEntity() {
+    long id = randomId();
+    return readOnly.execute(status -> toDTO(entityManager.find(Book.class, id)));
+  }
+
+  @Benchmark
+  public BookDTO byIdProjected() {
+    long id = randomId();
+    return readOnly.execute(status -> bookRepository.findDTOById(id, FieldSet.ALL).orElseThrow());
+  }
+
+  private long randomId() {
+    return ThreadLocalRandom.current().nextLong(firstId, Math.max(firstId + 1, lastId - pageSize));
+  }
+
+  private void seed(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.update("INSERT INTO authors (name, biography) VALUES ('Benchmark Author', 'Seeded for benchmarks')");
+    jdbcTemplate.update("INSERT INTO genres (name, description) VALUES ('Benchmark Genre', 'Seeded for benchmarks')");
+    Long authorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM authors", Long.class);
+    Long genreId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM genres", Long.class);
+
+    // IDs are assigned here rather than drawn from books_seq, which hands them out in steps of 50.
+    firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM books", Long.class);
+    List<Object[]> rows = new ArrayList<>(books);
+    for (int i = 0; i < books; i++) {
+      rows.add(new Object[]{firstId + i, "Benchmark book " + i, "Description of benchmark book " + i,
+          Date.valueOf(LocalDate.of(1900, 1, 1).plusDays(i % 40_000)), authorId, genreId});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO books (id, title, description, publication_date, author_id, genre_id) VALUES (?, ?, ?, ?, ?, ?)",
+        rows);
+    lastId = firstId + books - 1;
+  }
+
+  private static BookDTO toDTO(Book book) {
+    BookDTO dto = new BookDTO();
+    dto.setId(book.getId());
+    dto.setTitle(book.getTitle());
+    dto.setIsbn(book.getIsbn());
+    dto.setPublicationDate(book.getPublicationDate());
+    dto.setDescription(book.getDescription());
+    dto.setAuthorId(book.getAuthor().getId());
+    dto.setGenreId(book.getGenre().getId());
+    return dto;
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.index.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InvertedIndex#search} for the default page of 10 hits over a synthetic catalogue of
+ * {@code books} books. Words are drawn from a Zipf-like distribution over a vocabulary of 20,000, so a few
+ * words occur in most descriptions and most words in a handful, as in real text.
+ * <p>
+ * Queries:
+ * - {@code common}: Two of the ten most frequent words, whose posting lists cover most of the catalogue.
+ * - {@code mixed}: One frequent word and two rare ones, the typical title search.
+ * - {@code rare}: Two rare words.
+ * Each invocation runs the next of 64 queries of its kind, so no single posting list stays in cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+  private static final int VOCABULARY = 20_000;
+  private static final int QUERIES = 64;
+
+  @Param({"100000"})
+  private int books;
+
+  @Param({"common", "mixed", "rare"})
+  private String queries;
+
+  private InvertedIndex index;
+  private String[] texts;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42);
+    index = new InvertedIndex(3);
+    for (int id = 1; id <= books; id++) {
+      index.put(id, words(random, 4), words(random, 40));
+    }
+    texts = new String[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      texts[i] = switch (queries) {
+        case "common" -> word(random.nextInt(10)) + " " + word(random.nextInt(10));
+        case "mixed" -> word(random.nextInt(10)) + " " + word(rare(random)) + " " + word(rare(random));
+        case "rare" -> word(rare(random)) + " " + word(rare(random));
+        default -> throw new IllegalArgumentException(queries);
+      };
+    }
+  }
+
+  @Benchmark
+  public List<InvertedIndex.Hit> search() {
+    return index.search(texts[next++ & (QUERIES - 1)], 10);
+  }
+
+  private static String words(SplittableRandom random, int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      // Inverse transform of a 1/rank distribution
+      text.append(word((int) Math.pow(VOCABULARY, random.nextDouble()) - 1)).append(' ');
+    }
+    return text.toString();
+  }
+
+  private static int rare(SplittableRandom random) {
+    return 1000 + random.nextInt(VOCABULARY - 1000);
+  }
+
+  // Letters only, so the tokenizer keeps each word whole and no word is a stop word
+  private static String word(int rank) {
+    StringBuilder word = new StringBuilder("w");
+    do {
+      word.append((char) ('a' + rank % 26));
+      rank /= 26;
+    } while (rank > 0);
+    return word.toString();
+  }
+}
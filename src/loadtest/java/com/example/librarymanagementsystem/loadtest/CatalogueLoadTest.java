@@ -0,0 +1,384 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.index.BookSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the throughput and latency percentiles of the whole stack, from the JWT filter through the
+ * controllers and services to JPA, under a realistic mix of requests, so runs before and after an upgrade
+ * can be compared.
+ * <p>
+ * The application is started on the H2 {@code test} profile with {@code books} seeded rows; with
+ * {@code db-latency} every JDBC statement is delayed to stand in for Postgres across the network. After
+ * logging in as {@code user} and {@code admin}, requests are sent at a fixed arrival rate of {@code rate}
+ * per second, each one drawn from {@code mix}:
+ * - {@code list}: {@code GET /api/v1/books?limit=20} as {@code user}.
+ * - {@code get}: {@code GET /api/v1/books/{id}} of a random seeded book as {@code user}.
+ * - {@code search}: {@code GET /api/v1/books/search?q=} with a word of the seeded titles as {@code user}.
+ * - {@code create}: {@code POST /api/v1/books} of a new book as {@code admin}.
+ * - {@code login}: {@code POST /api/v1/auth/login} as {@code user}, which costs a BCrypt check.
+ * Rate limiting is turned off, so every request reaches the application.
+ * <p>
+ * Requests are sent on schedule whether or not earlier ones have been answered, as independent clients
+ * would send them, and their latency is counted from the time they were due rather than from when a
+ * connection was free to send them. A server that falls behind therefore shows in the percentiles instead
+ * of slowing the load down (coordinated omission). Requests due during {@code warmup} are not measured;
+ * failed ones, including unexpected statuses, are counted as errors and left out of the percentiles.
+ * <p>
+ * The report lists each operation's count, rate, percentiles and errors. For each operation, and for all of
+ * them together, the full HdrHistogram percentile distribution is written in milliseconds to
+ * {@code <report>/<label>-<operation>.hgrm}, which HdrHistogram's plotter can draw side by side with the
+ * files of another run.
+ * <p>
+ * Arguments, as {@code name=value}:
+ * - {@code books}: Seeded books, defaults to 10000.
+ * - {@code rate}: Requests sent per second, defaults to 200.
+ * - {@code mix}: Comma-separated {@code operation=weight}, defaults to
+ *   {@code list=40,get=35,search=15,create=5,login=5}.
+ * - {@code warmup} / {@code duration}: Unmeasured and measured run time, default 10s and 30s.
+ * - {@code connections}: Requests in flight at most, each on its own connection, defaults to 64.
+ * - {@code db-latency}: Delay added to every statement, defaults to 0ms.
+ * - {@code pool}: Hikari connections, defaults to 10.
+ * - {@code report}: Directory of the histogram files, defaults to {@code target/loadtest}.
+ * - {@code label}: Prefix of the histogram files, such as a commit, defaults to {@code run}.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.class=CatalogueLoadTest
+ * -Dloadtest.args="rate=500 label=head"}.
+ */
+public final class CatalogueLoadTest {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("books", "10000");
+    DEFAULTS.put("rate", "200");
+    DEFAULTS.put("mix", "list=40,get=35,search=15,create=5,login=5");
+    DEFAULTS.put("warmup", "10s");
+    DEFAULTS.put("duration", "30s");
+    DEFAULTS.put("connections", "64");
+    DEFAULTS.put("db-latency", "0ms");
+    DEFAULTS.put("pool", "10");
+    DEFAULTS.put("report", "target/loadtest");
+    DEFAULTS.put("label", "run");
+  }
+
+  private static final String[] WORDS = {
+      "river", "garden", "winter", "shadow", "empire", "silver", "harbor", "forest", "letters", "journey",
+      "mountain", "kingdom", "machine", "ocean", "memory", "castle", "thunder", "orchard", "voyage", "lantern"};
+
+  private static final String LOGIN_BODY = "{\"username\":\"user\",\"password\":\"password\"}";
+
+  private final Map<String, String> settings;
+  private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+  private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+  private final AtomicInteger created = new AtomicInteger();
+
+  private CatalogueLoadTest(Map<String, String> settings) {
+    this.settings = settings;
+    for (Operation operation : Operation.values()) {
+      histograms.put(operation, new ConcurrentHistogram(3));
+      errors.put(operation, new AtomicLong());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+    for (String arg : args) {
+      String[] pair = arg.split("=", 2);
+      if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+        throw new IllegalArgumentException("Unknown argument '" + arg + "', expected any of " + DEFAULTS.keySet());
+      }
+      settings.put(pair[0], pair[1]);
+    }
+    System.out.println("Java " + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, " + settings);
+
+    new CatalogueLoadTest(settings).run();
+    System.exit(0);
+  }
+
+  private void run() throws Exception {
+    Mix mix = Mix.parse(settings.get("mix"));
+    double rate = Double.parseDouble(settings.get("rate"));
+    if (rate <= 0) {
+      throw new IllegalArgumentException("rate must be positive");
+    }
+    StatementLatency latency = new StatementLatency();
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+        .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(latency))
+        .run("--spring.profiles.active=test", "--server.port=0", "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN", "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.springframework.security=WARN",
+            "--library.rate-limit.enabled=false",
+            "--spring.datasource.hikari.maximum-pool-size=" + settings.get("pool"));
+    try {
+      Catalogue catalogue = seed(context.getBean(JdbcTemplate.class), Integer.parseInt(settings.get("books")));
+      context.getBean(BookSearchIndex.class).rebuild();
+      String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+      Tokens tokens = new Tokens(login(baseUrl, LOGIN_BODY), login(baseUrl, "{\"username\":\"admin\",\"password\":\"admin\"}"));
+      latency.set(duration("db-latency"));
+
+      long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+      long measureFrom = start + duration("warmup").toNanos();
+      long measureTo = measureFrom + duration("duration").toNanos();
+      ExecutorService connections = Executors.newFixedThreadPool(Integer.parseInt(settings.get("connections")), task -> {
+        Thread thread = new Thread(task, "load-client");
+        thread.setDaemon(true);
+        return thread;
+      });
+      SplittableRandom random = new SplittableRandom(42);
+      long late = 0;
+      for (long i = 0; ; i++) {
+        long due = start + (long) (i * 1e9 / rate);
+        if (due >= measureTo) {
+          break;
+        }
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        if (-wait > TimeUnit.MILLISECONDS.toNanos(10)) {
+          late++;
+        }
+        Operation operation = mix.next(random);
+        connections.execute(() -> send(operation, baseUrl, tokens, catalogue, due, due >= measureFrom));
+      }
+      connections.shutdown();
+      if (!connections.awaitTermination(1, TimeUnit.MINUTES)) {
+        System.out.println("Requests still in flight after a minute were not measured");
+        connections.shutdownNow();
+      }
+      if (late > 0) {
+        System.out.printf("%d requests were sent more than 10ms late; the load generator is saturated%n", late);
+      }
+      report((measureTo - measureFrom) / 1e9);
+    } finally {
+      context.close();
+    }
+  }
+
+  private void send(Operation operation, String baseUrl, Tokens tokens, Catalogue catalogue, long due, boolean measured) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    HttpRequest request = switch (operation) {
+      case LIST -> get(baseUrl + "/api/v1/books?limit=20", tokens.user());
+      case GET -> get(baseUrl + "/api/v1/books/" + catalogue.ids()[random.nextInt(catalogue.ids().length)], tokens.user());
+      case SEARCH -> get(baseUrl + "/api/v1/books/search?q=" + WORDS[random.nextInt(WORDS.length)], tokens.user());
+      case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/books"))
+          .header("Authorization", "Bearer " + tokens.admin())
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(String.format(
+              "{\"title\":\"Created %s book\",\"isbn\":\"LT%011d\",\"authorId\":%d,\"genreId\":%d}",
+              WORDS[random.nextInt(WORDS.length)], created.incrementAndGet(), catalogue.authorId(), catalogue.genreId())))
+          .build();
+      case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+          .build();
+    };
+    boolean failed;
+    try {
+      failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != operation.expectedStatus;
+    } catch (IOException e) {
+      failed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    long received = System.nanoTime();
+    if (measured) {
+      if (failed) {
+        errors.get(operation).incrementAndGet();
+      } else {
+        histograms.get(operation).recordValue(received - due);
+      }
+    }
+  }
+
+  private static HttpRequest get(String url, String token) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Authorization", "Bearer " + token)
+        .build();
+  }
+
+  private void report(double seconds) throws IOException {
+    Path directory = Path.of(settings.get("report"));
+    Files.createDirectories(directory);
+    String label = settings.get("label");
+    Histogram all = new Histogram(3);
+    long allErrors = 0;
+
+    System.out.printf("%n%-8s %9s %9s %9s %9s %9s %9s %9s %8s%n",
+        "op", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+    for (Operation operation : Operation.values()) {
+      Histogram histogram = histograms.get(operation);
+      long failed = errors.get(operation).get();
+      if (histogram.getTotalCount() == 0 && failed == 0) {
+        continue;
+      }
+      all.add(histogram);
+      allErrors += failed;
+      System.out.println(line(operation.label(), histogram, failed, seconds));
+      write(directory.resolve(label + "-" + operation.label() + ".hgrm"), histogram);
+    }
+    System.out.println(line("all", all, allErrors, seconds));
+    write(directory.resolve(label + "-all.hgrm"), all);
+    System.out.println("\nPercentile distributions written to " + directory.toAbsolutePath().resolve(label + "-*.hgrm"));
+  }
+
+  private static String line(String name, Histogram histogram, long errors, double seconds) {
+    return String.format("%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d", name, histogram.getTotalCount(),
+        histogram.getTotalCount() / seconds, millis(histogram.getValueAtPercentile(50)),
+        millis(histogram.getValueAtPercentile(90)), millis(histogram.getValueAtPercentile(99)),
+        millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()), errors);
+  }
+
+  private static void write(Path file, Histogram histogram) throws IOException {
+    try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+      histogram.outputPercentileDistribution(out, 1e6);
+    }
+  }
+
+  private String login(String baseUrl, String body) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+    }
+    return objectMapper.readTree(response.body()).get("token").asText();
+  }
+
+  private static Catalogue seed(JdbcTemplate jdbcTemplate, int books) {
+    jdbcTemplate.update("INSERT INTO authors (name, biography) VALUES ('Load Test Author', 'Seeded for load tests')");
+    jdbcTemplate.update("INSERT INTO genres (name, description) VALUES ('Load Test Genre', 'Seeded for load tests')");
+    Long authorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM authors", Long.class);
+    Long genreId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM genres", Long.class);
+
+    // IDs are assigned here rather than drawn from books_seq, which hands them out in steps of 50. They start
+    // past the block of IDs Hibernate may already hold, and the sequence is moved past them afterwards, so
+    // books created during the run do not collide with them.
+    long firstId = Math.max(
+        jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM books", Long.class),
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR books_seq", Long.class)) + 100;
+    List<Object[]> rows = new ArrayList<>(books);
+    long[] ids = new long[books];
+    for (int i = 0; i < books; i++) {
+      ids[i] = firstId + i;
+      String first = WORDS[i % WORDS.length];
+      String second = WORDS[(i / WORDS.length) % WORDS.length];
+      rows.add(new Object[]{ids[i], "The " + first + " " + second + " " + i,
+          "A seeded book about the " + first + " and the " + second,
+          Date.valueOf(LocalDate.of(1900, 1, 1).plusDays(i % 40_000)), authorId, genreId});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO books (id, title, description, publication_date, author_id, genre_id) VALUES (?, ?, ?, ?, ?, ?)",
+        rows);
+    jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH " + (firstId + books + 100));
+    return new Catalogue(ids, authorId, genreId);
+  }
+
+  private Duration duration(String name) {
+    return DurationStyle.detectAndParse(settings.get(name));
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  private enum Operation {
+    LIST(200), GET(200), SEARCH(200), CREATE(201), LOGIN(200);
+
+    private final int expectedStatus;
+
+    Operation(int expectedStatus) {
+      this.expectedStatus = expectedStatus;
+    }
+
+    String label() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /**
+   * Operations by cumulative weight, from which each request is drawn.
+   */
+  private record Mix(Operation[] operations, int[] cumulativeWeights) {
+
+    static Mix parse(String mix) {
+      List<Operation> operations = new ArrayList<>();
+      List<Integer> weights = new ArrayList<>();
+      int total = 0;
+      for (String entry : mix.split(",")) {
+        String[] pair = entry.trim().split("=", 2);
+        Operation operation;
+        try {
+          operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Unknown operation '" + pair[0] + "' in mix, expected list, get, search, create or login");
+        }
+        int weight = pair.length == 2 ? Integer.parseInt(pair[1].trim()) : 1;
+        if (weight < 0) {
+          throw new IllegalArgumentException("Weight of " + pair[0] + " must not be negative");
+        }
+        total += weight;
+        operations.add(operation);
+        weights.add(total);
+      }
+      if (total == 0) {
+        throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+      }
+      return new Mix(operations.toArray(new Operation[0]), weights.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    Operation next(SplittableRandom random) {
+      int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      int i = 0;
+      while (draw >= cumulativeWeights[i]) {
+        i++;
+      }
+      return operations[i];
+    }
+  }
+
+  private record Catalogue(long[] ids, long authorId, long genreId) {
+  }
+
+  private record Tokens(String user, String admin) {
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Delays every JDBC statement execution by a fixed time, so the in-memory H2 database answers with the
+ * latency of a database across the network.
+ * <p>
+ * The delay is a sleep on the calling thread while it holds a pooled connection, which is how a request
+ * waits for Postgres. It starts at zero, so seeding runs at full speed, and is set with {@link #set}.
+ */
+final class StatementLatency implements BeanPostProcessor {
+
+  private static final Set<Class<?>> WRAPPED =
+      Set.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+  private volatile long delayNanos;
+
+  void set(Duration delay) {
+    delayNanos = delay.toNanos();
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource) : bean;
+  }
+
+  private Object wrap(Class<?> type, Object target) {
+    return Proxy.newProxyInstance(StatementLatency.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      if (target instanceof Statement && method.getName().startsWith("execute")) {
+        delay();
+      }
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+      return result != null && WRAPPED.contains(method.getReturnType()) ? wrap(method.getReturnType(), result) : result;
+    });
+  }
+
+  private void delay() throws InterruptedException {
+    long nanos = delayNanos;
+    if (nanos > 0) {
+      Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    }
+  }
+}
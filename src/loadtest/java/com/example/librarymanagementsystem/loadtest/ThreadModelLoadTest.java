@@ -0,0 +1,248 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the throughput and latency of the catalogue API with requests served by Tomcat's platform-thread
+ * pool and by virtual threads ({@code library.threads.virtual}), on the same machine and database.
+ * <p>
+ * For each mode the application is started on the H2 {@code test} profile with {@code books} seeded rows,
+ * and every JDBC statement is delayed by {@code db-latency} to stand in for a remote Postgres. After
+ * logging in as {@code user}, {@code clients} concurrent clients each send requests back to back, half of
+ * them {@code GET /api/v1/books} and half {@code GET /api/v1/books/{id}}, through the JWT filter, the
+ * controllers and the transactional services. Requests sent during {@code warmup} are not measured.
+ * <p>
+ * Arguments, as {@code name=value}:
+ * - {@code modes}: Comma-separated {@code platform} and {@code virtual}, defaults to both. The virtual mode
+ *   needs Java 21, see {@code loadtest.java} in the POM.
+ * - {@code books}: Seeded books, defaults to 10000.
+ * - {@code clients}: Concurrent clients, defaults to 400.
+ * - {@code warmup} / {@code duration}: Unmeasured and measured run time, default 10s and 30s.
+ * - {@code db-latency}: Delay added to every statement, defaults to 10ms.
+ * - {@code pool}: Hikari connections, defaults to 50.
+ * - {@code tomcat-threads}: Tomcat's platform threads, defaults to 200; unused by the virtual mode.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="clients=800 db-latency=20ms"}.
+ */
+public final class ThreadModelLoadTest {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("modes", "platform,virtual");
+    DEFAULTS.put("books", "10000");
+    DEFAULTS.put("clients", "400");
+    DEFAULTS.put("warmup", "10s");
+    DEFAULTS.put("duration", "30s");
+    DEFAULTS.put("db-latency", "10ms");
+    DEFAULTS.put("pool", "50");
+    DEFAULTS.put("tomcat-threads", "200");
+  }
+
+  private final Map<String, String> settings;
+  private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ThreadModelLoadTest(Map<String, String> settings) {
+    this.settings = settings;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+    for (String arg : args) {
+      String[] pair = arg.split("=", 2);
+      if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+        throw new IllegalArgumentException("Unknown argument '" + arg + "', expected any of " + DEFAULTS.keySet());
+      }
+      settings.put(pair[0], pair[1]);
+    }
+    System.out.println("Java " + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, " + settings);
+
+    ThreadModelLoadTest loadTest = new ThreadModelLoadTest(settings);
+    List<String> results = new ArrayList<>();
+    for (String mode : settings.get("modes").split(",")) {
+      try {
+        results.add(loadTest.run(mode.trim()));
+      } catch (Exception e) {
+        results.add(String.format("%-10s failed: %s", mode.trim(), NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+      }
+    }
+    System.out.printf("%n%-10s %10s %10s %10s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+    results.forEach(System.out::println);
+    System.exit(0);
+  }
+
+  private String run(String mode) throws Exception {
+    if (!mode.equals("platform") && !mode.equals("virtual")) {
+      throw new IllegalArgumentException("Unknown mode '" + mode + "', expected platform or virtual");
+    }
+    StatementLatency latency = new StatementLatency();
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+        .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(latency))
+        .run("--spring.profiles.active=test", "--server.port=0", "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN", "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.springframework.security=WARN",
+            "--logging.level.com.example.librarymanagementsystem.config=INFO",
+            "--library.rate-limit.enabled=false",
+            "--library.threads.virtual=" + mode.equals("virtual"),
+            "--server.tomcat.threads.max=" + settings.get("tomcat-threads"),
+            "--spring.datasource.hikari.maximum-pool-size=" + settings.get("pool"));
+    try {
+      long[] ids = seed(context.getBean(JdbcTemplate.class), Integer.parseInt(settings.get("books")));
+      String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+      String token = login(baseUrl);
+      latency.set(duration("db-latency"));
+
+      long start = System.nanoTime();
+      long measureFrom = start + duration("warmup").toNanos();
+      long measureTo = measureFrom + duration("duration").toNanos();
+      List<Client> clients = new ArrayList<>();
+      for (int i = 0; i < Integer.parseInt(settings.get("clients")); i++) {
+        Client worker = new Client(baseUrl, token, ids, measureFrom, measureTo);
+        worker.thread.start();
+        clients.add(worker);
+      }
+      long count = 0;
+      long errors = 0;
+      long[][] latencies = new long[clients.size()][];
+      for (int i = 0; i < clients.size(); i++) {
+        Client worker = clients.get(i);
+        worker.thread.join();
+        latencies[i] = Arrays.copyOf(worker.latencies, worker.count);
+        count += worker.count;
+        errors += worker.errors;
+      }
+      long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+      double seconds = (measureTo - measureFrom) / 1e9;
+      return String.format("%-10s %10.0f %10.1f %10.1f %10.1f %10d", mode, count / seconds,
+          millis(percentile(all, 0.50)), millis(percentile(all, 0.99)), millis(all.length > 0 ? all[all.length - 1] : 0),
+          errors);
+    } finally {
+      context.close();
+    }
+  }
+
+  private String login(String baseUrl) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user\",\"password\":\"password\"}"))
+        .build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+    }
+    return objectMapper.readTree(response.body()).get("token").asText();
+  }
+
+  private static long[] seed(JdbcTemplate jdbcTemplate, int books) {
+    jdbcTemplate.update("INSERT INTO authors (name, biography) VALUES ('Load Test Author', 'Seeded for load tests')");
+    jdbcTemplate.update("INSERT INTO genres (name, description) VALUES ('Load Test Genre', 'Seeded for load tests')");
+    Long authorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM authors", Long.class);
+    Long genreId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM genres", Long.class);
+
+    // IDs are assigned here rather than drawn from books_seq, which hands them out in steps of 50.
+    long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM books", Long.class);
+    List<Object[]> rows = new ArrayList<>(books);
+    long[] ids = new long[books];
+    for (int i = 0; i < books; i++) {
+      ids[i] = firstId + i;
+      rows.add(new Object[]{ids[i], "Load test book " + i, "Description of load test book " + i,
+          Date.valueOf(LocalDate.of(1900, 1, 1).plusDays(i % 40_000)), authorId, genreId});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO books (id, title, description, publication_date, author_id, genre_id) VALUES (?, ?, ?, ?, ?, ?)",
+        rows);
+    return ids;
+  }
+
+  private Duration duration(String name) {
+    return DurationStyle.detectAndParse(settings.get(name));
+  }
+
+  private static long percentile(long[] sorted, double quantile) {
+    return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  /**
+   * One client in a closed loop, recording the latency of every response it receives within the measured window.
+   */
+  private final class Client implements Runnable {
+
+    private final Thread thread = new Thread(this, "load-client");
+    private final String baseUrl;
+    private final String token;
+    private final long[] ids;
+    private final long measureFrom;
+    private final long measureTo;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    Client(String baseUrl, String token, long[] ids, long measureFrom, long measureTo) {
+      this.baseUrl = baseUrl;
+      this.token = token;
+      this.ids = ids;
+      this.measureFrom = measureFrom;
+      this.measureTo = measureTo;
+    }
+
+    @Override
+    public void run() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long sent;
+      while ((sent = System.nanoTime()) < measureTo) {
+        String path = random.nextBoolean()
+            ? "/api/v1/books?limit=20"
+            : "/api/v1/books/" + ids[random.nextInt(ids.length)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .build();
+        boolean failed;
+        try {
+          failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200;
+        } catch (IOException e) {
+          failed = true;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        long received = System.nanoTime();
+        if (sent >= measureFrom && received <= measureTo) {
+          if (failed) {
+            errors++;
+          } else {
+            if (count == latencies.length) {
+              latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = received - sent;
+          }
+        }
+      }
+    }
+  }
+}
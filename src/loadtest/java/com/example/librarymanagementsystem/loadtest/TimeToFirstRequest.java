@@ -0,0 +1,185 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a new instance of the application takes to answer its first request, from the moment
+ * its process is started, so start-up options such as a class data sharing archive or Spring AOT can be
+ * compared by what an autoscaled pod actually gains.
+ * <p>
+ * The command after {@code --} is started {@code runs} times, one after the other, in {@code dir}. Each time,
+ * {@code POST /api/v1/auth/login} as {@code user} is retried every 10 ms until it succeeds, and then
+ * {@code GET /api/v1/books?limit=20} is sent with the token. Two times are taken from the start of the
+ * process: when the login first succeeded (ready) and when the books were answered (first request). The
+ * process is then stopped. The command must start the application on {@code url}'s port with the seeded
+ * users, such as on the H2 {@code test} profile. The first {@code warmup-runs} runs warm the file cache and
+ * are not measured; the output of every run is appended to {@code <report>/<label>.log}.
+ * <p>
+ * The report lists the times of each run and their median.
+ * <p>
+ * Arguments, as {@code name=value} and followed by {@code -- command...}:
+ * - {@code runs}: Measured runs, defaults to 5.
+ * - {@code warmup-runs}: Unmeasured runs before them, defaults to 1.
+ * - {@code dir}: Working directory of the command, defaults to {@code target/cds}.
+ * - {@code url}: Base URL of the started application, defaults to {@code http://localhost:8080}.
+ * - {@code timeout}: Longest wait for one run to answer, defaults to 120s.
+ * - {@code report}: Directory of the log file, defaults to {@code target/loadtest}.
+ * - {@code label}: Name of the log file and the run in the report, defaults to {@code run}.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.class=TimeToFirstRequest
+ * -Dloadtest.args="label=cds -- java -XX:SharedArchiveFile=app.jsa -cp app.jar:training/h2.jar
+ * com.example.librarymanagementsystem.LibraryManagementSystemApplication --spring.profiles.active=test"}.
+ */
+public final class TimeToFirstRequest {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("runs", "5");
+    DEFAULTS.put("warmup-runs", "1");
+    DEFAULTS.put("dir", "target/cds");
+    DEFAULTS.put("url", "http://localhost:8080");
+    DEFAULTS.put("timeout", "120s");
+    DEFAULTS.put("report", "target/loadtest");
+    DEFAULTS.put("label", "run");
+  }
+
+  private static final String LOGIN_BODY = "{\"username\":\"user\",\"password\":\"password\"}";
+
+  private final Map<String, String> settings;
+  private final List<String> command;
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(1))
+      .build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private TimeToFirstRequest(Map<String, String> settings, List<String> command) {
+    this.settings = settings;
+    this.command = command;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+    int separator = Arrays.asList(args).indexOf("--");
+    if (separator < 0 || separator == args.length - 1) {
+      throw new IllegalArgumentException("Expected the command to start after '--'");
+    }
+    for (String arg : Arrays.copyOfRange(args, 0, separator)) {
+      String[] pair = arg.split("=", 2);
+      if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+        throw new IllegalArgumentException("Unknown argument '" + arg + "', expected any of " + DEFAULTS.keySet());
+      }
+      settings.put(pair[0], pair[1]);
+    }
+    List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+    System.out.println("Java " + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, "
+        + settings + ", " + String.join(" ", command));
+
+    new TimeToFirstRequest(settings, command).run();
+    System.exit(0);
+  }
+
+  private void run() throws Exception {
+    int runs = Integer.parseInt(settings.get("runs"));
+    int warmupRuns = Integer.parseInt(settings.get("warmup-runs"));
+    Path report = Path.of(settings.get("report"));
+    Files.createDirectories(report);
+    File log = report.resolve(settings.get("label") + ".log").toFile();
+
+    List<Timing> timings = new ArrayList<>();
+    for (int i = 0; i < warmupRuns + runs; i++) {
+      Timing timing = measure(log);
+      boolean warmup = i < warmupRuns;
+      System.out.printf(Locale.ROOT, "%s %d: ready %,d ms, first request %,d ms%n",
+          warmup ? "Warmup" : "Run", warmup ? i + 1 : i - warmupRuns + 1, timing.ready().toMillis(),
+          timing.firstRequest().toMillis());
+      if (!warmup) {
+        timings.add(timing);
+      }
+    }
+
+    List<Duration> ready = new ArrayList<>(timings.stream().map(Timing::ready).toList());
+    List<Duration> firstRequest = new ArrayList<>(timings.stream().map(Timing::firstRequest).toList());
+    Collections.sort(ready);
+    Collections.sort(firstRequest);
+    System.out.printf(Locale.ROOT, "%s: median ready %,d ms, median first request %,d ms (%,d to %,d ms)%n",
+        settings.get("label"), ready.get(ready.size() / 2).toMillis(),
+        firstRequest.get(firstRequest.size() / 2).toMillis(), firstRequest.get(0).toMillis(),
+        firstRequest.get(firstRequest.size() - 1).toMillis());
+  }
+
+  private Timing measure(File log) throws IOException, InterruptedException {
+    String url = settings.get("url");
+    long deadline = System.nanoTime() + DurationStyle.detectAndParse(settings.get("timeout")).toNanos();
+    HttpRequest login = HttpRequest.newBuilder(URI.create(url + "/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+        .build();
+
+    long started = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .directory(new File(settings.get("dir")))
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+        .start();
+    try {
+      String token = null;
+      while (token == null) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("The command exited with " + process.exitValue() + ", see " + log);
+        }
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException("No answer from " + url + " within " + settings.get("timeout"));
+        }
+        try {
+          HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+          if (response.statusCode() == 200) {
+            token = objectMapper.readTree(response.body()).get("token").asText();
+          }
+        } catch (IOException e) {
+          // Not listening yet
+        }
+        if (token == null) {
+          Thread.sleep(10);
+        }
+      }
+      Duration ready = Duration.ofNanos(System.nanoTime() - started);
+
+      HttpResponse<String> books = client.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/books?limit=20"))
+          .header("Authorization", "Bearer " + token)
+          .build(), HttpResponse.BodyHandlers.ofString());
+      if (books.statusCode() != 200) {
+        throw new IllegalStateException("GET /api/v1/books answered " + books.statusCode());
+      }
+      return new Timing(ready, Duration.ofNanos(System.nanoTime() - started));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  private record Timing(Duration ready, Duration firstRequest) {
+  }
+}
@@ -1,5 +1,12 @@
 package com.example.librarymanagementsystem;
 
+import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.event.AuthorChangedEvent;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.event.GenreChangedEvent;
 import com.example.librarymanagementsystem.model.Author;
 import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.Genre;
@@ -8,93 +15,222 @@ import com.example.librarymanagementsystem.repository.AuthorRepository;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.GenreRepository;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.services.BookCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds the demo users, genres, authors and books, on every profile but {@code prod}.
+ * <p>
+ * Seeding is meant to cost next to nothing once the data is there, as on every restart after the first:
+ * - One query finds which of the seeded rows already exist, by their natural keys. When all do, that query
+ *   is all seeding costs.
+ * - The passwords are stored as precomputed BCrypt hashes, so no password is hashed at startup.
+ * - Missing rows are inserted in one transaction; the books go to the database as one JDBC batch. Users,
+ *   genres and authors take their IDs from identity columns and are inserted row by row, which only
+ *   happens on an empty database.
+ * The new books are counted through {@link BookCounters}, and change events are published for every
+ * inserted genre, author and book, so the search and suggestion indexes pick them up whenever seeding runs.
+ * <p>
+ * Configuration:
+ * - {@code library.seed.mode}: {@code startup} seeds before the application reports ready, the default;
+ *   {@code async} seeds on a background thread once it is ready, so the first requests may not see the
+ *   seeded rows yet; {@code off} skips seeding.
+ */
 @Component
+@Profile("!prod")
 public class DataLoader implements CommandLineRunner {
 
+  private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
+  // BCrypt hashes, strength 10, of "password" and "admin"
+  private static final List<SeedUser> USERS = List.of(
+      new SeedUser("user", "user@example.com", "$2a$10$1NUf.kGgZDFM1Fut8zLzEuRugXc.grDzJowGzgJO2y5/cOY4m4RE.", "ROLE_USER"),
+      new SeedUser("admin", "admin@example.com", "$2a$10$YF38V5YKghiAxvHoPzcBf.OUBNIaMEmUgOSuZZcfg3KCEonpp/3du", "ROLE_ADMIN"));
+  private static final List<String> GENRES = List.of("Fiction", "Non-Fiction");
+  private static final List<String> AUTHORS = List.of("Author One", "Author Two");
+  private static final List<SeedBook> BOOKS = List.of(
+      new SeedBook("Book One", "Author One", "Fiction"),
+      new SeedBook("Book Two", "Author Two", "Non-Fiction"));
+
   private final UserRepository userRepository;
   private final BookRepository bookRepository;
   private final AuthorRepository authorRepository;
   private final GenreRepository genreRepository;
-  private final PasswordEncoder passwordEncoder;
+  private final BookCounters bookCounters;
+  private final ApplicationEventPublisher eventPublisher;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final String mode;
 
   public DataLoader(UserRepository userRepository, BookRepository bookRepository,
                     AuthorRepository authorRepository, GenreRepository genreRepository,
-                    PasswordEncoder passwordEncoder) {
+                    BookCounters bookCounters, ApplicationEventPublisher eventPublisher, DataSource dataSource,
+                    PlatformTransactionManager transactionManager,
+                    @Value("${library.seed.mode:startup}") String mode) {
+    if (!List.of("startup", "async", "off").contains(mode)) {
+      throw new IllegalArgumentException("library.seed.mode must be startup, async or off, not '" + mode + "'");
+    }
     this.userRepository = userRepository;
     this.bookRepository = bookRepository;
     this.authorRepository = authorRepository;
     this.genreRepository = genreRepository;
-    this.passwordEncoder = passwordEncoder;
+    this.bookCounters = bookCounters;
+    this.eventPublisher = eventPublisher;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.mode = mode;
   }
 
   @Override
-  public void run(String... args) throws Exception {
-    // Create users
-    if (!userRepository.existsByUsername("user")) {
-      User user = new User();
-      user.setUsername("user");
-      user.setEmail("user@example.com");
-      user.setPassword(passwordEncoder.encode("password"));
-      user.setRole("ROLE_USER");
-      userRepository.save(user);
+  public void run(String... args) {
+    if (mode.equals("startup")) {
+      seed();
     }
+  }
 
-    if (!userRepository.existsByUsername("admin")) {
-      User admin = new User();
-      admin.setUsername("admin");
-      admin.setEmail("admin@example.com");
-      admin.setPassword(passwordEncoder.encode("admin"));
-      admin.setRole("ROLE_ADMIN");
-      userRepository.save(admin);
+  @EventListener(ApplicationReadyEvent.class)
+  public void seedWhenReady() {
+    if (mode.equals("async")) {
+      Thread thread = new Thread(() -> {
+        try {
+          seed();
+        } catch (RuntimeException e) {
+          log.error("Seeding the demo data failed", e);
+        }
+      }, "data-loader");
+      thread.setDaemon(true);
+      thread.start();
     }
+  }
 
-    // Create genres
-    if (!genreRepository.existsByName("Fiction")) {
-      Genre fiction = new Genre();
-      fiction.setName("Fiction");
-      genreRepository.save(fiction);
+  /**
+   * Inserts the seeded rows that do not exist yet.
+   *
+   * @return the number of rows inserted
+   */
+  public int seed() {
+    long started = System.nanoTime();
+    Existing existing = findExisting();
+    List<SeedUser> users = USERS.stream().filter(user -> !existing.users().containsKey(user.username())).toList();
+    List<String> genres = GENRES.stream().filter(name -> !existing.genres().containsKey(name)).toList();
+    List<String> authors = AUTHORS.stream().filter(name -> !existing.authors().containsKey(name)).toList();
+    List<SeedBook> books = BOOKS.stream().filter(book -> !existing.books().containsKey(book.title())).toList();
+    int missing = users.size() + genres.size() + authors.size() + books.size();
+    if (missing > 0) {
+      transactionTemplate.executeWithoutResult(status -> insert(existing, users, genres, authors, books));
     }
+    log.info("Seeded {} missing rows in {} ms", missing, (System.nanoTime() - started) / 1_000_000);
+    return missing;
+  }
 
-    if (!genreRepository.existsByName("Non-Fiction")) {
-      Genre nonfiction = new Genre();
-      nonfiction.setName("Non-Fiction");
-      genreRepository.save(nonfiction);
-    }
+  /**
+   * Looks up the IDs of the seeded rows that exist, by their natural keys, in one query.
+   */
+  private Existing findExisting() {
+    List<Object> keys = new ArrayList<>();
+    String sql = String.join(" UNION ALL ",
+        lookup("user", "users", "username", USERS.stream().map(SeedUser::username).toList(), keys),
+        lookup("genre", "genres", "name", GENRES, keys),
+        lookup("author", "authors", "name", AUTHORS, keys),
+        lookup("book", "books", "title", BOOKS.stream().map(SeedBook::title).toList(), keys));
+    Map<String, Map<String, Long>> ids = new HashMap<>();
+    jdbcTemplate.query(sql, rs -> {
+      ids.computeIfAbsent(rs.getString(1), kind -> new HashMap<>()).putIfAbsent(rs.getString(2), rs.getLong(3));
+    }, keys.toArray());
+    return new Existing(ids.getOrDefault("user", Map.of()), ids.getOrDefault("genre", Map.of()),
+        ids.getOrDefault("author", Map.of()), ids.getOrDefault("book", Map.of()));
+  }
 
-    // Create authors
-    if (!authorRepository.existsByName("Author One")) {
-      Author author1 = new Author();
-      author1.setName("Author One");
-      authorRepository.save(author1);
-    }
+  private static String lookup(String kind, String table, String column, List<String> values, List<Object> keys) {
+    keys.addAll(values);
+    return "SELECT '" + kind + "', " + column + ", id FROM " + table + " WHERE " + column + " IN ("
+        + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+  }
 
-    if (!authorRepository.existsByName("Author Two")) {
-      Author author2 = new Author();
-      author2.setName("Author Two");
-      authorRepository.save(author2);
-    }
+  private void insert(Existing existing, List<SeedUser> users, List<String> genreNames, List<String> authorNames,
+                      List<SeedBook> seedBooks) {
+    userRepository.saveAll(users.stream().map(SeedUser::toEntity).toList());
 
-    // Create books
-    if (!bookRepository.existsByTitle("Book One")) {
-      Book book1 = new Book();
-      book1.setTitle("Book One");
-      book1.setAuthor(authorRepository.findByName("Author One").get());
-      book1.setGenre(genreRepository.findByName("Fiction").get());
-      bookRepository.save(book1);
+    Map<String, Genre> genres = genreRepository.saveAll(genreNames.stream().map(name -> {
+      Genre genre = new Genre();
+      genre.setName(name);
+      return genre;
+    }).toList()).stream().collect(Collectors.toMap(Genre::getName, Function.identity()));
+    existing.genres().forEach((name, id) -> genres.putIfAbsent(name, genreRepository.getReferenceById(id)));
+
+    Map<String, Author> authors = authorRepository.saveAll(authorNames.stream().map(name -> {
+      Author author = new Author();
+      author.setName(name);
+      return author;
+    }).toList()).stream().collect(Collectors.toMap(Author::getName, Function.identity(), (first, second) -> first));
+    existing.authors().forEach((name, id) -> authors.putIfAbsent(name, authorRepository.getReferenceById(id)));
+
+    List<Book> books = bookRepository.saveAll(seedBooks.stream().map(seed -> {
+      Book book = new Book();
+      book.setTitle(seed.title());
+      book.setAuthor(authors.get(seed.author()));
+      book.setGenre(genres.get(seed.genre()));
+      return book;
+    }).toList());
+    bookRepository.flush();
+    bookCounters.adjust(
+        books.stream().collect(Collectors.groupingBy(book -> book.getAuthor().getId(), LinkedHashMap::new, Collectors.counting())),
+        books.stream().collect(Collectors.groupingBy(book -> book.getGenre().getId(), LinkedHashMap::new, Collectors.counting())));
+
+    for (String name : genreNames) {
+      Genre genre = genres.get(name);
+      eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.CREATED,
+          new GenreDTO(genre.getId(), genre.getName(), genre.getDescription())));
     }
+    for (String name : authorNames) {
+      Author author = authors.get(name);
+      eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.CREATED,
+          new AuthorDTO(author.getId(), author.getName(), author.getBiography(), author.getBirthDate())));
+    }
+    for (Book book : books) {
+      eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, new BookDTO(book.getId(), book.getTitle(),
+          book.getIsbn(), book.getPublicationDate(), book.getDescription(), book.getAuthor().getId(),
+          book.getGenre().getId(), book.getVersion())));
+    }
+  }
 
-    if (!bookRepository.existsByTitle("Book Two")) {
-      Book book2 = new Book();
-      book2.setTitle("Book Two");
-      book2.setAuthor(authorRepository.findByName("Author Two").get());
-      book2.setGenre(genreRepository.findByName("Non-Fiction").get());
-      bookRepository.save(book2);
+  private record SeedUser(String username, String email, String passwordHash, String role) {
+
+    User toEntity() {
+      User user = new User();
+      user.setUsername(username);
+      user.setEmail(email);
+      user.setPassword(passwordHash);
+      user.setRole(role);
+      return user;
     }
   }
+
+  private record SeedBook(String title, String author, String genre) {
+  }
+
+  private record Existing(Map<String, Long> users, Map<String, Long> genres, Map<String, Long> authors,
+                          Map<String, Long> books) {
+  }
 }
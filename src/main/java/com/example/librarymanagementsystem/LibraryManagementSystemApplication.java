@@ -2,15 +2,22 @@ package com.example.librarymanagementsystem;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-@SpringBootApplication
+// The R2DBC connection factory belongs to the reactive read API's own context; created here it would
+// replace the JDBC DataSource that JPA uses.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class LibraryManagementSystemApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(LibraryManagementSystemApplication.class, args);
+    SpringApplication application = new SpringApplication(LibraryManagementSystemApplication.class);
+    // Records the startup steps for StartupTimings and the actuator's startup endpoint
+    application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+    application.run(args);
   }
 
   @Bean
@@ -0,0 +1,74 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.reactive.ReactiveCatalogueServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warns at startup when an opt-in mode is set differently from how the ahead-of-time build fixed it.
+ * <p>
+ * With Spring AOT the bean definitions are generated by the {@code aot} Maven profile, so each
+ * {@code @ConditionalOnProperty} is evaluated then, with the properties of {@code -Daot.profiles}, and
+ * setting its property at runtime has no effect. Settings read from the {@code Environment} at runtime, such
+ * as {@code library.rate-limit.enabled}, are not affected and are not checked. Outside an AOT run nothing is
+ * checked.
+ * <p>
+ * Checked:
+ * - {@code library.threads.virtual}: Whether {@link VirtualThreadConfig} was included.
+ * - {@code library.reactive.enabled}: Whether {@link ReactiveCatalogueServer} was included.
+ */
+@Component
+public class AotConditionCheck {
+
+  private static final Logger log = LoggerFactory.getLogger(AotConditionCheck.class);
+
+  // Each property, with the bean that exists when the property is true
+  static final Map<String, Class<?>> OPT_INS = new LinkedHashMap<>();
+
+  static {
+    OPT_INS.put("library.threads.virtual", VirtualThreadConfig.class);
+    OPT_INS.put("library.reactive.enabled", ReactiveCatalogueServer.class);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void checkOptIns(ApplicationReadyEvent event) {
+    if (!AotDetector.useGeneratedArtifacts()) {
+      return;
+    }
+    Environment environment = event.getApplicationContext().getEnvironment();
+    for (String property : fixedByAot(environment, event.getApplicationContext())) {
+      boolean requested = requested(environment, property);
+      log.warn("{} is {} but the application was built ahead of time with it {}; the setting has no effect "
+          + "until the image is rebuilt with the aot profile", property, requested, requested ? "off" : "on");
+    }
+  }
+
+  /**
+   * Returns the opt-in properties whose value does not match whether their bean exists.
+   */
+  static List<String> fixedByAot(Environment environment, ListableBeanFactory beanFactory) {
+    List<String> mismatched = new ArrayList<>();
+    OPT_INS.forEach((property, type) -> {
+      boolean included = beanFactory.getBeanNamesForType(type, true, false).length > 0;
+      if (requested(environment, property) != included) {
+        mismatched.add(property);
+      }
+    });
+    return mismatched;
+  }
+
+  private static boolean requested(Environment environment, String property) {
+    return environment.getProperty(property, Boolean.class, false);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.librarymanagementsystem.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration class for the in-memory caches of read-mostly reference data.
+ * This class sets up bounded Caffeine caches for authors and genres, so reference lookups made by
+ * book writes and the author and genre listings are answered from memory instead of the database.
+ * <p>
+ * Annotations:
+ * - {@code @Configuration}: Indicates that this class is a configuration class.
+ * - {@code @EnableCaching}: Enables Spring's annotation-driven cache management.
+ * <p>
+ * Beans:
+ * - {@code CacheManager}: Holds one cache per entry of {@link #GROUPS}. Evictions and puts made inside a
+ *   transaction are deferred until it commits, so a concurrent reader cannot re-cache the row before
+ *   the change is visible in the database.
+ * <p>
+ * Caches:
+ * - {@code authors} / {@code genres}: Single DTOs by ID, filled by the repositories' {@code findDTOById}.
+ *   Lookups of missing IDs are not cached. Entries are also evicted when a book write changes their book count.
+ * - {@code authorLists} / {@code genreLists}: Full lists and listing pages, cleared on every change,
+ *   including book writes.
+ * - {@code stats}: Catalogue statistics by number of top entries, cleared on every change to books,
+ *   authors or genres.
+ * <p>
+ * Configuration, per group ({@code authors}, {@code genres} or {@code stats}):
+ * - {@code library.cache.<group>.enabled}: Turns the group's caches off when {@code false}, defaults to true.
+ * - {@code library.cache.<group>.spec}: Caffeine specification of size and expiry, defaults to
+ *   {@value #DEFAULT_SPEC}. Hit and miss statistics are always recorded and published as
+ *   {@code cache.gets} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String AUTHORS = "authors";
+  public static final String AUTHOR_LISTS = "authorLists";
+  public static final String GENRES = "genres";
+  public static final String GENRE_LISTS = "genreLists";
+  public static final String STATS = "stats";
+
+  static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=10m";
+
+  private static final Map<String, List<String>> GROUPS = new LinkedHashMap<>();
+
+  static {
+    GROUPS.put("authors", List.of(AUTHORS, AUTHOR_LISTS));
+    GROUPS.put("genres", List.of(GENRES, GENRE_LISTS));
+    GROUPS.put("stats", List.of(STATS));
+  }
+
+  @Bean
+  public CacheManager cacheManager(Environment environment) {
+    List<Cache> caches = new ArrayList<>();
+    GROUPS.forEach((group, names) -> {
+      boolean enabled = environment.getProperty("library.cache." + group + ".enabled", Boolean.class, true);
+      String spec = environment.getProperty("library.cache." + group + ".spec", DEFAULT_SPEC);
+      for (String name : names) {
+        caches.add(enabled ? new CaffeineCache(name, Caffeine.from(spec).recordStats().build()) : new NoOpCache(name));
+      }
+    });
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(caches);
+    cacheManager.initializeCaches();
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.librarymanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads that pin their carrier thread, by streaming the JDK's own
+ * {@code jdk.VirtualThreadPinned} flight-recorder events while the application runs.
+ * <p>
+ * Each event at least as long as the threshold is counted and logged as a warning with the top of the
+ * pinned stack, which names the monitor holder to fix. The stream only records this event, so the
+ * overhead is that of the events themselves.
+ * <p>
+ * Metrics:
+ * - {@code library.threads.pinned}: Pinned virtual threads and how long they held their carrier.
+ */
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+  private final Duration threshold;
+  private final int stackDepth;
+  private final Timer pinned;
+  private RecordingStream stream;
+
+  public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold, int stackDepth) {
+    this.threshold = threshold;
+    this.stackDepth = stackDepth;
+    this.pinned = Timer.builder("library.threads.pinned")
+        .description("Virtual threads that blocked while pinned to their carrier thread")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public synchronized void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::report);
+    stream.startAsync();
+    log.info("Reporting virtual threads pinned for {} ms or longer", threshold.toMillis());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return stream != null;
+  }
+
+  void report(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    RecordedThread thread = event.getThread();
+    log.warn("Virtual thread {} was pinned to its carrier for {} ms{}",
+        thread != null ? thread.getJavaName() : "?", event.getDuration().toMillis(), stack(event.getStackTrace()));
+  }
+
+  private String stack(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "";
+    }
+    StringBuilder text = new StringBuilder();
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    for (RecordedFrame frame : frames.subList(0, Math.min(stackDepth, frames.size()))) {
+      text.append(System.lineSeparator()).append("\tat ")
+          .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+          .append(':').append(frame.getLineNumber());
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.librarymanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Configuration class for metrics of the database layer, published with the other meters and scraped
+ * through {@code /actuator/prometheus}.
+ * <p>
+ * Metrics:
+ * - {@code spring.data.repository.invocations}: Latency of every repository method, tagged by repository,
+ *   method and outcome. Recorded by Spring Boot; published as a histogram here (see {@code application.yml}).
+ * - {@code library.repository.rows}: Rows returned per call, tagged by repository and method.
+ * - {@code library.repository.statements}: SQL statements run per call, tagged by repository and method.
+ *   A method that runs more statements than it returns rows, or more than one for a single lookup, is
+ *   loading lazily.
+ * - {@code hikaricp.connections.acquire}: Time spent waiting for a pooled connection, as a histogram, and
+ *   {@code hikaricp.connections.active}, {@code .idle} and {@code .pending}. Recorded by Spring Boot.
+ * - {@code hibernate.*}: Hibernate session statistics, such as {@code hibernate.entities.loads},
+ *   {@code hibernate.flushes} and {@code hibernate.second.level.cache.requests}. Recorded by Spring Boot
+ *   once {@code hibernate.generate_statistics} is on.
+ * <p>
+ * Time spent between repository calls, such as in {@code convertToDTO}, is the request time less the
+ * repository time, and statements run there, such as lazy loads, show up in
+ * {@code hibernate.entities.loads} but not in the repository statements.
+ * <p>
+ * Beans:
+ * - {@code BeanPostProcessor}: Adds {@link RepositoryMetricsInterceptor} to every Spring Data repository.
+ * - {@code HibernatePropertiesCustomizer}: Registers {@link StatementCounter} with Hibernate.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+  // Static, so that repository factory beans are post-processed before anything else is initialized
+  @Bean
+  public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+          repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+              (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                  meterRegistry.getObject(), repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer statementCounter() {
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.librarymanagementsystem.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Records, for every call of a repository method, the rows it returned and the SQL statements it ran.
+ * <p>
+ * Rows are the elements of a returned collection, slice or page, one for a present {@code Optional} or a
+ * returned entity or DTO, and none for an empty {@code Optional} or {@code null}. Counts, flags and update
+ * counts are not rows and are not recorded. A returned stream is counted as it is consumed and recorded
+ * when it is closed. Statements include those of nested calls and of the flush that a query may trigger.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+  private final MeterRegistry meterRegistry;
+  private final String repository;
+  private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+  RepositoryMetricsInterceptor(MeterRegistry meterRegistry, String repository) {
+    this.meterRegistry = meterRegistry;
+    this.repository = repository;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Meters methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::meters);
+    long statementsBefore = StatementCounter.current();
+    try {
+      Object result = invocation.proceed();
+      return recordRows(methodMeters.rows, result);
+    } finally {
+      methodMeters.statements.record(StatementCounter.current() - statementsBefore);
+    }
+  }
+
+  private Meters meters(Method method) {
+    return new Meters(
+        DistributionSummary.builder("library.repository.rows")
+            .description("Rows returned by a repository method")
+            .tag("repository", repository)
+            .tag("method", method.getName())
+            .register(meterRegistry),
+        DistributionSummary.builder("library.repository.statements")
+            .description("SQL statements run by a repository method")
+            .tag("repository", repository)
+            .tag("method", method.getName())
+            .register(meterRegistry));
+  }
+
+  private static Object recordRows(DistributionSummary rows, Object result) {
+    if (result instanceof Collection<?> collection) {
+      rows.record(collection.size());
+    } else if (result instanceof Slice<?> slice) {
+      rows.record(slice.getNumberOfElements());
+    } else if (result instanceof Optional<?> optional) {
+      rows.record(optional.isPresent() ? 1 : 0);
+    } else if (result instanceof Stream<?> stream) {
+      AtomicLong count = new AtomicLong();
+      return stream.peek(row -> count.incrementAndGet()).onClose(() -> rows.record(count.get()));
+    } else if (result == null) {
+      rows.record(0);
+    } else if (!(result instanceof Number || result instanceof Boolean)) {
+      rows.record(1);
+    }
+    return result;
+  }
+
+  private record Meters(DistributionSummary rows, DistributionSummary statements) {
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.librarymanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration class that upgrades the schema of an existing database to the one the entities map, before
+ * Hibernate starts.
+ * <p>
+ * Hibernate only adds what is missing with {@code ddl-auto: update}, and not always correctly; with
+ * {@code validate}, as in the {@code prod} profile, it refuses to start. So at every startup, for the tables
+ * that exist:
+ * - Book IDs: Book IDs used to come from an identity column. On PostgreSQL, the pooled {@code books_seq}
+ *   sequence is created if it is missing, as Hibernate would create it, and moved past the highest book ID,
+ *   leaving room for a whole block of 50 IDs below its value, since Hibernate hands out the 50 IDs up to
+ *   each value it reads. A sequence that is already further is left alone. Other databases, such as H2 in
+ *   tests, are created by Hibernate with the sequence and are skipped.
+ * - Versions: The optimistic-lock {@code version} column of authors, books and genres is added with 0 for
+ *   the existing rows.
+ * - Book counts: The {@code book_count} column of authors and genres is added and filled from the books
+ *   table, bumping the version of the rows that have books, as {@code BookCounters} does. Its
+ *   {@code (book_count, id)} index is created if it is missing.
+ * Every step checks first and changes nothing once the schema is current, so they need not be run by hand.
+ * <p>
+ * Beans:
+ * - {@code schemaUpgrade}: Runs the upgrade when the data source is ready.
+ * - {@code EntityManagerFactoryDependsOnPostProcessor}: Makes the entity manager factory wait for it.
+ */
+@Configuration
+public class SchemaUpgradeConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(SchemaUpgradeConfig.class);
+
+  private static final String UPGRADE_BEAN = "schemaUpgrade";
+
+  // Must match the allocation size of the books_seq generator on Book
+  private static final int ALLOCATION_SIZE = 50;
+
+  private static final List<String> VERSIONED_TABLES = List.of("authors", "books", "genres");
+
+  // Tables with a book count, by the column of books that references them
+  private static final Map<String, String> COUNTED_TABLES = Map.of("authors", "author_id", "genres", "genre_id");
+
+  @Bean(UPGRADE_BEAN)
+  public InitializingBean schemaUpgrade(DataSource dataSource) {
+    return () -> upgrade(new JdbcTemplate(dataSource));
+  }
+
+  // Static, so that the dependency is declared before the entity manager factory is created
+  @Bean
+  public static EntityManagerFactoryDependsOnPostProcessor schemaUpgradeDependency() {
+    return new EntityManagerFactoryDependsOnPostProcessor(UPGRADE_BEAN);
+  }
+
+  static void upgrade(JdbcTemplate jdbcTemplate) {
+    String database = jdbcTemplate.execute(
+        (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+    if ("PostgreSQL".equals(database) && tableExists(jdbcTemplate, "books")) {
+      migrateBookIds(jdbcTemplate);
+    }
+    for (String table : VERSIONED_TABLES) {
+      if (tableExists(jdbcTemplate, table) && !columnExists(jdbcTemplate, table, "version")) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN version bigint DEFAULT 0 NOT NULL");
+        log.info("Added column {}.version", table);
+      }
+    }
+    COUNTED_TABLES.forEach((table, reference) -> {
+      if (tableExists(jdbcTemplate, table)) {
+        addBookCount(jdbcTemplate, table, reference);
+      }
+    });
+  }
+
+  private static void addBookCount(JdbcTemplate jdbcTemplate, String table, String reference) {
+    if (!columnExists(jdbcTemplate, table, "book_count")) {
+      jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN book_count bigint DEFAULT 0 NOT NULL");
+      int counted = 0;
+      if (tableExists(jdbcTemplate, "books")) {
+        String count = "(SELECT COUNT(*) FROM books b WHERE b." + reference + " = t.id)";
+        counted = jdbcTemplate.update("UPDATE " + table + " t SET book_count = " + count + ", version = version + 1 "
+            + "WHERE book_count <> " + count);
+      }
+      log.info("Added column {}.book_count, counted the books of {} rows", table, counted);
+    }
+    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_book_count ON " + table + " (book_count, id)");
+  }
+
+  private static void migrateBookIds(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+    Long value = jdbcTemplate.queryForObject("SELECT setval('books_seq', GREATEST(last_value, "
+        + "(SELECT COALESCE(MAX(id), 0) FROM books) + " + ALLOCATION_SIZE + ")) FROM books_seq", Long.class);
+    log.info("Book IDs continue from sequence books_seq at {}", value);
+  }
+
+  // The information schema is standard, and unquoted names are stored in lower case by PostgreSQL and
+  // in upper case by H2
+  private static boolean tableExists(JdbcTemplate jdbcTemplate, String table) {
+    return count(jdbcTemplate, "SELECT COUNT(*) FROM information_schema.tables "
+        + "WHERE table_schema = CURRENT_SCHEMA AND LOWER(table_name) = ?", table) > 0;
+  }
+
+  private static boolean columnExists(JdbcTemplate jdbcTemplate, String table, String column) {
+    return count(jdbcTemplate, "SELECT COUNT(*) FROM information_schema.columns "
+        + "WHERE table_schema = CURRENT_SCHEMA AND LOWER(table_name) = ? AND LOWER(column_name) = ?", table, column) > 0;
+  }
+
+  private static long count(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+    Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+    return count == null ? 0 : count;
+  }
+}
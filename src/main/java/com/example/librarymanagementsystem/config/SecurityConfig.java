@@ -1,9 +1,14 @@
 package com.example.librarymanagementsystem.config;
 
 import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import com.example.librarymanagementsystem.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -11,6 +16,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -19,6 +26,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 /**
@@ -35,15 +44,29 @@ import java.util.List;
  * - {@code PasswordEncoder}: Provides a BCrypt-based password encoder.
  * - {@code AuthenticationManager}: Provides the authentication manager required for authentication processes.
  * - {@code SecurityFilterChain}: Configures the security filter chain for handling HTTP requests.
+ * - {@code SecurityFilterChain} for {@code /actuator/prometheus}: Lets Prometheus scrape the metrics with HTTP
+ *   basic authentication, which it supports, rather than a JWT that expires.
  * <p>
  * Security Configuration:
  * - Disables CSRF protection.
  * - Configures stateless session management to work with JWTs.
- * - Defines public, ROLE_USER, and ROLE_ADMIN access controls for specific API endpoints.
+ * - Defines public, ROLE_USER, and ROLE_ADMIN access controls for specific API endpoints; revoking tokens
+ * of others is limited to ROLE_ADMIN.
+ * - Leaves the actuator health check public and restricts the other actuator endpoints, such as metrics, to ROLE_ADMIN.
+ *   {@code /actuator/prometheus} also accepts the scrape credentials over HTTP basic authentication, compared
+ *   in constant time; without a scrape password, only ROLE_ADMIN can read it.
  * - Adds a filter to handle JWT token authentication for incoming requests.
+ * - Adds a filter after it that limits the request rate per user or IP address, answering 429 when exceeded.
  * <p>
  * Dependency:
  * - {@code JwtTokenProvider}: A component used for managing JWT tokens, including creating, parsing, and validating tokens.
+ * - {@code RateLimitFilter}: Token-bucket rate limits per route group; runs after authentication so it can
+ *   count requests per user.
+ * <p>
+ * Configuration:
+ * - {@code library.metrics.scrape.username}: User name Prometheus scrapes with, defaults to {@code prometheus}.
+ * - {@code library.metrics.scrape.password}: Its password, such as from {@code LIBRARY_METRICS_SCRAPE_PASSWORD};
+ *   empty by default, which turns basic authentication off.
  */
 @Configuration
 @EnableWebSecurity
@@ -51,9 +74,17 @@ import java.util.List;
 public class SecurityConfig {
 
   private final JwtTokenProvider jwtTokenProvider;
+  private final RateLimitFilter rateLimitFilter;
+  private final String scrapeUsername;
+  private final byte[] scrapePassword;
 
-  public SecurityConfig(JwtTokenProvider jwtTokenProvider) {
+  public SecurityConfig(JwtTokenProvider jwtTokenProvider, RateLimitFilter rateLimitFilter,
+                        @Value("${library.metrics.scrape.username:prometheus}") String scrapeUsername,
+                        @Value("${library.metrics.scrape.password:}") String scrapePassword) {
     this.jwtTokenProvider = jwtTokenProvider;
+    this.rateLimitFilter = rateLimitFilter;
+    this.scrapeUsername = scrapeUsername;
+    this.scrapePassword = scrapePassword.getBytes(StandardCharsets.UTF_8);
   }
 
   @Bean
@@ -67,6 +98,22 @@ public class SecurityConfig {
   }
 
   @Bean
+  @Order(1)
+  public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+    http
+        .securityMatcher("/actuator/prometheus")
+        .csrf(AbstractHttpConfigurer::disable)
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .authorizeHttpRequests(authz -> authz.anyRequest().hasAnyRole("METRICS", "ADMIN"))
+        .httpBasic(basic -> basic.realmName("metrics"))
+        .authenticationManager(this::authenticateScrape)
+        .addFilterBefore(jwtTokenProvider, UsernamePasswordAuthenticationFilter.class);
+
+    return http.build();
+  }
+
+  @Bean
+  @Order(2)
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -74,21 +121,36 @@ public class SecurityConfig {
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(authz -> authz
             .requestMatchers("/api/v1/auth/login", "/api/v1/auth/register", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
-            .requestMatchers("/api/v1/auth/me").authenticated()
+            .requestMatchers("/api/v1/auth/me", "/api/v1/auth/logout").authenticated()
+            .requestMatchers("/api/v1/auth/revoke").hasRole("ADMIN")
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             .requestMatchers("/api/v1/genres/**", "/api/v1/authors/**", "/api/v1/books/**").hasAnyRole("USER", "ADMIN")
             .anyRequest().authenticated()
         )
-        .addFilterBefore(jwtTokenProvider, UsernamePasswordAuthenticationFilter.class);
+        .addFilterBefore(jwtTokenProvider, UsernamePasswordAuthenticationFilter.class)
+        .addFilterAfter(rateLimitFilter, JwtTokenProvider.class);
 
     return http.build();
   }
 
+  private Authentication authenticateScrape(Authentication authentication) {
+    byte[] password = String.valueOf(authentication.getCredentials()).getBytes(StandardCharsets.UTF_8);
+    if (scrapePassword.length == 0 || !scrapeUsername.equals(authentication.getName())
+        || !MessageDigest.isEqual(scrapePassword, password)) {
+      throw new BadCredentialsException("Bad scrape credentials");
+    }
+    return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null,
+        AuthorityUtils.createAuthorityList("ROLE_METRICS"));
+  }
+
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration configuration = new CorsConfiguration();
     configuration.setAllowedOrigins(List.of("http://localhost:3000"));
     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(List.of("*"));
+    configuration.setExposedHeaders(List.of("ETag", "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset", "Retry-After"));
     configuration.setAllowCredentials(true);
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", configuration);
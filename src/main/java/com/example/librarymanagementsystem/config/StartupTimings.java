@@ -0,0 +1,113 @@
+package com.example.librarymanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went, once the application is ready, so a slow pod start can be traced to the
+ * phase or the bean that caused it.
+ * <p>
+ * The steps are recorded by the {@link BufferingApplicationStartup} that
+ * {@code LibraryManagementSystemApplication.main} installs; contexts started otherwise, such as in tests,
+ * record nothing and nothing is logged. Bean creation is nested, since creating a bean creates its
+ * dependencies first, so each bean is reported with its own time, less the time spent creating the beans
+ * it needed.
+ * <p>
+ * Logged:
+ * - The total time of each kind of step, such as {@code spring.beans.instantiate} and
+ *   {@code spring.data.repository.init}, slowest first, on one line at INFO.
+ * - The {@code library.startup.slowest-beans} slowest beans at INFO, and every bean at DEBUG.
+ * The full timeline is also served by the actuator's {@code startup} endpoint when it is exposed.
+ * <p>
+ * Configuration:
+ * - {@code library.startup.slowest-beans}: Beans listed at INFO, defaults to 10; 0 logs none.
+ */
+@Component
+public class StartupTimings {
+
+  private static final Logger log = LoggerFactory.getLogger(StartupTimings.class);
+
+  private final int slowestBeans;
+
+  public StartupTimings(@Value("${library.startup.slowest-beans:10}") int slowestBeans) {
+    this.slowestBeans = slowestBeans;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void logTimings(ApplicationReadyEvent event) {
+    if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+      log(startup.getBufferedTimeline().getEvents());
+    }
+  }
+
+  private void log(List<StartupTimeline.TimelineEvent> events) {
+    Map<Long, Long> childNanos = new HashMap<>();
+    Map<Long, String> names = new HashMap<>();
+    for (StartupTimeline.TimelineEvent event : events) {
+      StartupStep step = event.getStartupStep();
+      names.put(step.getId(), step.getName());
+      if (step.getParentId() != null) {
+        childNanos.merge(step.getParentId(), event.getDuration().toNanos(), Long::sum);
+      }
+    }
+
+    Map<String, Duration> phases = new HashMap<>();
+    List<BeanTiming> beans = new ArrayList<>();
+    for (StartupTimeline.TimelineEvent event : events) {
+      StartupStep step = event.getStartupStep();
+      // A step nested in a step of the same kind is already part of that step's time
+      if (!step.getName().equals(names.get(step.getParentId()))) {
+        phases.merge(step.getName(), event.getDuration(), Duration::plus);
+      }
+      if (step.getName().equals("spring.beans.instantiate")) {
+        long ownNanos = event.getDuration().toNanos() - childNanos.getOrDefault(step.getId(), 0L);
+        beans.add(new BeanTiming(beanName(step), Duration.ofNanos(Math.max(0, ownNanos)), event.getDuration()));
+      }
+    }
+    beans.sort(Comparator.comparing(BeanTiming::own).reversed());
+
+    log.info("Startup steps by total time: {}", phases.entrySet().stream()
+        .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+        .map(phase -> phase.getKey() + " " + phase.getValue().toMillis() + " ms")
+        .collect(Collectors.joining(", ")));
+    for (int i = 0; i < beans.size(); i++) {
+      BeanTiming bean = beans.get(i);
+      if (i < slowestBeans) {
+        log.info("Bean {} took {} ms to create, {} ms with its dependencies",
+            bean.name(), bean.own().toMillis(), bean.total().toMillis());
+      } else if (log.isDebugEnabled()) {
+        log.debug("Bean {} took {} ms to create, {} ms with its dependencies",
+            bean.name(), bean.own().toMillis(), bean.total().toMillis());
+      } else {
+        break;
+      }
+    }
+  }
+
+  private static String beanName(StartupStep step) {
+    for (StartupStep.Tag tag : step.getTags()) {
+      if (tag.getKey().equals("beanName")) {
+        return tag.getValue();
+      }
+    }
+    return "?";
+  }
+
+  private record BeanTiming(String name, Duration own, Duration total) {
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.librarymanagementsystem.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread, so that the statements of a repository call
+ * can be told apart from those of the code around it.
+ * <p>
+ * Hibernate passes every statement it prepares through its {@link StatementInspector}, including native
+ * queries, lazy loads and flushes. The count only grows; callers take the difference of two readings.
+ */
+class StatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get()[0]++;
+    return sql;
+  }
+
+  /**
+   * Returns the number of statements prepared on the current thread so far.
+   */
+  static long current() {
+    return COUNT.get()[0];
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.event.AuthorChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.event.GenreChangedEvent;
+import com.example.librarymanagementsystem.index.NameSuggestIndex;
+import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Configuration class for the in-memory typeahead indexes over author and genre names.
+ * <p>
+ * Each index is built once the application is ready by paging through its repository with keyset
+ * reads, and is then kept current from the change events of its service, which are only applied after
+ * the publishing transaction commits.
+ * <p>
+ * Beans:
+ * - {@code authorSuggestIndex}: Author names, kept current from {@link AuthorChangedEvent}s.
+ * - {@code genreSuggestIndex}: Genre names, kept current from {@link GenreChangedEvent}s.
+ * <p>
+ * Configuration:
+ * - {@code library.suggest.build-page-size}: Rows read per query during the initial builds, defaults to 1000.
+ */
+@Configuration
+public class SuggestIndexConfig {
+
+  public static final String AUTHORS = "authorSuggestIndex";
+  public static final String GENRES = "genreSuggestIndex";
+
+  private final NameSuggestIndex authors;
+  private final NameSuggestIndex genres;
+
+  public SuggestIndexConfig(AuthorRepository authorRepository, GenreRepository genreRepository,
+                            @Value("${library.suggest.build-page-size:1000}") int buildPageSize) {
+    PageRequest page = PageRequest.of(0, buildPageSize);
+    this.authors = new NameSuggestIndex("author", NameSuggestIndex.keysetPages(
+        after -> authorRepository.findPageAfter(after, page), buildPageSize, AuthorDTO::getId, AuthorDTO::getName));
+    this.genres = new NameSuggestIndex("genre", NameSuggestIndex.keysetPages(
+        after -> genreRepository.findPageAfter(after, page), buildPageSize, GenreDTO::getId, GenreDTO::getName));
+  }
+
+  @Bean(AUTHORS)
+  public NameSuggestIndex authorSuggestIndex() {
+    return authors;
+  }
+
+  @Bean(GENRES)
+  public NameSuggestIndex genreSuggestIndex() {
+    return genres;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildSuggestIndexes() {
+    authors.rebuild();
+    genres.rebuild();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAuthorChanged(AuthorChangedEvent event) {
+    apply(authors, event.getType(), event.getAuthor().getId(), event.getAuthor().getName());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGenreChanged(GenreChangedEvent event) {
+    apply(genres, event.getType(), event.getGenre().getId(), event.getGenre().getName());
+  }
+
+  private static void apply(NameSuggestIndex index, ChangeType type, Long id, String name) {
+    if (type == ChangeType.DELETED) {
+      index.remove(id);
+    } else {
+      index.put(id, name);
+    }
+  }
+}
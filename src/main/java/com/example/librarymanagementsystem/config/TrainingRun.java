@@ -0,0 +1,135 @@
+package com.example.librarymanagementsystem.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Exercises the application once and shuts it down, for a training run that records the classes it loads,
+ * such as the one the {@code Dockerfile} uses to build a class data sharing (CDS) archive.
+ * <p>
+ * Once the application is ready, it sends one of each common request to itself: logins, book, genre and
+ * author reads, a search, a book created and deleted again, the statistics, the API docs and the actuator.
+ * That loads the classes of the request path, which would otherwise only be loaded by the first real
+ * requests, so they are archived too. A failed request is logged and does not stop the run. The JVM then
+ * exits, which is when it writes the archive.
+ * <p>
+ * The run needs a database with the seeded users and books, and is meant for the H2 {@code test} profile.
+ * The property is read when the application is ready rather than through a bean condition, since Spring
+ * AOT processing fixes the bean definitions at build time and the same build serves the training run and
+ * the real one.
+ * <p>
+ * Configuration:
+ * - {@code library.training-run}: Runs the requests and exits when {@code true}; off by default.
+ */
+@Component
+public class TrainingRun {
+
+  private static final Logger log = LoggerFactory.getLogger(TrainingRun.class);
+
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+  public TrainingRun(ObjectMapper objectMapper, @Value("${library.training-run:false}") boolean enabled) {
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void run(ApplicationReadyEvent event) {
+    if (!enabled) {
+      return;
+    }
+    ConfigurableApplicationContext context = event.getApplicationContext();
+    Thread thread = new Thread(() -> {
+      try {
+        exercise("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+      } catch (Exception e) {
+        log.warn("Training run stopped early", e);
+      } finally {
+        System.exit(SpringApplication.exit(context));
+      }
+    }, "training-run");
+    thread.start();
+  }
+
+  private void exercise(String baseUrl) throws IOException, InterruptedException {
+    String userToken = login(baseUrl, "user", "password");
+    String adminToken = login(baseUrl, "admin", "admin");
+
+    JsonNode page = objectMapper.readTree(send(get(baseUrl + "/api/v1/books?limit=20", userToken)));
+    send(get(baseUrl + "/api/v1/books/search?q=book", userToken));
+    send(get(baseUrl + "/api/v1/genres", userToken));
+    send(get(baseUrl + "/api/v1/authors", userToken));
+    send(get(baseUrl + "/api/v1/stats", userToken));
+    send(get(baseUrl + "/api/v1/auth/me", userToken));
+    if (page != null && page.path("items").size() > 0) {
+      JsonNode book = page.path("items").get(0);
+      send(get(baseUrl + "/api/v1/books/" + book.path("id").asLong(), userToken));
+      send(get(baseUrl + "/api/v1/genres/" + book.path("genreId").asLong() + "/books", userToken));
+      String created = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/books"))
+          .header("Authorization", "Bearer " + adminToken)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Training run\",\"authorId\":"
+              + book.path("authorId").asLong() + ",\"genreId\":" + book.path("genreId").asLong() + "}"))
+          .build());
+      if (created != null) {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/books/" + objectMapper.readTree(created).path("id").asLong()))
+            .header("Authorization", "Bearer " + adminToken)
+            .DELETE()
+            .build());
+      }
+    }
+    send(get(baseUrl + "/v3/api-docs", null));
+    send(get(baseUrl + "/actuator/health", null));
+    send(get(baseUrl + "/actuator/prometheus", adminToken));
+    log.info("Training run complete");
+  }
+
+  private String login(String baseUrl, String username, String password) throws IOException, InterruptedException {
+    String response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(
+            objectMapper.createObjectNode().put("username", username).put("password", password).toString()))
+        .build());
+    if (response == null) {
+      throw new IllegalStateException("Cannot log in as " + username);
+    }
+    return objectMapper.readTree(response).get("token").asText();
+  }
+
+  private static HttpRequest get(String url, String token) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return request.build();
+  }
+
+  /**
+   * Sends a request and returns the body of a successful response, or {@code null} after logging a failed one.
+   */
+  private String send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() >= 300) {
+      log.warn("{} {} answered {}", request.method(), request.uri().getPath(), response.statusCode());
+      return null;
+    }
+    return response.body();
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.librarymanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Configuration class for the opt-in virtual-thread execution mode.
+ * When enabled, Tomcat runs every servlet request on a new virtual thread instead of a thread of its
+ * bounded platform pool. A request waiting on the database, including the {@code @Transactional} service
+ * calls it makes on that thread, then releases its carrier thread, and the number of requests in flight is
+ * bounded by the Hikari pool rather than by {@code server.tomcat.threads.max}.
+ * <p>
+ * The mode needs Java 21. The virtual-thread API is looked up reflectively, so the application still
+ * builds and runs on Java 17 with the mode off; turning it on with an older runtime fails at startup.
+ * <p>
+ * Pinning: a virtual thread that blocks while holding a monitor keeps its carrier thread. The request path
+ * was reviewed for this:
+ * - HikariCP 5.0: borrowing and returning connections goes through its lock-free {@code ConcurrentBag}. The
+ *   {@code synchronized} blocks in statement tracking do not block, pool filling runs on Hikari's own
+ *   platform threads, and the lazy start in {@code HikariDataSource.getConnection} is taken once.
+ * - PostgreSQL JDBC 42.6: guards the connection's socket with a {@code ReentrantLock}.
+ * - {@code JwtTokenProvider}: parses and verifies tokens without monitors or I/O.
+ * - {@code TokenDenylist}: appends revocations to its file under a {@code ReentrantLock}.
+ * Anything missed is reported at runtime by {@link PinnedThreadMonitor}.
+ * <p>
+ * Beans:
+ * - {@code TomcatProtocolHandlerCustomizer}: Hands Tomcat an executor that starts one virtual thread per request.
+ * - {@code applicationTaskExecutor}: Replaces Boot's task pool with virtual threads, for asynchronous MVC
+ *   responses such as the book export.
+ * - {@code PinnedThreadMonitor}: Reports pinned virtual threads.
+ * <p>
+ * Configuration:
+ * - {@code library.threads.virtual}: Turns the mode on when {@code true}, defaults to false.
+ * - {@code library.threads.pinned-threshold}: Shortest pinning that is reported, defaults to 20ms.
+ * - {@code library.threads.pinned-stack-depth}: Frames of the pinned stack that are logged, defaults to 12.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService requestExecutor() {
+    return newVirtualThreadPerTaskExecutor("http-vt-");
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService requestExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+  }
+
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, destroyMethod = "")
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor("task-vt-"));
+  }
+
+  @Bean
+  public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+                                                 @Value("${library.threads.pinned-threshold:20ms}") Duration threshold,
+                                                 @Value("${library.threads.pinned-stack-depth:12}") int stackDepth) {
+    return new PinnedThreadMonitor(meterRegistry, threshold, stackDepth);
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread, named with {@code prefix} and a counter, for
+   * every task.
+   *
+   * @throws IllegalStateException if the runtime has no virtual threads
+   */
+  static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+    try {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, factory);
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      throw new IllegalStateException("library.threads.virtual requires Java 21 or later, running on Java "
+          + Runtime.version().feature());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create a virtual-thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration class for the message converters of the REST API.
+ * <p>
+ * Besides JSON, responses are available as CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}), chosen through the {@code Accept} header. Both are binary
+ * encodings of the same data model, so they carry the same DTOs and error bodies with fewer bytes and
+ * less encoding work, mostly because field names and numbers are not written as text. JSON stays
+ * first in the converter list and remains the default for {@code Accept: *}{@code /*} or no header.
+ * <p>
+ * Spring MVC registers both converters on its own once the Jackson modules are on the classpath, but
+ * with a fresh object mapper that ignores the {@code spring.jackson.*} settings; dates, for example,
+ * would be written as arrays instead of ISO strings. They are replaced in place here by converters
+ * whose mappers are copies of the application's JSON mapper.
+ * <p>
+ * Annotations:
+ * - {@code @Configuration}: Indicates that this class is a configuration class.
+ * <p>
+ * Beans:
+ * - {@code Jackson2ObjectMapperBuilderCustomizer}: Gives the application's mappers a default for the
+ *   {@link FieldSet} filter that the DTOs declare, so they serialize every property unless a response
+ *   selects fewer.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  private final ObjectMapper objectMapper;
+
+  public WebConfig(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  // Static, because the object mapper that this configuration depends on is built with it
+  @Bean
+  public static Jackson2ObjectMapperBuilderCustomizer fieldSetFilters() {
+    return builder -> builder.filters(FieldSet.ALL.filters());
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.replaceAll(converter -> {
+      if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+      }
+      if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+      }
+      return converter;
+    });
+  }
+}
@@ -1,6 +1,7 @@
 package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.dto.UserDTO;
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
 import com.example.librarymanagementsystem.services.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,15 +11,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
 /**
  * The AuthController class provides REST endpoints for user authentication and registration.
- * This includes functionality for user login and creation of a new account.
+ * This includes functionality for user login and creation of a new account, and for logging out
+ * and revoking issued tokens.
  * It interacts with the {@link AuthService} to handle authentication and registration logic.
  */
 @RestController
@@ -37,7 +41,8 @@ public class AuthController {
       @ApiResponse(responseCode = "200", description = "Authentication successful",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = Map.class))),
-      @ApiResponse(responseCode = "401", description = "Authentication failed")
+      @ApiResponse(responseCode = "401", description = "Authentication failed"),
+      @ApiResponse(responseCode = "503", description = "Too many logins at once; retry after the Retry-After header's seconds")
   })
 
   @PostMapping("/login")
@@ -86,4 +91,39 @@ public class AuthController {
     UserDTO user = authService.getCurrentUser();
     return ResponseEntity.ok(user);
   }
-}
\ No newline at end of file
+
+  @Operation(summary = "Log out", description = "Revoke the bearer token of this request, so it is refused from now on")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "204", description = "Token revoked"),
+      @ApiResponse(responseCode = "401", description = "Authentication failed")
+  })
+
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    authService.logout(JwtTokenProvider.resolveToken(authorization));
+    return ResponseEntity.noContent().build();
+  }
+
+  @Operation(summary = "Revoke tokens", description = "Revoke a single token, or every token issued to a user so far. Admin only.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+      @ApiResponse(responseCode = "400", description = "Neither a valid token nor a username was given"),
+      @ApiResponse(responseCode = "404", description = "User not found")
+  })
+
+  @PostMapping("/revoke")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Void> revoke(
+      @Parameter(description = "Either 'token', to revoke that token, or 'username', to revoke all of that user's tokens") @RequestBody Map<String, String> revokeRequest) {
+    String token = revokeRequest.get("token");
+    String username = revokeRequest.get("username");
+    if (token != null && !token.isBlank()) {
+      authService.revokeToken(token);
+    } else if (username != null && !username.isBlank()) {
+      authService.revokeUser(username);
+    } else {
+      throw new IllegalArgumentException("Either 'token' or 'username' is required");
+    }
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -1,7 +1,11 @@
 package com.example.librarymanagementsystem.controller.v1;
 
 import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
 import com.example.librarymanagementsystem.services.AuthorService;
+import com.example.librarymanagementsystem.services.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,18 +13,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * Controller for managing authors.
  * Handles CRUD operations related to authors using RESTful APIs.
  * Secured with role-based access control.
+ * Reads are tagged for conditional GETs and writes honour If-Match, see {@link EntityTags}.
+ * Reads accept {@code fields} to return only some properties, see {@link FieldSetAdvice}.
  */
 @RestController
 @RequestMapping("/api/v1/authors")
@@ -28,23 +37,67 @@ import java.util.List;
 public class AuthorController {
 
   private final AuthorService authorService;
+  private final BookService bookService;
 
-  public AuthorController(AuthorService authorService) {
+  public AuthorController(AuthorService authorService, BookService bookService) {
     this.authorService = authorService;
+    this.bookService = bookService;
   }
 
-  @Operation(summary = "Get all authors", description = "Retrieve a list of all authors")
+  @Operation(summary = "Get all authors", description = "Retrieve one page of authors ordered by ID, with cursors to the next and previous pages")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully retrieved list of authors",
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved page of authors",
           content = @Content(mediaType = "application/json",
-              schema = @Schema(implementation = AuthorDTO.class)))
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or fields")
   })
 
   @GetMapping
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-  public ResponseEntity<List<AuthorDTO>> getAllAuthors() {
-    List<AuthorDTO> authors = authorService.getAllAuthors();
-    return new ResponseEntity<>(authors, HttpStatus.OK);
+  public ResponseEntity<CursorPage<AuthorDTO>> getAllAuthors(
+      @Parameter(description = "Maximum number of authors to return (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Cursor of the last author already seen; returns the page after it") @RequestParam(required = false) String after,
+      @Parameter(description = "Cursor of the first author already seen; returns the page before it") @RequestParam(required = false) String before,
+      @Parameter(description = "Comma-separated author properties to return, such as name,bookCount; all by default") @RequestParam(required = false) String fields) {
+    // Read from the cache in full; the advice leaves the unselected fields out of the response
+    FieldSetAdvice.select(fields, AuthorDTO.FIELDS);
+    CursorPage<AuthorDTO> authors = authorService.getAuthors(limit, after, before);
+    return EntityTags.okPage(authors);
+  }
+
+  @Operation(summary = "Export all authors",
+      description = "Stream every author as newline-delimited JSON, read through a database cursor")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Authors streamed successfully",
+          content = @Content(mediaType = "application/x-ndjson",
+              schema = @Schema(implementation = AuthorDTO.class)))
+  })
+
+  @GetMapping("/export")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public void exportAuthors(HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    authorService.exportAuthors(response.getOutputStream());
+  }
+
+  @Operation(summary = "Suggest authors",
+      description = "Typeahead over author names: prefix matches on the whole name or any word, tolerating one typo")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions, best match first",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = SuggestionDTO.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid limit")
+  })
+
+  @GetMapping("/suggest")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<List<SuggestionDTO>> suggestAuthors(
+      @Parameter(description = "Beginning of the name or of any word in it") @RequestParam(required = false) String prefix,
+      @Parameter(description = "Maximum number of suggestions (1-50, default 10)") @RequestParam(required = false) Integer limit) {
+    List<SuggestionDTO> suggestions = authorService.suggestAuthors(prefix, limit);
+    return new ResponseEntity<>(suggestions, HttpStatus.OK);
   }
 
   @Operation(summary = "Get author by ID", description = "Retrieve a specific author by its ID")
@@ -52,15 +105,44 @@ public class AuthorController {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved author",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = AuthorDTO.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Unknown field"),
       @ApiResponse(responseCode = "404", description = "Author not found")
   })
 
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
   public ResponseEntity<AuthorDTO> getAuthorById(
-      @Parameter(description = "ID of the author to retrieve") @PathVariable Long id) {
+      @Parameter(description = "ID of the author to retrieve") @PathVariable Long id,
+      @Parameter(description = "Comma-separated author properties to return, such as name,bookCount; all by default") @RequestParam(required = false) String fields) {
+    FieldSetAdvice.select(fields, AuthorDTO.FIELDS);
     AuthorDTO author = authorService.getAuthorById(id);
-    return new ResponseEntity<>(author, HttpStatus.OK);
+    return EntityTags.ok(author);
+  }
+
+  @Operation(summary = "Get books of an author",
+      description = "Retrieve one page of the books of an author, with cursors to the next and previous pages")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved page of books",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Invalid sort, limit, cursor or fields"),
+      @ApiResponse(responseCode = "404", description = "Author not found")
+  })
+
+  @GetMapping("/{id}/books")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<CursorPage<BookDTO>> getAuthorBooks(
+      @Parameter(description = "ID of the author") @PathVariable Long id,
+      @Parameter(description = "Sort property: id (default), title or publicationDate; prefix with '-' for descending") @RequestParam(required = false) String sort,
+      @Parameter(description = "Maximum number of books to return (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Cursor of the last book already seen; returns the page after it") @RequestParam(required = false) String after,
+      @Parameter(description = "Cursor of the first book already seen; returns the page before it") @RequestParam(required = false) String before,
+      @Parameter(description = "Comma-separated book properties to return, such as id,title,isbn; all by default") @RequestParam(required = false) String fields) {
+    CursorPage<BookDTO> books = bookService.getBooksByAuthor(id, sort, limit, after, before,
+        FieldSetAdvice.select(fields, BookDTO.FIELDS));
+    return EntityTags.okPage(books);
   }
 
   @Operation(summary = "Create a new author", description = "Create a new author with the provided details")
@@ -77,7 +159,7 @@ public class AuthorController {
   public ResponseEntity<AuthorDTO> createAuthor(
       @Parameter(description = "Author details") @Valid @RequestBody AuthorDTO authorDTO) {
     AuthorDTO createdAuthor = authorService.createAuthor(authorDTO);
-    return new ResponseEntity<>(createdAuthor, HttpStatus.CREATED);
+    return EntityTags.written(HttpStatus.CREATED, createdAuthor);
   }
 
   @Operation(summary = "Update an existing author", description = "Update an existing author with the provided details")
@@ -87,30 +169,34 @@ public class AuthorController {
               schema = @Schema(implementation = AuthorDTO.class))),
       @ApiResponse(responseCode = "400", description = "Invalid input data"),
       @ApiResponse(responseCode = "404", description = "Author not found"),
-      @ApiResponse(responseCode = "409", description = "Author with this name already exists")
+      @ApiResponse(responseCode = "409", description = "Author with this name already exists"),
+      @ApiResponse(responseCode = "412", description = "Author has changed since the entity tag sent in If-Match")
   })
 
   @PutMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<AuthorDTO> updateAuthor(
       @Parameter(description = "ID of the author to update") @PathVariable Long id,
-      @Parameter(description = "Updated author details") @Valid @RequestBody AuthorDTO authorDTO) {
-    AuthorDTO updatedAuthor = authorService.updateAuthor(id, authorDTO);
-    return new ResponseEntity<>(updatedAuthor, HttpStatus.OK);
+      @Parameter(description = "Updated author details") @Valid @RequestBody AuthorDTO authorDTO,
+      @Parameter(description = "Entity tag of the author as last read; the update is refused with 412 if the author has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    AuthorDTO updatedAuthor = authorService.updateAuthor(id, authorDTO, EntityTags.expectedVersion(ifMatch));
+    return EntityTags.written(HttpStatus.OK, updatedAuthor);
   }
 
   @Operation(summary = "Delete an author", description = "Delete an author by its ID")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "204", description = "Author deleted successfully"),
       @ApiResponse(responseCode = "404", description = "Author not found"),
-      @ApiResponse(responseCode = "409", description = "Cannot delete author with associated books")
+      @ApiResponse(responseCode = "409", description = "Cannot delete author with associated books"),
+      @ApiResponse(responseCode = "412", description = "Author has changed since the entity tag sent in If-Match")
   })
 
   @DeleteMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<Void> deleteAuthor(
-      @Parameter(description = "ID of the author to delete") @PathVariable Long id) {
-    authorService.deleteAuthor(id);
+      @Parameter(description = "ID of the author to delete") @PathVariable Long id,
+      @Parameter(description = "Entity tag of the author as last read; the deletion is refused with 412 if the author has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    authorService.deleteAuthor(id, EntityTags.expectedVersion(ifMatch));
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 }
\ No newline at end of file
@@ -1,20 +1,32 @@
 package com.example.librarymanagementsystem.controller.v1;
 
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BulkReportDTO;
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.example.librarymanagementsystem.repository.BookFilter;
 import com.example.librarymanagementsystem.services.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -28,6 +40,15 @@ import java.util.List;
  * <p>
  * Security:
  * All endpoints are secured and require specific roles (`USER` or `ADMIN`) for access.
+ * <p>
+ * Conditional requests:
+ * Reads carry an ETag and Cache-Control (see {@link EntityTags}). A book detail request with
+ * If-None-Match reads only the book's version and answers 304 when it still matches. Updates and
+ * deletions honour If-Match and fail with 412 when the book has changed since it was read.
+ * <p>
+ * Sparse fieldsets:
+ * Reads accept {@code fields}, a comma-separated list of BookDTO properties. Only those columns are
+ * read from the database and only those properties are serialized (see {@link FieldSetAdvice}).
  */
 @RestController
 @RequestMapping("/api/v1/books")
@@ -40,18 +61,69 @@ public class BookController {
     this.bookService = bookService;
   }
 
-  @Operation(summary = "Get all books", description = "Retrieve a list of all books")
+  @Operation(summary = "Get all books",
+      description = "Retrieve one page of books, optionally filtered by author, genre and publication date range, "
+          + "with cursors to the next and previous pages")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully retrieved list of books",
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved page of books",
           content = @Content(mediaType = "application/json",
-              schema = @Schema(implementation = BookDTO.class)))
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Invalid filter, sort, limit, cursor or fields")
   })
 
   @GetMapping
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-  public ResponseEntity<List<BookDTO>> getAllBooks() {
-    List<BookDTO> books = bookService.getAllBooks();
-    return new ResponseEntity<>(books, HttpStatus.OK);
+  public ResponseEntity<CursorPage<BookDTO>> getAllBooks(
+      @Parameter(description = "Only books by this author") @RequestParam(required = false) Long authorId,
+      @Parameter(description = "Only books of this genre") @RequestParam(required = false) Long genreId,
+      @Parameter(description = "Only books published on or after this date (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+      @Parameter(description = "Only books published on or before this date (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+      @Parameter(description = "Sort property: id (default), title or publicationDate; prefix with '-' for descending") @RequestParam(required = false) String sort,
+      @Parameter(description = "Maximum number of books to return (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Cursor of the last book already seen; returns the page after it") @RequestParam(required = false) String after,
+      @Parameter(description = "Cursor of the first book already seen; returns the page before it") @RequestParam(required = false) String before,
+      @Parameter(description = "Comma-separated book properties to return, such as id,title,isbn; all by default") @RequestParam(required = false) String fields) {
+    BookFilter filter = new BookFilter(authorId, genreId, publishedFrom, publishedTo);
+    CursorPage<BookDTO> books = bookService.getBooks(filter, sort, limit, after, before,
+        FieldSetAdvice.select(fields, BookDTO.FIELDS));
+    return EntityTags.okPage(books);
+  }
+
+  @Operation(summary = "Export all books",
+      description = "Stream every book as newline-delimited JSON, read through a database cursor")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Books streamed successfully",
+          content = @Content(mediaType = "application/x-ndjson",
+              schema = @Schema(implementation = BookDTO.class)))
+  })
+
+  @GetMapping("/export")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public void exportBooks(HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    bookService.exportBooks(response.getOutputStream());
+  }
+
+  @Operation(summary = "Search books",
+      description = "Full-text search over book titles and descriptions, ranked by relevance (BM25)")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved matching books, best match first",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BookDTO.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Missing query, invalid limit or unknown field")
+  })
+
+  @GetMapping("/search")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<List<BookDTO>> searchBooks(
+      @Parameter(description = "Free-text query") @RequestParam(value = "q", required = false) String query,
+      @Parameter(description = "Maximum number of results (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Comma-separated book properties to return, such as id,title,isbn; all by default") @RequestParam(required = false) String fields) {
+    List<BookDTO> books = bookService.searchBooks(query, limit, FieldSetAdvice.select(fields, BookDTO.FIELDS));
+    return EntityTags.okList(books);
   }
 
   @Operation(summary = "Get book by ID", description = "Retrieve a specific book by its ID")
@@ -59,15 +131,27 @@ public class BookController {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved book",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = BookDTO.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Unknown field"),
       @ApiResponse(responseCode = "404", description = "Book not found")
   })
 
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
   public ResponseEntity<BookDTO> getBookById(
-      @Parameter(description = "ID of the book to retrieve") @PathVariable Long id) {
-    BookDTO book = bookService.getBookById(id);
-    return new ResponseEntity<>(book, HttpStatus.OK);
+      @Parameter(description = "ID of the book to retrieve") @PathVariable Long id,
+      @Parameter(description = "Entity tags of the book already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @Parameter(description = "Comma-separated book properties to return, such as id,title,isbn; all by default") @RequestParam(required = false) String fields) {
+    FieldSet fieldSet = FieldSetAdvice.select(fields, BookDTO.FIELDS);
+    // Revalidation only needs the version; the row itself is read only when it has changed
+    if (ifNoneMatch != null) {
+      String etag = EntityTags.of(bookService.getBookVersion(id));
+      if (EntityTags.matches(ifNoneMatch, etag)) {
+        return EntityTags.notModified(etag);
+      }
+    }
+    BookDTO book = bookService.getBookById(id, fieldSet);
+    return EntityTags.ok(book);
   }
 
   @Operation(summary = "Create a new book", description = "Create a new book with the provided details")
@@ -85,7 +169,27 @@ public class BookController {
   public ResponseEntity<BookDTO> createBook(
       @Parameter(description = "Book details") @Valid @RequestBody BookDTO bookDTO) {
     BookDTO createdBook = bookService.createBook(bookDTO);
-    return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
+    return EntityTags.written(HttpStatus.CREATED, createdBook);
+  }
+
+  @Operation(summary = "Create books in bulk",
+      description = "Create many books from a JSON array of book details. The array is read as a stream and "
+          + "inserted in batches; each item is validated on its own and reported as created or rejected")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Array processed, see the report for the outcome of each item",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BulkReportDTO.class))),
+      @ApiResponse(responseCode = "400", description = "Body is not a well-formed JSON array")
+  })
+
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "JSON array of book details", required = true,
+      content = @Content(mediaType = "application/json",
+          array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))))
+  public ResponseEntity<BulkReportDTO> createBooks(HttpServletRequest request) throws IOException {
+    BulkReportDTO report = bookService.createBooks(request.getInputStream());
+    return new ResponseEntity<>(report, HttpStatus.OK);
   }
 
   @Operation(summary = "Update an existing book", description = "Update an existing book with the provided details")
@@ -95,29 +199,33 @@ public class BookController {
               schema = @Schema(implementation = BookDTO.class))),
       @ApiResponse(responseCode = "400", description = "Invalid input data"),
       @ApiResponse(responseCode = "404", description = "Book, author, or genre not found"),
-      @ApiResponse(responseCode = "409", description = "Book with this ISBN already exists")
+      @ApiResponse(responseCode = "409", description = "Book with this ISBN already exists"),
+      @ApiResponse(responseCode = "412", description = "Book has changed since the entity tag sent in If-Match")
   })
 
   @PutMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<BookDTO> updateBook(
       @Parameter(description = "ID of the book to update") @PathVariable Long id,
-      @Parameter(description = "Updated book details") @Valid @RequestBody BookDTO bookDTO) {
-    BookDTO updatedBook = bookService.updateBook(id, bookDTO);
-    return new ResponseEntity<>(updatedBook, HttpStatus.OK);
+      @Parameter(description = "Updated book details") @Valid @RequestBody BookDTO bookDTO,
+      @Parameter(description = "Entity tag of the book as last read; the update is refused with 412 if the book has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    BookDTO updatedBook = bookService.updateBook(id, bookDTO, EntityTags.expectedVersion(ifMatch));
+    return EntityTags.written(HttpStatus.OK, updatedBook);
   }
 
   @Operation(summary = "Delete a book", description = "Delete a book by its ID")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "204", description = "Book deleted successfully"),
-      @ApiResponse(responseCode = "404", description = "Book not found")
+      @ApiResponse(responseCode = "404", description = "Book not found"),
+      @ApiResponse(responseCode = "412", description = "Book has changed since the entity tag sent in If-Match")
   })
 
   @DeleteMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<Void> deleteBook(
-      @Parameter(description = "ID of the book to delete") @PathVariable Long id) {
-    bookService.deleteBook(id);
+      @Parameter(description = "ID of the book to delete") @PathVariable Long id,
+      @Parameter(description = "Entity tag of the book as last read; the deletion is refused with 412 if the book has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    bookService.deleteBook(id, EntityTags.expectedVersion(ifMatch));
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package com.example.librarymanagementsystem.controller.v1;
+
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.example.librarymanagementsystem.dto.Versioned;
+import com.example.librarymanagementsystem.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Entity tags and caching headers shared by the catalogue controllers.
+ * <p>
+ * A single resource is tagged with its version ({@code "3"}), a listing with a hash of the IDs and
+ * versions of its items and of its cursors ({@code "l5f0c..."}). Since the bytes of a strong tag must be
+ * the same, the representation follows: the format negotiated from {@code Accept} when it is not JSON
+ * ({@code "3-cbor"}, {@code "3-smile"}), then, when the handler selected fields (see
+ * {@link FieldSetAdvice#select}), a hash of their names ({@code "3-f9a1..."}). Both are strong tags: any
+ * change to a row bumps its version, so equal tags mean identical content.
+ * <p>
+ * GET responses built here carry the tag, {@link #CACHE_CONTROL} and {@code Vary: Accept}, so that caches
+ * look up stored responses by format as well. When a GET returns a
+ * {@code ResponseEntity} with an ETag, Spring MVC compares it with {@code If-None-Match} itself and
+ * answers {@code 304 Not Modified} without writing the body. Controllers that can learn the tag more
+ * cheaply than the body, such as the book detail from a version-only query, check {@link #matches}
+ * first and return {@link #notModified} without loading the row at all.
+ * <p>
+ * For writes, {@link #expectedVersion} turns an {@code If-Match} header into the version the services
+ * must find before they change anything, from the tag of any representation of the resource.
+ */
+final class EntityTags {
+
+  /**
+   * Responses are user specific (they require a token), may be reused for 10 seconds, and for another
+   * minute may be served stale while the client revalidates them in the background.
+   */
+  static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(10))
+      .cachePrivate()
+      .staleWhileRevalidate(Duration.ofSeconds(60));
+
+  // The formats WebConfig registers, in converter order, so the first compatible one is what Spring MVC writes
+  private static final List<MediaType> FORMATS = List.of(
+      MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf("application/x-jackson-smile"));
+  private static final List<String> FORMAT_SUFFIXES = List.of("", "-cbor", "-smile");
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private EntityTags() {
+  }
+
+  static String of(long version) {
+    return "\"" + version + variant() + "\"";
+  }
+
+  /**
+   * Returns the tag of a resource, or {@code null} for a DTO that was not read from the database and
+   * so has no version.
+   */
+  static String of(Versioned resource) {
+    return resource.getVersion() == null ? null : of(resource.getVersion());
+  }
+
+  static String of(List<? extends Versioned> items, String... cursors) {
+    long hash = FNV_OFFSET;
+    for (Versioned item : items) {
+      hash = mix(hash, item.getId() == null ? -1 : item.getId());
+      hash = mix(hash, item.getVersion() == null ? -1 : item.getVersion());
+    }
+    for (String cursor : cursors) {
+      hash = mix(hash, cursor == null ? 0 : cursor.hashCode());
+    }
+    return "\"l" + Long.toHexString(hash) + variant() + "\"";
+  }
+
+  static <T extends Versioned> ResponseEntity<T> ok(T resource) {
+    return tagged(ResponseEntity.ok(), resource).cacheControl(CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).body(resource);
+  }
+
+  /**
+   * Answers a create or update with the new tag, so the client can send it in its next If-Match
+   * without reading the resource again. Not cacheable.
+   */
+  static <T extends Versioned> ResponseEntity<T> written(HttpStatus status, T resource) {
+    return tagged(ResponseEntity.status(status), resource).body(resource);
+  }
+
+  static <T extends Versioned> ResponseEntity<CursorPage<T>> okPage(CursorPage<T> page) {
+    return ResponseEntity.ok()
+        .eTag(of(page.getItems(), page.getNextCursor(), page.getPrevCursor()))
+        .cacheControl(CACHE_CONTROL)
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(page);
+  }
+
+  static <T extends Versioned> ResponseEntity<List<T>> okList(List<T> items) {
+    return ResponseEntity.ok().eTag(of(items)).cacheControl(CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).body(items);
+  }
+
+  static <T> ResponseEntity<T> notModified(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(etag)
+        .cacheControl(CACHE_CONTROL)
+        .varyBy(HttpHeaders.ACCEPT)
+        .build();
+  }
+
+  /**
+   * Returns whether an {@code If-None-Match} header matches the tag, using the weak comparison that
+   * the header calls for. A missing header never matches.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the version named by an {@code If-Match} header, or {@code null} when the header is absent
+   * or {@code *}, in which case the write is unconditional. The tag of any representation of a single
+   * resource names its version, whatever follows it. A weak or foreign tag can never match a current
+   * version and fails the precondition; a list of several tags is rejected.
+   */
+  static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    if (ifMatch.contains(",")) {
+      throw new IllegalArgumentException("If-Match must contain a single entity tag");
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      String opaque = tag.substring(1, tag.length() - 1);
+      int variant = opaque.indexOf('-');
+      try {
+        return Long.parseLong(variant < 0 ? opaque : opaque.substring(0, variant));
+      } catch (NumberFormatException ignored) {
+        // Falls through: not a tag of a single resource
+      }
+    }
+    throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+  }
+
+  private static ResponseEntity.BodyBuilder tagged(ResponseEntity.BodyBuilder builder, Versioned resource) {
+    String etag = of(resource);
+    return etag == null ? builder : builder.eTag(etag);
+  }
+
+  /**
+   * Returns the part of the tags of the current response that tells apart the representations of the
+   * same content: empty for whole DTOs in JSON, otherwise the format and a hash of the selected field
+   * names, in any order.
+   */
+  private static String variant() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return "";
+    }
+    String format = attributes instanceof ServletRequestAttributes servlet
+        ? FORMAT_SUFFIXES.get(negotiatedFormat(Collections.list(servlet.getRequest().getHeaders(HttpHeaders.ACCEPT))))
+        : "";
+    if (!(attributes.getAttribute(FieldSetAdvice.SELECTED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof FieldSet fields)
+        || fields.isAll()) {
+      return format;
+    }
+    long hash = FNV_OFFSET;
+    for (String name : new TreeSet<>(fields.names())) {
+      hash = mix(hash, name.hashCode());
+    }
+    return format + "-f" + Long.toHexString(hash);
+  }
+
+  /**
+   * Returns the index in {@link #FORMATS} of the format Spring MVC writes for these {@code Accept}
+   * headers: the first format compatible with the most preferred accepted type, where a concrete type
+   * goes before a wildcard of the same quality. JSON when nothing else matches, or the header is
+   * missing or malformed; such requests fail before they are written, if at all.
+   */
+  static int negotiatedFormat(List<String> accept) {
+    List<MediaType> accepted;
+    try {
+      accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    } catch (InvalidMediaTypeException e) {
+      return 0;
+    }
+    accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+        .thenComparing(MediaType::isWildcardType)
+        .thenComparing(MediaType::isWildcardSubtype));
+    for (MediaType type : accepted) {
+      if (type.getQualityValue() == 0) {
+        continue;
+      }
+      for (int i = 0; i < FORMATS.size(); i++) {
+        if (type.isCompatibleWith(FORMATS.get(i))) {
+          return i;
+        }
+      }
+    }
+    return 0;
+  }
+
+  private static long mix(long hash, long value) {
+    for (int i = 0; i < Long.BYTES; i++) {
+      hash ^= (value >>> (i * 8)) & 0xff;
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+}
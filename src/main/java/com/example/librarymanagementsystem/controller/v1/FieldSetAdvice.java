@@ -0,0 +1,56 @@
+package com.example.librarymanagementsystem.controller.v1;
+
+import com.example.librarymanagementsystem.dto.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Serializes only the properties named in the {@code fields} query parameter of a catalogue response.
+ * <p>
+ * The controllers that support the parameter validate it against the DTO they return with {@link #select}
+ * before reading anything, so an unknown name fails with 400, and the selection is kept as a request
+ * attribute. This advice then applies it to every DTO in the body, in any negotiated format; wrappers
+ * such as {@code CursorPage} and error bodies are not filtered. Responses of handlers that never selected
+ * fields, such as writes and the statistics, are serialized whole, whatever the request's parameters.
+ */
+@RestControllerAdvice(basePackageClasses = FieldSetAdvice.class)
+class FieldSetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  static final String SELECTED_ATTRIBUTE = FieldSetAdvice.class.getName() + ".SELECTED";
+
+  /**
+   * Parses the {@code fields} parameter against the properties of the DTO a handler returns, and selects
+   * them for the response of the current request.
+   *
+   * @throws IllegalArgumentException if a name is not one of {@code known}
+   */
+  static FieldSet select(String fields, List<String> known) {
+    FieldSet fieldSet = FieldSet.parse(fields, known);
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      attributes.setAttribute(SELECTED_ATTRIBUTE, fieldSet, RequestAttributes.SCOPE_REQUEST);
+    }
+    return fieldSet;
+  }
+
+  @Override
+  protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                         MethodParameter returnType, ServerHttpRequest request,
+                                         ServerHttpResponse response) {
+    if (request instanceof ServletServerHttpRequest servletRequest
+        && servletRequest.getServletRequest().getAttribute(SELECTED_ATTRIBUTE) instanceof FieldSet fieldSet
+        && !fieldSet.isAll()) {
+      bodyContainer.setFilters(fieldSet.filters());
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package com.example.librarymanagementsystem.controller.v1;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPage;
 import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
 
+import com.example.librarymanagementsystem.services.BookService;
 import com.example.librarymanagementsystem.services.GenreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,12 +14,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -23,12 +30,18 @@ import java.util.List;
  * It enables users and administrators to perform CRUD operations on genres.
  * <p>
  * The controller is mapped to the URL path "/api/v1/genres" and allows for various operations such as:
- * - Retrieving a list of all genres.
+ * - Retrieving genres page by page using keyset cursors.
  * - Fetching details of a specific genre by its ID.
  * - Creating a new genre.
  * - Updating an existing genre.
  * - Deleting a genre by its ID.
  * <p>
+ * Every read returns an ETag with Cache-Control, so clients can revalidate with If-None-Match and get
+ * a 304 without a body; updates and deletions accept If-Match to avoid overwriting a concurrent change.
+ * <p>
+ * Reads accept {@code fields} to return only some properties of each genre or book. Genres are
+ * still read whole from the reference-data caches; the book listings read only the selected columns.
+ * <p>
  * Access to the endpoints is role-based, restricted to users with specific roles
  * ("USER" or "ADMIN") for retrieval actions, and only "ADMIN" for creation, update, and deletion.
  */
@@ -38,23 +51,67 @@ import java.util.List;
 public class GenreController {
 
   private final GenreService genreService;
+  private final BookService bookService;
 
-  public GenreController(GenreService genreService) {
+  public GenreController(GenreService genreService, BookService bookService) {
     this.genreService = genreService;
+    this.bookService = bookService;
   }
 
-  @Operation(summary = "Get all genres", description = "Retrieve a list of all genres")
+  @Operation(summary = "Get all genres", description = "Retrieve one page of genres ordered by ID, with cursors to the next and previous pages")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully retrieved list of genres",
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved page of genres",
           content = @Content(mediaType = "application/json",
-              schema = @Schema(implementation = GenreDTO.class)))
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or fields")
   })
 
   @GetMapping
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-  public ResponseEntity<List<GenreDTO>> getAllGenres() {
-    List<GenreDTO> genres = genreService.getAllGenres();
-    return new ResponseEntity<>(genres, HttpStatus.OK);
+  public ResponseEntity<CursorPage<GenreDTO>> getAllGenres(
+      @Parameter(description = "Maximum number of genres to return (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Cursor of the last genre already seen; returns the page after it") @RequestParam(required = false) String after,
+      @Parameter(description = "Cursor of the first genre already seen; returns the page before it") @RequestParam(required = false) String before,
+      @Parameter(description = "Comma-separated genre properties to return, such as name,bookCount; all by default") @RequestParam(required = false) String fields) {
+    // Read from the cache in full; the advice leaves the unselected fields out of the response
+    FieldSetAdvice.select(fields, GenreDTO.FIELDS);
+    CursorPage<GenreDTO> genres = genreService.getGenres(limit, after, before);
+    return EntityTags.okPage(genres);
+  }
+
+  @Operation(summary = "Export all genres",
+      description = "Stream every genre as newline-delimited JSON, read through a database cursor")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Genres streamed successfully",
+          content = @Content(mediaType = "application/x-ndjson",
+              schema = @Schema(implementation = GenreDTO.class)))
+  })
+
+  @GetMapping("/export")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public void exportGenres(HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    genreService.exportGenres(response.getOutputStream());
+  }
+
+  @Operation(summary = "Suggest genres",
+      description = "Typeahead over genre names: prefix matches on the whole name or any word, tolerating one typo")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions, best match first",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = SuggestionDTO.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid limit")
+  })
+
+  @GetMapping("/suggest")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<List<SuggestionDTO>> suggestGenres(
+      @Parameter(description = "Beginning of the name or of any word in it") @RequestParam(required = false) String prefix,
+      @Parameter(description = "Maximum number of suggestions (1-50, default 10)") @RequestParam(required = false) Integer limit) {
+    List<SuggestionDTO> suggestions = genreService.suggestGenres(prefix, limit);
+    return new ResponseEntity<>(suggestions, HttpStatus.OK);
   }
 
   @Operation(summary = "Get genre by ID", description = "Retrieve a specific genre by its ID")
@@ -62,15 +119,44 @@ public class GenreController {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved genre",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = GenreDTO.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Unknown field"),
       @ApiResponse(responseCode = "404", description = "Genre not found")
   })
 
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
   public ResponseEntity<GenreDTO> getGenreById(
-      @Parameter(description = "ID of the genre to retrieve") @PathVariable Long id) {
+      @Parameter(description = "ID of the genre to retrieve") @PathVariable Long id,
+      @Parameter(description = "Comma-separated genre properties to return, such as name,bookCount; all by default") @RequestParam(required = false) String fields) {
+    FieldSetAdvice.select(fields, GenreDTO.FIELDS);
     GenreDTO genre = genreService.getGenreById(id);
-    return new ResponseEntity<>(genre, HttpStatus.OK);
+    return EntityTags.ok(genre);
+  }
+
+  @Operation(summary = "Get books of a genre",
+      description = "Retrieve one page of the books of a genre, with cursors to the next and previous pages")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved page of books",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the entity tag sent in If-None-Match"),
+      @ApiResponse(responseCode = "400", description = "Invalid sort, limit, cursor or fields"),
+      @ApiResponse(responseCode = "404", description = "Genre not found")
+  })
+
+  @GetMapping("/{id}/books")
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<CursorPage<BookDTO>> getGenreBooks(
+      @Parameter(description = "ID of the genre") @PathVariable Long id,
+      @Parameter(description = "Sort property: id (default), title or publicationDate; prefix with '-' for descending") @RequestParam(required = false) String sort,
+      @Parameter(description = "Maximum number of books to return (1-100, default 20)") @RequestParam(required = false) Integer limit,
+      @Parameter(description = "Cursor of the last book already seen; returns the page after it") @RequestParam(required = false) String after,
+      @Parameter(description = "Cursor of the first book already seen; returns the page before it") @RequestParam(required = false) String before,
+      @Parameter(description = "Comma-separated book properties to return, such as id,title,isbn; all by default") @RequestParam(required = false) String fields) {
+    CursorPage<BookDTO> books = bookService.getBooksByGenre(id, sort, limit, after, before,
+        FieldSetAdvice.select(fields, BookDTO.FIELDS));
+    return EntityTags.okPage(books);
   }
 
   @Operation(summary = "Create a new genre", description = "Create a new genre with the provided details")
@@ -87,7 +173,7 @@ public class GenreController {
   public ResponseEntity<GenreDTO> createGenre(
       @Parameter(description = "Genre details") @Valid @RequestBody GenreDTO genreDTO) {
     GenreDTO createdGenre = genreService.createGenre(genreDTO);
-    return new ResponseEntity<>(createdGenre, HttpStatus.CREATED);
+    return EntityTags.written(HttpStatus.CREATED, createdGenre);
   }
 
   @Operation(summary = "Update an existing genre", description = "Update an existing genre with the provided details")
@@ -97,30 +183,34 @@ public class GenreController {
               schema = @Schema(implementation = GenreDTO.class))),
       @ApiResponse(responseCode = "400", description = "Invalid input data"),
       @ApiResponse(responseCode = "404", description = "Genre not found"),
-      @ApiResponse(responseCode = "409", description = "Genre with this name already exists")
+      @ApiResponse(responseCode = "409", description = "Genre with this name already exists"),
+      @ApiResponse(responseCode = "412", description = "Genre has changed since the entity tag sent in If-Match")
   })
 
   @PutMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<GenreDTO> updateGenre(
       @Parameter(description = "ID of the genre to update") @PathVariable Long id,
-      @Parameter(description = "Updated genre details") @Valid @RequestBody GenreDTO genreDTO) {
-    GenreDTO updatedGenre = genreService.updateGenre(id, genreDTO);
-    return new ResponseEntity<>(updatedGenre, HttpStatus.OK);
+      @Parameter(description = "Updated genre details") @Valid @RequestBody GenreDTO genreDTO,
+      @Parameter(description = "Entity tag of the genre as last read; the update is refused with 412 if the genre has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    GenreDTO updatedGenre = genreService.updateGenre(id, genreDTO, EntityTags.expectedVersion(ifMatch));
+    return EntityTags.written(HttpStatus.OK, updatedGenre);
   }
 
   @Operation(summary = "Delete a genre", description = "Delete a genre by its ID")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "204", description = "Genre deleted successfully"),
       @ApiResponse(responseCode = "404", description = "Genre not found"),
-      @ApiResponse(responseCode = "409", description = "Cannot delete genre with associated books")
+      @ApiResponse(responseCode = "409", description = "Cannot delete genre with associated books"),
+      @ApiResponse(responseCode = "412", description = "Genre has changed since the entity tag sent in If-Match")
   })
 
   @DeleteMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<Void> deleteGenre(
-      @Parameter(description = "ID of the genre to delete") @PathVariable Long id) {
-    genreService.deleteGenre(id);
+      @Parameter(description = "ID of the genre to delete") @PathVariable Long id,
+      @Parameter(description = "Entity tag of the genre as last read; the deletion is refused with 412 if the genre has changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    genreService.deleteGenre(id, EntityTags.expectedVersion(ifMatch));
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 }
\ No newline at end of file
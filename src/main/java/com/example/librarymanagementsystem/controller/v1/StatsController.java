@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.controller.v1;
+
+import com.example.librarymanagementsystem.dto.CatalogueStatsDTO;
+import com.example.librarymanagementsystem.services.StatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * StatsController is a REST controller that provides catalogue statistics for dashboards.
+ * <p>
+ * The controller is mapped to the URL path "/api/v1/stats". The totals and rankings come from the
+ * book counts kept on authors and genres, so the response does not grow with the size of the catalogue.
+ * <p>
+ * Access is restricted to users with the "USER" or "ADMIN" role.
+ */
+@RestController
+@RequestMapping("/api/v1/stats")
+@Tag(name = "Statistics", description = "Catalogue statistics API")
+public class StatsController {
+
+  private final StatsService statsService;
+
+  public StatsController(StatsService statsService) {
+    this.statsService = statsService;
+  }
+
+  @Operation(summary = "Get catalogue statistics",
+      description = "Retrieve the number of books, authors and genres, and the authors and genres with the most books")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CatalogueStatsDTO.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid number of top entries")
+  })
+
+  @GetMapping
+  @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+  public ResponseEntity<CatalogueStatsDTO> getStats(
+      @Parameter(description = "Number of top authors and genres to return (1-50, default 5)") @RequestParam(required = false) Integer top) {
+    CatalogueStatsDTO stats = statsService.getStats(top);
+    return new ResponseEntity<>(stats, HttpStatus.OK);
+  }
+}
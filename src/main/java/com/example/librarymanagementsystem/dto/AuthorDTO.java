@@ -1,25 +1,34 @@
 package com.example.librarymanagementsystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Data Transfer Object (DTO) class representing an author.
  * This class is used to transfer data related to authors between different layers
  * of the application, such as between the controller and service layers.
  * <p>
- * The class contains attributes such as the author's ID, name, biography, and birth date.
+ * The class contains attributes such as the author's ID, name, biography, birth date, number of books
+ * and version.
  * It also provides validation annotations to ensure the correctness of data.
  * <p>
  * Use this class to model author-related data in the application.
  */
 @Setter
 @Getter
-public class AuthorDTO {
+@JsonFilter(FieldSet.FILTER_ID)
+public class AuthorDTO implements Versioned {
+  /**
+   * Properties a client can select with {@code ?fields=}, see {@link FieldSet}.
+   */
+  public static final List<String> FIELDS = List.of("id", "name", "biography", "birthDate", "bookCount", "version");
+
   // Getters and Setters
   private Long id;
 
@@ -32,6 +41,12 @@ public class AuthorDTO {
 
   private LocalDate birthDate;
 
+  // Set by the server; ignored when sent by clients
+  private Long bookCount;
+
+  // Set by the server; clients send it back in If-Match rather than in the body
+  private Long version;
+
   // Constructors
   public AuthorDTO() {
   }
@@ -41,4 +56,15 @@ public class AuthorDTO {
     this.biography = biography;
     this.birthDate = birthDate;
   }
+
+  public AuthorDTO(Long id, String name, String biography, LocalDate birthDate) {
+    this(name, biography, birthDate);
+    this.id = id;
+  }
+
+  public AuthorDTO(Long id, String name, String biography, LocalDate birthDate, Long bookCount, Long version) {
+    this(id, name, biography, birthDate);
+    this.bookCount = bookCount;
+    this.version = version;
+  }
 }
@@ -1,5 +1,6 @@
 package com.example.librarymanagementsystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -7,6 +8,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Data Transfer Object (DTO) class representing a book.
@@ -14,7 +16,7 @@ import java.time.LocalDate;
  * of the application, such as between controllers, services, or repositories.
  * <p>
  * The class includes attributes like the book's ID, title, ISBN, publication date,
- * description, author ID, and genre ID. It is designed to ensure data validity
+ * description, author ID, genre ID and version. It is designed to ensure data validity
  * through the use of validation annotations.
  * <p>
  * Use this class to model book-related data and perform necessary operations
@@ -22,7 +24,14 @@ import java.time.LocalDate;
  */
 @Setter
 @Getter
-public class BookDTO {
+@JsonFilter(FieldSet.FILTER_ID)
+public class BookDTO implements Versioned {
+  /**
+   * Properties a client can select with {@code ?fields=}, see {@link FieldSet}.
+   */
+  public static final List<String> FIELDS = List.of(
+      "id", "title", "isbn", "publicationDate", "description", "authorId", "genreId", "version");
+
   // Getters and Setters
   private Long id;
 
@@ -44,7 +53,22 @@ public class BookDTO {
   @NotNull(message = "Genre ID is required")
   private Long genreId;
 
+  // Set by the server; clients send it back in If-Match rather than in the body
+  private Long version;
+
   // Constructors
   public BookDTO() {
   }
+
+  public BookDTO(Long id, String title, String isbn, LocalDate publicationDate, String description,
+                 Long authorId, Long genreId, Long version) {
+    this.id = id;
+    this.title = title;
+    this.isbn = isbn;
+    this.publicationDate = publicationDate;
+    this.description = description;
+    this.authorId = authorId;
+    this.genreId = genreId;
+    this.version = version;
+  }
 }
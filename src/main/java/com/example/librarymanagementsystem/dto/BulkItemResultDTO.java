@@ -0,0 +1,47 @@
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) class representing the outcome of one item of a bulk request.
+ * <p>
+ * Items are identified by their zero-based position in the submitted array. A created item
+ * carries the ID assigned to it; a rejected item carries the reasons it was not stored and is
+ * never partially applied.
+ */
+@Getter
+public class BulkItemResultDTO {
+
+  /**
+   * What happened to the item.
+   */
+  public enum Status {
+    CREATED,
+    REJECTED
+  }
+
+  private final int index;
+
+  private final Status status;
+
+  private final Long id;
+
+  private final List<String> errors;
+
+  public BulkItemResultDTO(int index, Status status, Long id, List<String> errors) {
+    this.index = index;
+    this.status = status;
+    this.id = id;
+    this.errors = errors;
+  }
+
+  public static BulkItemResultDTO created(int index, Long id) {
+    return new BulkItemResultDTO(index, Status.CREATED, id, List.of());
+  }
+
+  public static BulkItemResultDTO rejected(int index, List<String> errors) {
+    return new BulkItemResultDTO(index, Status.REJECTED, null, errors);
+  }
+}
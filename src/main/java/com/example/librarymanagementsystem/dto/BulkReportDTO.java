@@ -0,0 +1,26 @@
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) class representing the result of a bulk request.
+ * <p>
+ * The report lists one {@link BulkItemResultDTO} per submitted item, in submission order,
+ * together with the totals so clients do not have to count them.
+ */
+@Getter
+public class BulkReportDTO {
+  private final int created;
+
+  private final int rejected;
+
+  private final List<BulkItemResultDTO> items;
+
+  public BulkReportDTO(List<BulkItemResultDTO> items) {
+    this.items = items;
+    this.created = (int) items.stream().filter(item -> item.getStatus() == BulkItemResultDTO.Status.CREATED).count();
+    this.rejected = items.size() - created;
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) class representing catalogue-wide statistics.
+ * <p>
+ * Carries the number of books, authors and genres, and the authors and genres with the most books,
+ * largest first. Each entry of the top lists includes its {@code bookCount}.
+ */
+@Getter
+public class CatalogueStatsDTO {
+  private final long books;
+
+  private final long authors;
+
+  private final long genres;
+
+  private final List<AuthorDTO> topAuthors;
+
+  private final List<GenreDTO> topGenres;
+
+  public CatalogueStatsDTO(long books, long authors, long genres, List<AuthorDTO> topAuthors, List<GenreDTO> topGenres) {
+    this.books = books;
+    this.authors = authors;
+    this.genres = genres;
+    this.topAuthors = topAuthors;
+    this.topGenres = topGenres;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) class representing one page of a keyset-paginated listing.
+ * <p>
+ * The page carries the requested items together with opaque cursors that the client passes
+ * back as {@code after} or {@code before} to fetch the neighbouring pages. A cursor is
+ * {@code null} when there is no page in that direction.
+ * <p>
+ * Use this class for every list endpoint so that clients page through the catalogue with
+ * a constant cost per request instead of downloading whole tables.
+ *
+ * @param <T> the type of the items on the page
+ */
+@Getter
+public class CursorPage<T> {
+  private final List<T> items;
+
+  private final int limit;
+
+  private final String nextCursor;
+
+  private final String prevCursor;
+
+  public CursorPage(List<T> items, int limit, String nextCursor, String prevCursor) {
+    this.items = items;
+    this.limit = limit;
+    this.nextCursor = nextCursor;
+    this.prevCursor = prevCursor;
+  }
+}
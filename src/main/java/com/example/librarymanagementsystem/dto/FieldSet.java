@@ -0,0 +1,75 @@
+package com.example.librarymanagementsystem.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset of a response: the DTO properties a client asked for with {@code ?fields=}, for
+ * example {@code fields=title,isbn}.
+ * <p>
+ * The textual form is a comma-separated list of property names of one DTO, checked against that
+ * DTO's {@code FIELDS}. The ID is always included, so every item of a listing stays identifiable.
+ * A missing or blank parameter selects {@link #ALL}.
+ * <p>
+ * The DTOs are annotated with {@code @JsonFilter(FieldSet.FILTER_ID)}, and {@link #filters()} supplies
+ * the matching Jackson filter; readers of the database may also use {@link #names()} to leave
+ * unrequested columns out of their queries.
+ *
+ * @param names the selected properties in request order, empty for all
+ */
+public record FieldSet(Set<String> names) {
+
+  public static final String FILTER_ID = "fields";
+
+  public static final FieldSet ALL = new FieldSet(Set.of());
+
+  /**
+   * Parses the textual form against the properties of a DTO.
+   *
+   * @throws IllegalArgumentException if a name is not one of {@code known}
+   */
+  public static FieldSet parse(String fields, List<String> known) {
+    FieldSet requested = requested(fields);
+    for (String name : requested.names) {
+      if (!known.contains(name)) {
+        throw new IllegalArgumentException("Unknown field '" + name + "', expected any of " + String.join(", ", known));
+      }
+    }
+    return requested.names.containsAll(known) ? ALL : requested;
+  }
+
+  private static FieldSet requested(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    Set<String> names = new LinkedHashSet<>();
+    names.add("id");
+    for (String field : fields.split(",", -1)) {
+      names.add(field.trim());
+    }
+    return new FieldSet(Collections.unmodifiableSet(names));
+  }
+
+  public boolean isAll() {
+    return names.isEmpty();
+  }
+
+  public boolean includes(String name) {
+    return isAll() || names.contains(name);
+  }
+
+  /**
+   * Returns the Jackson filters that serialize only the selected properties of the DTOs. For
+   * {@link #ALL}, every property is serialized.
+   */
+  public FilterProvider filters() {
+    SimpleFilterProvider filters = new SimpleFilterProvider().setFailOnUnknownId(false);
+    return isAll() ? filters : filters.addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+  }
+}
@@ -1,16 +1,19 @@
 package com.example.librarymanagementsystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
+
 /**
  * Data Transfer Object (DTO) class representing a genre.
  * This class is used to transfer data related to genres between different layers
  * of the application, such as controllers, services, or repositories.
  * <p>
- * The class provides attributes like the genre's ID, name, and description.
+ * The class provides attributes like the genre's ID, name, description, number of books and version.
  * Validation annotations are used to ensure that the data meets specific
  * constraints, such as requiring the name to be not blank and within a certain
  * character limit.
@@ -18,7 +21,13 @@ import lombok.Setter;
  * Use this class to model genre-related data and perform necessary operations
  * with information regarding genres in the application.
  */
-public class GenreDTO {
+@JsonFilter(FieldSet.FILTER_ID)
+public class GenreDTO implements Versioned {
+  /**
+   * Properties a client can select with {@code ?fields=}, see {@link FieldSet}.
+   */
+  public static final List<String> FIELDS = List.of("id", "name", "description", "bookCount", "version");
+
   private long id;
 
   @Setter
@@ -32,6 +41,16 @@ public class GenreDTO {
   @Size(max = 500, message = "Description must be less than 500 characters")
   private String description;
 
+  // Set by the server; ignored when sent by clients
+  @Setter
+  @Getter
+  private Long bookCount;
+
+  // Set by the server; clients send it back in If-Match rather than in the body
+  @Setter
+  @Getter
+  private Long version;
+
   // Constructors
   public GenreDTO() {
   }
@@ -41,6 +60,17 @@ public class GenreDTO {
     this.description = description;
   }
 
+  public GenreDTO(Long id, String name, String description) {
+    this(name, description);
+    this.id = id;
+  }
+
+  public GenreDTO(Long id, String name, String description, Long bookCount, Long version) {
+    this(id, name, description);
+    this.bookCount = bookCount;
+    this.version = version;
+  }
+
   // Getters and Setters
   public Long getId() {
     return id;
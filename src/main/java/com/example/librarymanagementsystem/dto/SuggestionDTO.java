@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Getter;
+
+/**
+ * Data Transfer Object (DTO) class representing one typeahead suggestion.
+ * <p>
+ * A suggestion carries only what a picker needs to display and select an entry: its ID and
+ * its display name. Full details are fetched by ID once the user has made a choice.
+ */
+@Getter
+public class SuggestionDTO {
+  private final Long id;
+
+  private final String name;
+
+  public SuggestionDTO(Long id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.librarymanagementsystem.dto;
+
+/**
+ * Implemented by the DTOs of versioned entities. The ID and version together identify one state of
+ * an entity, which is what the controllers turn into entity tags for conditional requests.
+ */
+public interface Versioned {
+
+  Long getId();
+
+  Long getVersion();
+}
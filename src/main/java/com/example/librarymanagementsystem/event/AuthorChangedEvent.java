@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.event;
+
+import com.example.librarymanagementsystem.dto.AuthorDTO;
+import lombok.Getter;
+
+/**
+ * Application event published by the author service after an author has been created, updated or deleted.
+ * <p>
+ * The event carries the author as it looks after the change; for deletions it carries the last
+ * persisted state. Listeners should consume it with {@code @TransactionalEventListener}.
+ */
+@Getter
+public class AuthorChangedEvent {
+  private final ChangeType type;
+  private final AuthorDTO author;
+
+  public AuthorChangedEvent(ChangeType type, AuthorDTO author) {
+    this.type = type;
+    this.author = author;
+  }
+}
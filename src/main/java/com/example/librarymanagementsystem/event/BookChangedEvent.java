@@ -0,0 +1,29 @@
+package com.example.librarymanagementsystem.event;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import lombok.Getter;
+
+/**
+ * Application event published by the book service after a book has been created, updated or deleted.
+ * <p>
+ * The event carries the book as it looks after the change; for deletions it carries the last
+ * persisted state. Updates also carry the state before the change, so listeners can drop values
+ * that no longer apply. Listeners that keep in-memory structures in sync with the database should
+ * consume it with {@code @TransactionalEventListener} so they only observe committed writes.
+ */
+@Getter
+public class BookChangedEvent {
+  private final ChangeType type;
+  private final BookDTO book;
+  private final BookDTO previous;
+
+  public BookChangedEvent(ChangeType type, BookDTO book) {
+    this(type, book, null);
+  }
+
+  public BookChangedEvent(ChangeType type, BookDTO book, BookDTO previous) {
+    this.type = type;
+    this.book = book;
+    this.previous = previous;
+  }
+}
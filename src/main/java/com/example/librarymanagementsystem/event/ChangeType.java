@@ -0,0 +1,10 @@
+package com.example.librarymanagementsystem.event;
+
+/**
+ * The kind of write that produced a catalogue change event.
+ */
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.event;
+
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import lombok.Getter;
+
+/**
+ * Application event published by the genre service after a genre has been created, updated or deleted.
+ * <p>
+ * The event carries the genre as it looks after the change; for deletions it carries the last
+ * persisted state. Listeners should consume it with {@code @TransactionalEventListener}.
+ */
+@Getter
+public class GenreChangedEvent {
+  private final ChangeType type;
+  private final GenreDTO genre;
+
+  public GenreChangedEvent(ChangeType type, GenreDTO genre) {
+    this.type = type;
+    this.genre = genre;
+  }
+}
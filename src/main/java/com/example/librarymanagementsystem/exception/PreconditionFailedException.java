@@ -0,0 +1,18 @@
+package com.example.librarymanagementsystem.exception;
+
+/**
+ * The PreconditionFailedException is thrown when a conditional write names a version
+ * of a resource that is no longer current.
+ *
+ * Clients send the entity tag they last read in an {@code If-Match} header; if the
+ * resource has been changed since, the update or deletion is refused instead of
+ * silently overwriting the other change.
+ *
+ * When this exception is thrown, it is handled by the central exception handler
+ * and answered with a 412 Precondition Failed status.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.librarymanagementsystem.exception;
+
+import java.time.Duration;
+
+/**
+ * The ServiceUnavailableException is thrown when a request is refused because the
+ * resource that would serve it is saturated, such as the executor that verifies
+ * login passwords.
+ *
+ * The request was not processed and can be repeated unchanged. The exception carries
+ * how long the client should wait before doing so.
+ *
+ * When this exception is thrown, it is handled by the central exception handler
+ * and answered with a 503 Service Unavailable status and a {@code Retry-After} header.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.librarymanagementsystem.index;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text search index over book titles and descriptions, held in memory.
+ * <p>
+ * The index is built once the application is ready by paging through {@link BookRepository} with
+ * keyset reads, and is then kept current from {@link BookChangedEvent}s, which are only applied after
+ * the publishing transaction commits. Searches never touch the database.
+ * <p>
+ * Reads run concurrently under a read lock; writes and the initial build take the write lock.
+ * Changes that arrive while the index is being built wait for the build and are applied after it,
+ * so the index converges to the committed state.
+ * <p>
+ * Configuration:
+ * - {@code library.search.title-boost}: Weight of a title term relative to a description term, defaults to 3.
+ * - {@code library.search.build-page-size}: Books read per query during the initial build, defaults to 1000.
+ */
+@Component
+public class BookSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+  private final BookRepository bookRepository;
+  private final InvertedIndex index;
+  private final int buildPageSize;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public BookSearchIndex(BookRepository bookRepository,
+                         @Value("${library.search.title-boost:3}") int titleBoost,
+                         @Value("${library.search.build-page-size:1000}") int buildPageSize) {
+    this.bookRepository = bookRepository;
+    this.index = new InvertedIndex(titleBoost);
+    this.buildPageSize = buildPageSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long started = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      index.clear();
+      long after = 0;
+      List<BookDTO> page;
+      do {
+        page = bookRepository.findPageAfter(after, PageRequest.of(0, buildPageSize));
+        for (BookDTO book : page) {
+          index.put(book.getId(), book.getTitle(), book.getDescription());
+          after = book.getId();
+        }
+      } while (page.size() == buildPageSize);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Indexed {} books for search in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    BookDTO book = event.getBook();
+    lock.writeLock().lock();
+    try {
+      if (event.getType() == ChangeType.DELETED) {
+        index.remove(book.getId());
+      } else {
+        index.put(book.getId(), book.getTitle(), book.getDescription());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the identifiers and scores of the {@code k} most relevant books, best first.
+   */
+  public List<InvertedIndex.Hit> search(String query, int k) {
+    lock.readLock().lock();
+    try {
+      return index.search(query, k);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.example.librarymanagementsystem.index;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Approximate set membership over strings with support for deletes (Fan et al., "Cuckoo Filter:
+ * Practically Better Than Bloom").
+ * <p>
+ * Each key is reduced to a 16-bit fingerprint stored in one of two candidate buckets of four slots.
+ * The second bucket is derived from the first and the fingerprint alone, so entries can be moved
+ * between their buckets, and removed again, without knowing the original key. A lookup reads at
+ * most eight slots. With 16-bit fingerprints the false-positive rate stays around 0.01% up to the
+ * designed load of 95%; there are no false negatives for keys that were added and not removed.
+ * <p>
+ * {@link #add} fails once an insert cannot find a free slot after a bounded number of relocations.
+ * The key that was displaced last is kept aside, so nothing already added is lost, but the filter
+ * is then full and should be rebuilt with a larger capacity.
+ * <p>
+ * Removing a key that was never added may delete the fingerprint of a different key and cause a
+ * false negative for it; callers only remove keys they added. Adding the same key twice stores two
+ * copies, each of which needs its own removal.
+ * <p>
+ * This class is not thread-safe; callers serialize writes against reads.
+ */
+public class CuckooFilter {
+
+  private static final int SLOTS_PER_BUCKET = 4;
+  private static final int MAX_KICKS = 500;
+  private static final double MAX_LOAD = 0.95;
+
+  private final short[] slots;
+  private final int bucketMask;
+  private int size;
+  private short victim;
+  private int victimBucket;
+  private long kickSeed = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Creates a filter sized to hold {@code capacity} keys below its designed load.
+   */
+  public CuckooFilter(int capacity) {
+    int buckets = Integer.highestOneBit(Math.max(1, (int) Math.ceil(capacity / (SLOTS_PER_BUCKET * MAX_LOAD))) * 2 - 1);
+    this.slots = new short[Math.max(buckets, 1) * SLOTS_PER_BUCKET];
+    this.bucketMask = Math.max(buckets, 1) - 1;
+  }
+
+  /**
+   * Adds the key.
+   *
+   * @return {@code false} if the filter is full; the key is still reported as present
+   */
+  public boolean add(String key) {
+    if (isFull()) {
+      return false;
+    }
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    int second = alternate(first, fingerprint);
+    if (insert(first, fingerprint) || insert(second, fingerprint)) {
+      size++;
+      return true;
+    }
+
+    int bucket = nextRandom() % 2 == 0 ? first : second;
+    short displaced = fingerprint;
+    for (int kick = 0; kick < MAX_KICKS; kick++) {
+      int slot = bucket * SLOTS_PER_BUCKET + (int) (nextRandom() % SLOTS_PER_BUCKET);
+      short evicted = slots[slot];
+      slots[slot] = displaced;
+      displaced = evicted;
+      bucket = alternate(bucket, displaced);
+      if (insert(bucket, displaced)) {
+        size++;
+        return true;
+      }
+    }
+    victim = displaced;
+    victimBucket = bucket;
+    size++;
+    return false;
+  }
+
+  /**
+   * Returns {@code false} if the key is definitely absent, {@code true} if it may be present.
+   */
+  public boolean mightContain(String key) {
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    int second = alternate(first, fingerprint);
+    return contains(first, fingerprint) || contains(second, fingerprint)
+        || (isFull() && victim == fingerprint && (victimBucket == first || victimBucket == second));
+  }
+
+  /**
+   * Removes one copy of a key that was previously added.
+   *
+   * @return {@code true} if a matching fingerprint was found and removed
+   */
+  public boolean remove(String key) {
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    int second = alternate(first, fingerprint);
+    if (isFull() && victim == fingerprint && (victimBucket == first || victimBucket == second)) {
+      victim = 0;
+      size--;
+      return true;
+    }
+    if (delete(first, fingerprint) || delete(second, fingerprint)) {
+      size--;
+      // A slot has just been freed; give the pending victim another chance to move in.
+      if (isFull() && (insert(victimBucket, victim) || insert(alternate(victimBucket, victim), victim))) {
+        victim = 0;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether an insert has overflowed, in which case further adds are refused.
+   */
+  public boolean isFull() {
+    return victim != 0;
+  }
+
+  /**
+   * Returns the number of keys added and not removed, counting duplicates.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of keys the filter holds at its designed load.
+   */
+  public int capacity() {
+    return (int) (slots.length * MAX_LOAD);
+  }
+
+  private boolean insert(int bucket, short fingerprint) {
+    int start = bucket * SLOTS_PER_BUCKET;
+    for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+      if (slots[i] == 0) {
+        slots[i] = fingerprint;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean contains(int bucket, short fingerprint) {
+    int start = bucket * SLOTS_PER_BUCKET;
+    for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+      if (slots[i] == fingerprint) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean delete(int bucket, short fingerprint) {
+    int start = bucket * SLOTS_PER_BUCKET;
+    for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+      if (slots[i] == fingerprint) {
+        slots[i] = 0;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int alternate(int bucket, short fingerprint) {
+    return (bucket ^ (int) mix(fingerprint)) & bucketMask;
+  }
+
+  private long nextRandom() {
+    kickSeed = mix(kickSeed);
+    return kickSeed >>> 1;
+  }
+
+  /**
+   * Uses the top 16 bits of the hash; zero marks an empty slot, so it is mapped to one.
+   */
+  private static short fingerprint(long hash) {
+    short fingerprint = (short) (hash >>> 48);
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  /**
+   * 64-bit FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer so that both the low
+   * bits (bucket) and the high bits (fingerprint) depend on every input byte.
+   */
+  private static long hash(String key) {
+    long hash = 0xCBF29CE484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xFF;
+      hash *= 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,342 @@
+package com.example.librarymanagementsystem.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory inverted index with BM25 ranking over a title and a description field.
+ * <p>
+ * Every indexed document gets an internal ordinal, assigned in increasing order, so each posting
+ * list stays sorted by ordinal without re-sorting. Queries are evaluated document-at-a-time by
+ * merging the posting lists of the query terms and keeping the best {@code k} hits in a bounded heap,
+ * which avoids a per-query score accumulator proportional to the collection size.
+ * <p>
+ * The merge is pruned with MaxScore: each term's score is bounded by its highest frequency in the shortest
+ * of its documents, and once the heap is full, the terms whose bounds add up to less than its lowest score
+ * are no longer merged. They are only looked up, by galloping search, for the documents the other terms
+ * find, and skipped when those documents cannot reach the heap anyway. A query mixing a common word with
+ * rarer ones then reads little of the common word's long posting list. Results are the same as without
+ * pruning.
+ * <p>
+ * Updates and deletes tombstone the old ordinal; postings of deleted documents are dropped by a
+ * compaction pass once tombstones outnumber live documents. Like most search engines, document
+ * frequencies include tombstoned postings until the next compaction.
+ * <p>
+ * This class is not thread-safe; callers serialize writes against reads.
+ */
+public class InvertedIndex {
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+  private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 1024;
+
+  private static final Comparator<Hit> BY_RELEVANCE = Comparator.comparingDouble(Hit::score)
+      .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+
+  /**
+   * A ranked search result: the external document identifier and its BM25 score.
+   */
+  public record Hit(long id, double score) {
+  }
+
+  private final int titleBoost;
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<Long, Integer> ordinalsById = new HashMap<>();
+  private final BitSet tombstones = new BitSet();
+  private long[] ids = new long[1024];
+  private int[] lengths = new int[1024];
+  private int nextOrdinal;
+  private int tombstoneCount;
+  private int liveCount;
+  private long liveLength;
+
+  /**
+   * @param titleBoost how many times a title occurrence counts relative to a description occurrence
+   */
+  public InvertedIndex(int titleBoost) {
+    this.titleBoost = titleBoost;
+  }
+
+  /**
+   * Adds a document, replacing any previous version with the same identifier.
+   */
+  public void put(long id, String title, String description) {
+    remove(id);
+
+    Map<String, Integer> frequencies = new HashMap<>();
+    int length = 0;
+    for (String term : TextNormalizer.tokenize(title)) {
+      frequencies.merge(term, titleBoost, Integer::sum);
+      length += titleBoost;
+    }
+    for (String term : TextNormalizer.tokenize(description)) {
+      frequencies.merge(term, 1, Integer::sum);
+      length++;
+    }
+
+    int ordinal = nextOrdinal++;
+    if (ordinal == ids.length) {
+      ids = Arrays.copyOf(ids, ids.length * 2);
+      lengths = Arrays.copyOf(lengths, lengths.length * 2);
+    }
+    ids[ordinal] = id;
+    lengths[ordinal] = length;
+    ordinalsById.put(id, ordinal);
+    liveCount++;
+    liveLength += length;
+    int documentLength = length;
+    frequencies.forEach((term, frequency) ->
+        postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, frequency, documentLength));
+  }
+
+  /**
+   * Removes a document.
+   *
+   * @return {@code true} if the document was indexed
+   */
+  public boolean remove(long id) {
+    Integer ordinal = ordinalsById.remove(id);
+    if (ordinal == null) {
+      return false;
+    }
+    tombstones.set(ordinal);
+    tombstoneCount++;
+    liveCount--;
+    liveLength -= lengths[ordinal];
+    if (tombstoneCount >= MIN_TOMBSTONES_BEFORE_COMPACTION && tombstoneCount > liveCount) {
+      compact();
+    }
+    return true;
+  }
+
+  public void clear() {
+    postings.clear();
+    ordinalsById.clear();
+    tombstones.clear();
+    nextOrdinal = 0;
+    tombstoneCount = 0;
+    liveCount = 0;
+    liveLength = 0;
+  }
+
+  public int size() {
+    return liveCount;
+  }
+
+  /**
+   * Returns the {@code k} best matching documents for the query, best first.
+   * Query terms are combined with OR semantics and ranked by BM25.
+   */
+  public List<Hit> search(String query, int k) {
+    List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(query)));
+    if (terms.isEmpty() || liveCount == 0 || k <= 0) {
+      return List.of();
+    }
+
+    double averageLength = (double) liveLength / liveCount;
+    List<Term> found = new ArrayList<>(terms.size());
+    for (String term : terms) {
+      Postings list = postings.get(term);
+      if (list != null && list.size > 0) {
+        int df = Math.min(list.size, liveCount);
+        double weight = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        found.add(new Term(list, weight, list.maxScore(weight, averageLength)));
+      }
+    }
+    if (found.isEmpty()) {
+      return List.of();
+    }
+
+    // Terms by ascending upper bound; a term's bound plus those of the terms before it is prefixBounds[i + 1]
+    found.sort(Comparator.comparingDouble(Term::maxScore));
+    int termCount = found.size();
+    Postings[] lists = new Postings[termCount];
+    double[] weights = new double[termCount];
+    double[] prefixBounds = new double[termCount + 1];
+    for (int i = 0; i < termCount; i++) {
+      lists[i] = found.get(i).postings();
+      weights[i] = found.get(i).weight();
+      prefixBounds[i + 1] = prefixBounds[i] + found.get(i).maxScore();
+    }
+
+    int[] cursors = new int[termCount];
+    double[] contributions = new double[termCount];
+    PriorityQueue<Hit> best = new PriorityQueue<>(k, BY_RELEVANCE);
+    // Terms below firstEssential cannot lift a document above the threshold on their own, so only the
+    // others are merged; the rest are looked up for the documents the merge finds
+    double threshold = Double.NEGATIVE_INFINITY;
+    int firstEssential = 0;
+
+    while (firstEssential < termCount) {
+      int doc = Integer.MAX_VALUE;
+      for (int i = firstEssential; i < termCount; i++) {
+        Postings list = lists[i];
+        if (cursors[i] < list.size && list.docs[cursors[i]] < doc) {
+          doc = list.docs[cursors[i]];
+        }
+      }
+      if (doc == Integer.MAX_VALUE) {
+        break;
+      }
+
+      Arrays.fill(contributions, 0);
+      double partial = 0;
+      double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+      for (int i = firstEssential; i < termCount; i++) {
+        Postings list = lists[i];
+        if (cursors[i] < list.size && list.docs[cursors[i]] == doc) {
+          contributions[i] = termScore(weights[i], list.frequencies[cursors[i]++], norm);
+          partial += contributions[i];
+        }
+      }
+      if (tombstones.get(doc)) {
+        continue;
+      }
+
+      boolean pruned = false;
+      for (int i = firstEssential - 1; i >= 0; i--) {
+        if (partial + prefixBounds[i + 1] < threshold) {
+          pruned = true;
+          break;
+        }
+        cursors[i] = lists[i].advance(cursors[i], doc);
+        if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+          contributions[i] = termScore(weights[i], lists[i].frequencies[cursors[i]], norm);
+          partial += contributions[i];
+        }
+      }
+      if (pruned) {
+        continue;
+      }
+
+      // Summed in term order, so a score does not depend on which terms were essential
+      double score = 0;
+      for (double contribution : contributions) {
+        score += contribution;
+      }
+      if (best.size() < k) {
+        best.add(new Hit(ids[doc], score));
+      } else {
+        Hit worst = best.peek();
+        if (score > worst.score() || (score == worst.score() && ids[doc] < worst.id())) {
+          best.poll();
+          best.add(new Hit(ids[doc], score));
+        }
+      }
+      if (best.size() == k) {
+        threshold = best.peek().score();
+        while (firstEssential < termCount && prefixBounds[firstEssential + 1] < threshold) {
+          firstEssential++;
+        }
+      }
+    }
+
+    List<Hit> hits = new ArrayList<>(best);
+    hits.sort(BY_RELEVANCE.reversed());
+    return hits;
+  }
+
+  private static double termScore(double weight, int frequency, double norm) {
+    return weight * frequency * (K1 + 1) / (frequency + norm);
+  }
+
+  private record Term(Postings postings, double weight, double maxScore) {
+  }
+
+  private void compact() {
+    int[] remap = new int[nextOrdinal];
+    int live = 0;
+    for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+      if (tombstones.get(ordinal)) {
+        remap[ordinal] = -1;
+      } else {
+        remap[ordinal] = live;
+        ids[live] = ids[ordinal];
+        lengths[live] = lengths[ordinal];
+        live++;
+      }
+    }
+    postings.values().removeIf(list -> list.remap(remap, lengths) == 0);
+    ordinalsById.replaceAll((id, ordinal) -> remap[ordinal]);
+    nextOrdinal = live;
+    tombstones.clear();
+    tombstoneCount = 0;
+  }
+
+  /**
+   * The documents containing a term, by ascending ordinal, with the term's frequency in each. The
+   * highest frequency and the shortest document length bound the term's score in any of them; they
+   * include tombstoned postings until the next compaction, which keeps the bound safe.
+   */
+  private static final class Postings {
+    private int[] docs = new int[2];
+    private int[] frequencies = new int[2];
+    private int size;
+    private int maxFrequency;
+    private int minLength = Integer.MAX_VALUE;
+
+    void add(int doc, int frequency, int length) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      docs[size] = doc;
+      frequencies[size] = frequency;
+      size++;
+      maxFrequency = Math.max(maxFrequency, frequency);
+      minLength = Math.min(minLength, length);
+    }
+
+    /**
+     * Returns an upper bound of the term's BM25 score in any of its documents. It is raised by a
+     * millionth, so that rounding in the sums it is compared with can never prune a document it should not.
+     */
+    double maxScore(double weight, double averageLength) {
+      double norm = K1 * (1 - B + B * minLength / averageLength);
+      return termScore(weight, maxFrequency, norm) * (1 + 1e-6);
+    }
+
+    /**
+     * Returns the position of the first document at or after {@code doc}, searching from {@code from}.
+     */
+    int advance(int from, int doc) {
+      if (from >= size || docs[from] >= doc) {
+        return from;
+      }
+      // Gallop to a range that ends past the document, then search it
+      int low = from;
+      int step = 1;
+      while (low + step < size && docs[low + step] < doc) {
+        low += step;
+        step <<= 1;
+      }
+      int found = Arrays.binarySearch(docs, low + 1, Math.min(low + step + 1, size), doc);
+      return found >= 0 ? found : -found - 1;
+    }
+
+    int remap(int[] remap, int[] lengths) {
+      int kept = 0;
+      maxFrequency = 0;
+      minLength = Integer.MAX_VALUE;
+      for (int i = 0; i < size; i++) {
+        int doc = remap[docs[i]];
+        if (doc >= 0) {
+          docs[kept] = doc;
+          frequencies[kept] = frequencies[i];
+          maxFrequency = Math.max(maxFrequency, frequencies[i]);
+          minLength = Math.min(minLength, lengths[doc]);
+          kept++;
+        }
+      }
+      size = kept;
+      return kept;
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package com.example.librarymanagementsystem.index;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory {@link CuckooFilter} of every book ISBN, used to skip the database round trip of an
+ * ISBN uniqueness check when the ISBN is definitely new.
+ * <p>
+ * The filter is built once the application is ready by paging through {@link BookRepository}, and is
+ * then kept current from {@link BookChangedEvent}s after the publishing transaction commits. A new
+ * ISBN can therefore pass the pre-check while a concurrent transaction that inserts the same ISBN is
+ * still committing; the unique constraint on {@code books.isbn} remains the final guard.
+ * Until the first build completes every check goes to the database.
+ * <p>
+ * A build reads the books table without holding the lock, so checks and changes go on against the
+ * current filter meanwhile. ISBNs added during the read are recorded and added to the new filter just
+ * before it is swapped in. Removals are not replayed: removing an ISBN the read did not see could delete
+ * the fingerprint of another one, while an ISBN kept too long only costs a database query. If the
+ * filter overflows, it is rebuilt with twice the capacity on a background thread, and until then every
+ * check goes to the database.
+ * <p>
+ * Metrics:
+ * - {@code library.isbn.filter.lookups}: Checks by {@code outcome}: {@code absent} (answered from the
+ *   filter, one database call saved), {@code present} or {@code false_positive} (both queried the database).
+ * - {@code library.isbn.filter.false.positive.rate}: Share of new ISBNs the filter could not rule out.
+ * - {@code library.isbn.filter.size}: ISBNs currently held.
+ * <p>
+ * Configuration:
+ * - {@code library.isbn-filter.build-page-size}: Books read per query during a build, defaults to 1000.
+ */
+@Component
+public class IsbnFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(IsbnFilter.class);
+  private static final int MIN_CAPACITY = 1 << 12;
+
+  private final BookRepository bookRepository;
+  private final int buildPageSize;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Counter absent;
+  private final Counter present;
+  private final Counter falsePositive;
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private CuckooFilter filter = new CuckooFilter(0);
+  // ISBNs added while a build reads the books table, or null when none is
+  private List<String> addedDuringBuild;
+  private volatile boolean ready;
+
+  public IsbnFilter(BookRepository bookRepository, MeterRegistry meterRegistry,
+                    @Value("${library.isbn-filter.build-page-size:1000}") int buildPageSize) {
+    this.bookRepository = bookRepository;
+    this.buildPageSize = buildPageSize;
+    this.absent = lookups(meterRegistry, "absent");
+    this.present = lookups(meterRegistry, "present");
+    this.falsePositive = lookups(meterRegistry, "false_positive");
+    Gauge.builder("library.isbn.filter.false.positive.rate", this, IsbnFilter::falsePositiveRate)
+        .description("Share of new ISBNs that the filter could not rule out")
+        .register(meterRegistry);
+    Gauge.builder("library.isbn.filter.size", this, IsbnFilter::size)
+        .description("ISBNs held by the filter")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Builds a new filter from the books table and swaps it in, unless a build is already running.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return;
+    }
+    boolean full;
+    try {
+      long started = System.nanoTime();
+      int current;
+      lock.writeLock().lock();
+      try {
+        addedDuringBuild = new ArrayList<>();
+        current = filter.size();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      int capacity = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_CAPACITY, 2 * Math.max(bookRepository.count(), current)));
+      CuckooFilter rebuilt = new CuckooFilter(capacity);
+      long after = 0;
+      List<BookDTO> page;
+      do {
+        page = bookRepository.findPageAfter(after, PageRequest.of(0, buildPageSize));
+        for (BookDTO book : page) {
+          if (book.getIsbn() != null) {
+            rebuilt.add(book.getIsbn());
+          }
+          after = book.getId();
+        }
+      } while (page.size() == buildPageSize);
+
+      lock.writeLock().lock();
+      try {
+        addedDuringBuild.forEach(rebuilt::add);
+        filter = rebuilt;
+        ready = true;
+        full = rebuilt.isFull();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      log.info("Loaded {} ISBNs into the filter in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+    } finally {
+      lock.writeLock().lock();
+      try {
+        addedDuringBuild = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      rebuilding.set(false);
+    }
+    if (full) {
+      rebuildInBackground();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    String isbn = event.getBook().getIsbn();
+    String previousIsbn = event.getPrevious() == null ? null : event.getPrevious().getIsbn();
+    boolean full;
+    lock.writeLock().lock();
+    try {
+      switch (event.getType()) {
+        case CREATED -> add(isbn);
+        case UPDATED -> {
+          if (!Objects.equals(previousIsbn, isbn)) {
+            remove(previousIsbn);
+            add(isbn);
+          }
+        }
+        case DELETED -> remove(isbn);
+      }
+      full = ready && filter.isFull();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (full) {
+      rebuildInBackground();
+    }
+  }
+
+  /**
+   * Returns whether a book with the ISBN exists, querying the database only when the filter
+   * cannot rule it out. A {@code null} ISBN never exists.
+   */
+  public boolean exists(String isbn, Predicate<String> database) {
+    if (isbn == null) {
+      return false;
+    }
+    if (!ready) {
+      return database.test(isbn);
+    }
+    if (!mightContain(isbn)) {
+      absent.increment();
+      return false;
+    }
+    boolean exists = database.test(isbn);
+    (exists ? present : falsePositive).increment();
+    return exists;
+  }
+
+  /**
+   * Returns which of the ISBNs exist, passing only those the filter cannot rule out to a single
+   * database query. {@code null} ISBNs are ignored.
+   */
+  public Set<String> existing(Collection<String> isbns, Function<Collection<String>, ? extends Collection<String>> database) {
+    Set<String> candidates = new HashSet<>();
+    for (String isbn : isbns) {
+      if (isbn != null && (!ready || mightContain(isbn))) {
+        candidates.add(isbn);
+      } else if (isbn != null) {
+        absent.increment();
+      }
+    }
+    if (candidates.isEmpty()) {
+      return Set.of();
+    }
+    Set<String> found = new HashSet<>(database.apply(candidates));
+    if (ready) {
+      present.increment(found.size());
+      falsePositive.increment(candidates.size() - found.size());
+    }
+    return found;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return filter.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean mightContain(String isbn) {
+    lock.readLock().lock();
+    try {
+      // A full filter refuses new ISBNs, so it cannot rule any out until it is rebuilt
+      return filter.isFull() || filter.mightContain(isbn);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void add(String isbn) {
+    if (isbn == null) {
+      return;
+    }
+    if (addedDuringBuild != null) {
+      addedDuringBuild.add(isbn);
+    }
+    if (ready) {
+      filter.add(isbn);
+    }
+  }
+
+  private void remove(String isbn) {
+    if (isbn != null && ready) {
+      filter.remove(isbn);
+    }
+  }
+
+  private void rebuildInBackground() {
+    if (rebuilding.get()) {
+      return;
+    }
+    log.info("ISBN filter is full at {} entries, rebuilding", size());
+    Thread thread = new Thread(() -> {
+      try {
+        rebuild();
+      } catch (RuntimeException e) {
+        // The filter stays full and every check goes to the database; the next change tries again
+        log.error("Rebuilding the ISBN filter failed", e);
+      }
+    }, "isbn-filter-rebuild");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private double falsePositiveRate() {
+    double misses = absent.count() + falsePositive.count();
+    return misses == 0 ? 0 : falsePositive.count() / misses;
+  }
+
+  private static Counter lookups(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("library.isbn.filter.lookups")
+        .tag("outcome", outcome)
+        .description("ISBN uniqueness checks by outcome of the in-memory filter")
+        .register(meterRegistry);
+  }
+}
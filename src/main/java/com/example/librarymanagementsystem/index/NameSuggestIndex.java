@@ -0,0 +1,293 @@
+package com.example.librarymanagementsystem.index;
+
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory typeahead index over short display names such as author or genre names.
+ * <p>
+ * Names are folded with {@link TextNormalizer#fold} and kept in two sorted maps: one keyed by the
+ * whole name and one keyed by every suffix that starts at a word boundary, so "tolk" finds
+ * "J. R. R. Tolkien" as well as "Tolkien Estate". A prefix lookup is a range scan over a sorted map
+ * and stops as soon as enough entries have been collected, so its cost depends on the result size
+ * rather than on the number of names.
+ * <p>
+ * When exact prefix matches do not fill the requested number of suggestions and the prefix has at
+ * least {@value #MIN_FUZZY_LENGTH} characters, every prefix within one edit (transposition,
+ * substitution, insertion or deletion) is looked up as well, over the alphabet of characters that
+ * occur in the indexed names.
+ * <p>
+ * Suggestions are ordered by tier (whole-name match, word match, one-edit match) and alphabetically
+ * within the exact tiers; one-edit matches favour transpositions and substitutions over insertions
+ * and deletions. The index is thread-safe: lookups share a read lock and writes take the write lock.
+ * <p>
+ * An index built with a {@link NameSource} can {@link #rebuild()} itself from it, such as from the
+ * keyset pages of a repository (see {@link #keysetPages}); {@code SuggestIndexConfig} declares the
+ * author and genre indexes this way.
+ */
+public class NameSuggestIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(NameSuggestIndex.class);
+
+  public static final int DEFAULT_LIMIT = 10;
+  public static final int MAX_LIMIT = 50;
+
+  static final int MIN_FUZZY_LENGTH = 3;
+
+  private static final char SEPARATOR = '\u0000';
+
+  private final NavigableMap<String, Long> fullNames = new TreeMap<>();
+  private final NavigableMap<String, Long> wordSuffixes = new TreeMap<>();
+  private final Map<Long, String> names = new HashMap<>();
+  private final Map<Long, String> foldedNames = new HashMap<>();
+  private final Set<Character> alphabet = new TreeSet<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final String kind;
+  private final NameSource source;
+
+  /**
+   * Creates an empty index that is only filled through {@link #put}.
+   */
+  public NameSuggestIndex() {
+    this("name", null);
+  }
+
+  /**
+   * @param kind   what the names are of, such as "author", for the log
+   * @param source where {@link #rebuild()} reads every name from
+   */
+  public NameSuggestIndex(String kind, NameSource source) {
+    this.kind = kind;
+    this.source = source;
+  }
+
+  /**
+   * Returns a source that reads a table in pages of {@code pageSize} rows, ordered by ID.
+   *
+   * @param pageAfter reads the page of rows after an ID, starting with 0
+   */
+  public static <T> NameSource keysetPages(LongFunction<List<T>> pageAfter, int pageSize,
+                                           Function<T, Long> id, Function<T, String> name) {
+    return consumer -> {
+      long after = 0;
+      List<T> page;
+      do {
+        page = pageAfter.apply(after);
+        for (T row : page) {
+          after = id.apply(row);
+          consumer.accept(after, name.apply(row));
+        }
+      } while (page.size() == pageSize);
+    };
+  }
+
+  public static int resolveLimit(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+    return limit;
+  }
+
+  /**
+   * Adds a name, replacing any previous name with the same identifier.
+   */
+  public void put(long id, String name) {
+    lock.writeLock().lock();
+    try {
+      removeUnlocked(id);
+      String folded = TextNormalizer.fold(name);
+      if (folded.isEmpty()) {
+        return;
+      }
+      names.put(id, name);
+      foldedNames.put(id, folded);
+      fullNames.put(key(folded, id), id);
+      for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+        wordSuffixes.put(key(folded.substring(i + 1), id), id);
+      }
+      for (int i = 0; i < folded.length(); i++) {
+        alphabet.add(folded.charAt(i));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a name.
+   *
+   * @return {@code true} if the name was indexed
+   */
+  public boolean remove(long id) {
+    lock.writeLock().lock();
+    try {
+      return removeUnlocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      fullNames.clear();
+      wordSuffixes.clear();
+      names.clear();
+      foldedNames.clear();
+      alphabet.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return names.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} names matching the prefix, best first.
+   */
+  public List<SuggestionDTO> suggest(String prefix, int limit) {
+    String folded = TextNormalizer.fold(prefix);
+    if (folded.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      Set<Long> ids = new LinkedHashSet<>();
+      collect(fullNames, folded, ids, limit);
+      collect(wordSuffixes, folded, ids, limit);
+      if (ids.size() < limit && folded.length() >= MIN_FUZZY_LENGTH) {
+        for (String variant : variants(folded)) {
+          collect(fullNames, variant, ids, limit);
+          collect(wordSuffixes, variant, ids, limit);
+          if (ids.size() >= limit) {
+            break;
+          }
+        }
+      }
+
+      List<SuggestionDTO> suggestions = new ArrayList<>(ids.size());
+      for (Long id : ids) {
+        suggestions.add(new SuggestionDTO(id, names.get(id)));
+      }
+      return suggestions;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the whole content of the index with the names of its source while holding the write
+   * lock, so concurrent lookups never observe a half-built index and concurrent writes are applied
+   * after the load.
+   */
+  public void rebuild() {
+    if (source == null) {
+      throw new IllegalStateException("The " + kind + " index has no source to rebuild from");
+    }
+    long started = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      clear();
+      source.forEach(this::put);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Indexed {} {} names for suggestions in {} ms", size(), kind, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private boolean removeUnlocked(long id) {
+    String folded = foldedNames.remove(id);
+    if (folded == null) {
+      return false;
+    }
+    names.remove(id);
+    fullNames.remove(key(folded, id));
+    for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+      wordSuffixes.remove(key(folded.substring(i + 1), id));
+    }
+    return true;
+  }
+
+  /**
+   * Adds the identifiers of entries whose key starts with the prefix, stopping once the
+   * target holds {@code limit} entries.
+   */
+  private static void collect(NavigableMap<String, Long> map, String prefix, Set<Long> target, int limit) {
+    for (Long id : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+      if (target.size() >= limit) {
+        return;
+      }
+      target.add(id);
+    }
+  }
+
+  /**
+   * Lists every prefix within one edit of the given one. Substituting the last character or
+   * appending one is not needed: deleting the last character already matches both.
+   */
+  private List<String> variants(String prefix) {
+    Set<String> variants = new LinkedHashSet<>();
+    int n = prefix.length();
+    for (int i = 0; i + 1 < n; i++) {
+      if (prefix.charAt(i) != prefix.charAt(i + 1)) {
+        variants.add(prefix.substring(0, i) + prefix.charAt(i + 1) + prefix.charAt(i) + prefix.substring(i + 2));
+      }
+    }
+    for (int i = 0; i + 1 < n; i++) {
+      for (char c : alphabet) {
+        if (c != prefix.charAt(i)) {
+          variants.add(prefix.substring(0, i) + c + prefix.substring(i + 1));
+        }
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      for (char c : alphabet) {
+        variants.add(prefix.substring(0, i) + c + prefix.substring(i));
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      variants.add(prefix.substring(0, i) + prefix.substring(i + 1));
+    }
+    variants.remove(prefix);
+    return new ArrayList<>(variants);
+  }
+
+  private static String key(String folded, long id) {
+    return folded + SEPARATOR + id;
+  }
+
+  /**
+   * Reads the names to index, passing each with its identifier to the consumer.
+   */
+  @FunctionalInterface
+  public interface NameSource {
+    void forEach(BiConsumer<Long, String> consumer);
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.librarymanagementsystem.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Text normalization shared by the in-memory indexes.
+ * <p>
+ * Text is folded to lower case, stripped of diacritics and split on every character that is not
+ * a letter or a digit, so "Émile Zola" and "emile zola" index identically.
+ */
+public final class TextNormalizer {
+
+  private static final int MAX_TOKEN_LENGTH = 40;
+
+  private static final Set<String> STOP_WORDS = Set.of(
+      "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+      "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+  private TextNormalizer() {
+  }
+
+  /**
+   * Lower-cases the text and removes diacritics, keeping word separators as single spaces.
+   */
+  public static String fold(String text) {
+    if (text == null || text.isEmpty()) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+    StringBuilder folded = new StringBuilder(decomposed.length());
+    boolean pendingSpace = false;
+    for (int i = 0; i < decomposed.length(); i++) {
+      char c = decomposed.charAt(i);
+      if (Character.getType(c) == Character.NON_SPACING_MARK) {
+        continue;
+      }
+      if (Character.isLetterOrDigit(c)) {
+        if (pendingSpace && folded.length() > 0) {
+          folded.append(' ');
+        }
+        pendingSpace = false;
+        folded.append(Character.toLowerCase(c));
+      } else {
+        pendingSpace = true;
+      }
+    }
+    return folded.toString().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Splits the text into folded search terms, dropping stop words and over-long tokens.
+   */
+  public static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    String folded = fold(text);
+    int start = 0;
+    while (start < folded.length()) {
+      int end = folded.indexOf(' ', start);
+      if (end < 0) {
+        end = folded.length();
+      }
+      if (end - start <= MAX_TOKEN_LENGTH) {
+        String token = folded.substring(start, end);
+        if (!STOP_WORDS.contains(token)) {
+          tokens.add(token);
+        }
+      }
+      start = end + 1;
+    }
+    return tokens;
+  }
+}
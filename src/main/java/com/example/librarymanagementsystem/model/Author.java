@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,6 +21,10 @@ import java.util.List;
  * - biography: A brief biography of the author, optional, but must be less than 500 characters.
  * - birthDate: The birth date of the author, optional.
  * - books: A collection of books written by the author, represented as a one-to-many relationship.
+ * - bookCount: Number of books that reference this author. Starts at zero and is never updated through
+ *   the entity; it is adjusted in the same transaction as every book write (see {@code BookCounters}),
+ *   which lets deletes and statistics read a single column instead of the books collection.
+ * - version: Optimistic-lock version, incremented on every update and exposed to clients as the ETag.
  * <p>
  * This class is used within the library management system to maintain information about
  * authors and their related books. It supports basic CRUD operations for managing author data.
@@ -27,7 +32,9 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", indexes = {
+    @Index(name = "idx_authors_book_count", columnList = "book_count, id")
+})
 public class Author {
   // Getters and Setters
   @Id
@@ -45,9 +52,18 @@ public class Author {
   @Column(name = "birth_date")
   private LocalDate birthDate;
 
-  @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @OneToMany(mappedBy = "author", fetch = FetchType.LAZY)
   private List<Book> books;
 
+  @ColumnDefault("0")
+  @Column(name = "book_count", nullable = false, updatable = false)
+  private long bookCount;
+
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private long version;
+
   public Author() {
   }
 
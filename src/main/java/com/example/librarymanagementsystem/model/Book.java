@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -15,13 +16,21 @@ import java.time.LocalDate;
  * a brief description, and its relationships to the author and genre.
  * <p>
  * This entity is mapped to the "books" table in the database and includes the following fields:
- * - id: A unique identifier for the book, generated automatically.
+ * - id: A unique identifier for the book, drawn from the {@code books_seq} sequence in blocks of 50.
  * - title: The title of the book, which is required and must not exceed 200 characters.
  * - isbn: The International Standard Book Number (ISBN), optional but must be unique and less than 13 characters.
  * - publicationDate: The publication date of the book, optional.
  * - description: A brief description of the book, optional but must be less than 1000 characters.
  * - author: The author associated with the book, represented as a required many-to-one relationship.
  * - genre: The genre associated with the book, represented as a required many-to-one relationship.
+ * - version: Optimistic-lock version, incremented on every update and exposed to clients as the ETag.
+ * <p>
+ * The table is indexed on (author_id, id), (genre_id, id), (publication_date, id) and (title, id),
+ * matching the filters and keyset sort orders offered by the book listing.
+ * <p>
+ * Identifiers come from a pooled sequence rather than an identity column: Hibernate reserves a
+ * block of IDs with one sequence call and knows every ID before the insert, so consecutive inserts
+ * can be sent as a single JDBC batch (see {@code hibernate.jdbc.batch_size}).
  * <p>
  * This class serves as a core entity within the library management system to manage book-related data.
  * It supports reading, creation, updating, and management of book records in relation to other entities such as authors and genres.
@@ -29,11 +38,17 @@ import java.time.LocalDate;
 @Setter
 @Getter
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+    @Index(name = "idx_books_author_id", columnList = "author_id, id"),
+    @Index(name = "idx_books_genre_id", columnList = "genre_id, id"),
+    @Index(name = "idx_books_publication_date", columnList = "publication_date, id"),
+    @Index(name = "idx_books_title", columnList = "title, id")
+})
 public class Book {
   // Getters and Setters
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+  @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "Book title is required")
@@ -61,6 +76,11 @@ public class Book {
   @NotNull(message = "Genre is required")
   private Genre genre;
 
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private long version;
+
   public Book() {
   }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -18,6 +19,10 @@ import java.util.List;
  * - name: The name of the genre, which is required and must be unique. It is limited to 100 characters.
  * - description: An optional description for the genre, with a maximum length of 500 characters.
  * - books: A list of books associated with this genre, represented as a one-to-many relationship.
+ * - bookCount: Number of books that reference this genre. Starts at zero and is never updated through
+ *   the entity; it is adjusted in the same transaction as every book write (see {@code BookCounters}),
+ *   which lets deletes and statistics read a single column instead of the books collection.
+ * - version: Optimistic-lock version, incremented on every update and exposed to clients as the ETag.
  * <p>
  * This class serves as a core entity within the library management system to manage the organization
  * and categorization of books.
@@ -25,7 +30,9 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "genres")
+@Table(name = "genres", indexes = {
+    @Index(name = "idx_genres_book_count", columnList = "book_count, id")
+})
 public class Genre {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,9 +46,18 @@ public class Genre {
   @Size(max = 500, message = "Description must be less than 500 characters")
   private String description;
 
-  @OneToMany(mappedBy = "genre", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @OneToMany(mappedBy = "genre", fetch = FetchType.LAZY)
   private List<Book> books;
 
+  @ColumnDefault("0")
+  @Column(name = "book_count", nullable = false, updatable = false)
+  private long bookCount;
+
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private long version;
+
   public Genre() {
   }
 
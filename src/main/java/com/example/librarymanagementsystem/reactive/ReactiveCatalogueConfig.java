@@ -0,0 +1,133 @@
+package com.example.librarymanagementsystem.reactive;
+
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Configuration of the reactive read API's own application context, which is started by
+ * {@link ReactiveCatalogueServer}. It is deliberately not a {@code @Configuration} class, so the component
+ * scan of the main context leaves it alone.
+ * <p>
+ * Annotations:
+ * - {@code @EnableWebFlux}: Enables WebFlux for the handler functions of {@link ReactiveCatalogueHandler}.
+ * - {@code @EnableWebFluxSecurity}: Enables reactive Spring Security for the same context.
+ * <p>
+ * Beans:
+ * - {@code ConnectionPool}: Pooled R2DBC connections to the catalogue database.
+ * - {@code DatabaseClient}: Runs the queries of {@link ReactiveCatalogueRepository}.
+ * - {@code RouterFunction}: Routes the read endpoints to {@link ReactiveCatalogueHandler}.
+ * - {@code SecurityWebFilterChain}: Authenticates bearer tokens with the main context's {@link JwtTokenProvider}
+ *   and, like the MVC API, lets ROLE_USER and ROLE_ADMIN read the catalogue. Everything else is denied.
+ * <p>
+ * The JSON codecs use the main context's {@code ObjectMapper}, so DTOs are written exactly as by the MVC API.
+ * <p>
+ * Configuration:
+ * - {@code library.reactive.r2dbc.url}: R2DBC URL of the database, defaults to {@code spring.datasource.url}
+ *   with {@code jdbc:} replaced by {@code r2dbc:}. The credentials are {@code spring.datasource.username}
+ *   and {@code spring.datasource.password}.
+ * - {@code library.reactive.r2dbc.pool-size}: Maximum pooled connections, defaults to 10.
+ * - {@code library.reactive.fetch-size}: Rows fetched per round trip of a streamed list, defaults to 256.
+ */
+@EnableWebFlux
+@EnableWebFluxSecurity
+class ReactiveCatalogueConfig implements WebFluxConfigurer {
+
+  private final ObjectMapper objectMapper;
+
+  ReactiveCatalogueConfig(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+  }
+
+  @Bean(destroyMethod = "dispose")
+  public ConnectionPool connectionFactory(Environment environment,
+                                          @Value("${library.reactive.r2dbc.pool-size:10}") int poolSize) {
+    String url = environment.getProperty("library.reactive.r2dbc.url");
+    if (url == null) {
+      url = environment.getRequiredProperty("spring.datasource.url").replaceFirst("^jdbc:", "r2dbc:");
+    }
+    ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+    String username = environment.getProperty("spring.datasource.username");
+    if (username != null) {
+      options.option(ConnectionFactoryOptions.USER, username);
+    }
+    String password = environment.getProperty("spring.datasource.password");
+    if (password != null) {
+      options.option(ConnectionFactoryOptions.PASSWORD, password);
+    }
+    return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+        .maxSize(poolSize)
+        .build());
+  }
+
+  @Bean
+  public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+    return DatabaseClient.create(connectionFactory);
+  }
+
+  @Bean
+  public ReactiveCatalogueRepository reactiveCatalogueRepository(DatabaseClient databaseClient,
+                                                                 @Value("${library.reactive.fetch-size:256}") int fetchSize) {
+    return new ReactiveCatalogueRepository(databaseClient, fetchSize);
+  }
+
+  @Bean
+  public RouterFunction<ServerResponse> catalogueRoutes(ReactiveCatalogueRepository repository) {
+    return new ReactiveCatalogueHandler(repository).routes();
+  }
+
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtTokenProvider jwtTokenProvider) {
+    // The converter only yields authentications of tokens that were already verified
+    ReactiveAuthenticationManager verified = Mono::just;
+    AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(verified);
+    jwtFilter.setServerAuthenticationConverter(exchange -> Mono.justOrEmpty(jwtTokenProvider.getAuthentication(
+        JwtTokenProvider.resolveToken(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION)))));
+    jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+    return http
+        .csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+        .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+        .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+        .authorizeExchange(exchanges -> exchanges
+            .pathMatchers(HttpMethod.GET, "/api/v1/genres/**", "/api/v1/authors/**", "/api/v1/books/**").hasAnyRole("USER", "ADMIN")
+            .anyExchange().denyAll())
+        .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+        .build();
+  }
+}
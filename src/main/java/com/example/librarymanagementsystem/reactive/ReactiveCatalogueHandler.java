@@ -0,0 +1,136 @@
+package com.example.librarymanagementsystem.reactive;
+
+import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler functions of the reactive read API, mounted under the same paths as the MVC controllers.
+ * <p>
+ * Endpoints:
+ * - {@code GET /api/v1/books}: Streams books in ID order, optionally filtered by {@code authorId} and
+ *   {@code genreId}. Optional parameters {@code after} (an ID) and {@code limit} resume and bound the stream.
+ * - {@code GET /api/v1/authors} / {@code GET /api/v1/genres}: Stream authors or genres the same way.
+ * - {@code GET /api/v1/books/{id}}, {@code /authors/{id}} and {@code /genres/{id}}: Single DTOs.
+ * <p>
+ * Lists are written as a JSON array, or as newline-delimited JSON when the client accepts
+ * {@code application/x-ndjson}; either way each item is written as soon as it is read. Invalid parameters
+ * are answered with 400 and unknown IDs with 404, with the error body of {@link ErrorResponse}.
+ */
+class ReactiveCatalogueHandler {
+
+  private final ReactiveCatalogueRepository repository;
+
+  ReactiveCatalogueHandler(ReactiveCatalogueRepository repository) {
+    this.repository = repository;
+  }
+
+  RouterFunction<ServerResponse> routes() {
+    return RouterFunctions.route()
+        .path("/api/v1", api -> api
+            .GET("/books", deferred(this::books))
+            .GET("/books/{id}", deferred(this::book))
+            .GET("/authors", deferred(this::authors))
+            .GET("/authors/{id}", deferred(this::author))
+            .GET("/genres", deferred(this::genres))
+            .GET("/genres/{id}", deferred(this::genre)))
+        .onError(ResourceNotFoundException.class, (ex, request) -> error(HttpStatus.NOT_FOUND, ex.getMessage()))
+        .onError(IllegalArgumentException.class, (ex, request) -> error(HttpStatus.BAD_REQUEST, ex.getMessage()))
+        .build();
+  }
+
+  Mono<ServerResponse> books(ServerRequest request) {
+    Flux<BookDTO> books = repository.findBooks(longParam(request, "authorId"), longParam(request, "genreId"),
+        after(request), limit(request));
+    return list(request, books, BookDTO.class);
+  }
+
+  Mono<ServerResponse> book(ServerRequest request) {
+    long id = id(request);
+    return single(repository.findBookById(id), BookDTO.class, "Book not found with id: " + id);
+  }
+
+  Mono<ServerResponse> authors(ServerRequest request) {
+    return list(request, repository.findAuthors(after(request), limit(request)), AuthorDTO.class);
+  }
+
+  Mono<ServerResponse> author(ServerRequest request) {
+    long id = id(request);
+    return single(repository.findAuthorById(id), AuthorDTO.class, "Author not found with id: " + id);
+  }
+
+  Mono<ServerResponse> genres(ServerRequest request) {
+    return list(request, repository.findGenres(after(request), limit(request)), GenreDTO.class);
+  }
+
+  Mono<ServerResponse> genre(ServerRequest request) {
+    long id = id(request);
+    return single(repository.findGenreById(id), GenreDTO.class, "Genre not found with id: " + id);
+  }
+
+  /**
+   * Defers a handler until subscription, so that invalid parameters it parses end up as an error of the
+   * returned Mono, which the {@code onError} handlers see, rather than being thrown.
+   */
+  private static HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+    return request -> Mono.defer(() -> handler.handle(request));
+  }
+
+  private static <T> Mono<ServerResponse> list(ServerRequest request, Flux<T> items, Class<T> type) {
+    MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+        ? MediaType.APPLICATION_NDJSON
+        : MediaType.APPLICATION_JSON;
+    return ServerResponse.ok().contentType(contentType).body(items, type);
+  }
+
+  private static <T> Mono<ServerResponse> single(Mono<T> item, Class<T> type, String notFound) {
+    return item
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(notFound)))
+        .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto));
+  }
+
+  private static Mono<ServerResponse> error(HttpStatus status, String message) {
+    return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new ErrorResponse(status.value(), message));
+  }
+
+  private static long id(ServerRequest request) {
+    return parseLong("id", request.pathVariable("id"));
+  }
+
+  private static long after(ServerRequest request) {
+    Long after = longParam(request, "after");
+    return after != null ? after : 0L;
+  }
+
+  private static Integer limit(ServerRequest request) {
+    Long limit = longParam(request, "limit");
+    if (limit != null && (limit < 1 || limit > Integer.MAX_VALUE)) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    return limit != null ? limit.intValue() : null;
+  }
+
+  private static Long longParam(ServerRequest request, String name) {
+    return request.queryParam(name).map(value -> parseLong(name, value)).orElse(null);
+  }
+
+  private static long parseLong(String name, String value) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value '" + value + "' for parameter '" + name + "'");
+    }
+  }
+}
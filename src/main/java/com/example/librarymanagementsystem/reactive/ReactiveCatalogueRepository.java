@@ -0,0 +1,116 @@
+package com.example.librarymanagementsystem.reactive;
+
+import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-only R2DBC queries of the catalogue, mapped straight into the DTOs of the MVC API.
+ * <p>
+ * Lists are returned as a {@link Flux} in ascending ID order and are read with the configured fetch size,
+ * so rows are pulled from the database only as fast as the subscriber, in the end the HTTP client,
+ * requests them.
+ */
+class ReactiveCatalogueRepository {
+
+  private static final String SELECT_BOOK =
+      "SELECT id, title, isbn, publication_date, description, author_id, genre_id, version FROM books";
+  private static final String SELECT_AUTHOR =
+      "SELECT id, name, biography, birth_date, book_count, version FROM authors";
+  private static final String SELECT_GENRE =
+      "SELECT id, name, description, book_count, version FROM genres";
+
+  private final DatabaseClient databaseClient;
+  private final int fetchSize;
+
+  ReactiveCatalogueRepository(DatabaseClient databaseClient, int fetchSize) {
+    this.databaseClient = databaseClient;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Streams the books after an ID, optionally only those of one author or genre.
+   *
+   * @param limit maximum number of books, or {@code null} for all of them
+   */
+  Flux<BookDTO> findBooks(Long authorId, Long genreId, long after, Integer limit) {
+    Map<String, Object> params = new LinkedHashMap<>();
+    StringBuilder sql = new StringBuilder(SELECT_BOOK).append(" WHERE id > :after");
+    params.put("after", after);
+    if (authorId != null) {
+      sql.append(" AND author_id = :authorId");
+      params.put("authorId", authorId);
+    }
+    if (genreId != null) {
+      sql.append(" AND genre_id = :genreId");
+      params.put("genreId", genreId);
+    }
+    return list(sql, params, limit, ReactiveCatalogueRepository::toBook);
+  }
+
+  Mono<BookDTO> findBookById(long id) {
+    return databaseClient.sql(SELECT_BOOK + " WHERE id = :id").bind("id", id)
+        .map(ReactiveCatalogueRepository::toBook).one();
+  }
+
+  Flux<AuthorDTO> findAuthors(long after, Integer limit) {
+    return list(new StringBuilder(SELECT_AUTHOR).append(" WHERE id > :after"), Map.of("after", after), limit,
+        ReactiveCatalogueRepository::toAuthor);
+  }
+
+  Mono<AuthorDTO> findAuthorById(long id) {
+    return databaseClient.sql(SELECT_AUTHOR + " WHERE id = :id").bind("id", id)
+        .map(ReactiveCatalogueRepository::toAuthor).one();
+  }
+
+  Flux<GenreDTO> findGenres(long after, Integer limit) {
+    return list(new StringBuilder(SELECT_GENRE).append(" WHERE id > :after"), Map.of("after", after), limit,
+        ReactiveCatalogueRepository::toGenre);
+  }
+
+  Mono<GenreDTO> findGenreById(long id) {
+    return databaseClient.sql(SELECT_GENRE + " WHERE id = :id").bind("id", id)
+        .map(ReactiveCatalogueRepository::toGenre).one();
+  }
+
+  private <T> Flux<T> list(StringBuilder sql, Map<String, Object> params, Integer limit,
+                           Function<Readable, T> mapper) {
+    sql.append(" ORDER BY id ASC");
+    Map<String, Object> bindings = new LinkedHashMap<>(params);
+    if (limit != null) {
+      sql.append(" LIMIT :limit");
+      bindings.put("limit", limit);
+    }
+    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+        .filter(statement -> statement.fetchSize(fetchSize));
+    for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+      spec = spec.bind(binding.getKey(), binding.getValue());
+    }
+    return spec.map(mapper).all();
+  }
+
+  private static BookDTO toBook(Readable row) {
+    return new BookDTO(row.get("id", Long.class), row.get("title", String.class), row.get("isbn", String.class),
+        row.get("publication_date", LocalDate.class), row.get("description", String.class),
+        row.get("author_id", Long.class), row.get("genre_id", Long.class), row.get("version", Long.class));
+  }
+
+  private static AuthorDTO toAuthor(Readable row) {
+    return new AuthorDTO(row.get("id", Long.class), row.get("name", String.class), row.get("biography", String.class),
+        row.get("birth_date", LocalDate.class), row.get("book_count", Long.class), row.get("version", Long.class));
+  }
+
+  private static GenreDTO toGenre(Readable row) {
+    return new GenreDTO(row.get("id", Long.class), row.get("name", String.class), row.get("description", String.class),
+        row.get("book_count", Long.class), row.get("version", Long.class));
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.librarymanagementsystem.reactive;
+
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the reactive read API of the catalogue on its own Netty server, next to the MVC API on Tomcat.
+ * <p>
+ * Book, author and genre reads are answered from R2DBC without blocking, so a small, fixed number of
+ * event-loop threads serves any number of concurrent clients, and a slow client slows down only the reading
+ * of its own rows. The endpoints return the same DTOs under the same paths as the MVC controllers and
+ * accept the same bearer tokens; writes stay on the MVC API. See {@link ReactiveCatalogueHandler} for the
+ * endpoints and {@link ReactiveCatalogueConfig} for the database and security setup.
+ * <p>
+ * The server runs in an application context of its own, because WebFlux and Spring MVC cannot be configured
+ * in one context and an R2DBC connection factory would replace the DataSource of JPA. It shares the main
+ * context's environment, {@code JwtTokenProvider} and {@code ObjectMapper}.
+ * <p>
+ * Configuration:
+ * - {@code library.reactive.enabled}: Starts the server when {@code true}, defaults to false.
+ * - {@code library.reactive.port}: Port of the server, defaults to 8081; 0 picks a free port.
+ * - {@code library.reactive.threads}: Event-loop threads, defaults to the number of CPUs, at least 4.
+ */
+@Component
+@ConditionalOnProperty(name = "library.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogueServer implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(ReactiveCatalogueServer.class);
+
+  private final ConfigurableEnvironment environment;
+  private final JwtTokenProvider jwtTokenProvider;
+  private final ObjectMapper objectMapper;
+  private final int port;
+  private final int threads;
+  private AnnotationConfigApplicationContext context;
+  private LoopResources loops;
+  private DisposableServer server;
+
+  public ReactiveCatalogueServer(ConfigurableEnvironment environment, JwtTokenProvider jwtTokenProvider,
+                                 ObjectMapper objectMapper,
+                                 @Value("${library.reactive.port:8081}") int port,
+                                 @Value("${library.reactive.threads:0}") int threads) {
+    this.environment = environment;
+    this.jwtTokenProvider = jwtTokenProvider;
+    this.objectMapper = objectMapper;
+    this.port = port;
+    this.threads = threads > 0 ? threads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+  }
+
+  @Override
+  public synchronized void start() {
+    context = new AnnotationConfigApplicationContext();
+    context.setEnvironment(environment);
+    context.registerBean(JwtTokenProvider.class, () -> jwtTokenProvider);
+    context.registerBean(ObjectMapper.class, () -> objectMapper);
+    context.register(ReactiveCatalogueConfig.class);
+    context.refresh();
+
+    HttpHandler httpHandler = WebHttpHandlerBuilder.applicationContext(context).build();
+    loops = LoopResources.create("catalogue-http", threads, true);
+    server = HttpServer.create()
+        .port(port)
+        .runOn(loops)
+        .handle(new ReactorHttpHandlerAdapter(httpHandler))
+        .bindNow();
+    log.info("Reactive catalogue API started on port {} with {} event-loop threads", server.port(), threads);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (server != null) {
+      server.disposeNow();
+      loops.disposeLater().block();
+      context.close();
+      server = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return server != null;
+  }
+
+  /**
+   * Returns the port the server listens on, or -1 if it is not running.
+   */
+  public synchronized int getPort() {
+    return server != null ? server.port() : -1;
+  }
+}
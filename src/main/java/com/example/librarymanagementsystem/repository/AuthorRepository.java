@@ -1,9 +1,18 @@
 package com.example.librarymanagementsystem.repository;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.AuthorDTO;
 import com.example.librarymanagementsystem.model.Author;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,10 +25,51 @@ import java.util.Optional;
  * Methods:
  * - {@code findByName}: Retrieves an Author by their name.
  * - {@code existsByName}: Checks if an Author exists based on their name.
+ * - {@code findAllDTOs} / {@code findDTOById}: Read-only lookups selected straight into {@link AuthorDTO}.
+ *   {@code findDTOById} is served from the {@code authors} cache, see {@link CacheConfig}.
+ * - {@code findPageAfter} / {@code findPageBefore}: Keyset page reads ordered by ID, used for cursor pagination.
+ * - {@code findExistingIds}: Returns which of the given IDs exist, in one query.
+ * - {@code findTopByBookCount}: Authors with the most books, read from the {@code (book_count, id)} index.
+ * - {@code adjustBookCount} / {@code reconcileBookCounts}: Maintain the {@code book_count} column, see
+ *   {@code BookCounters}. Both bump the version, since the count is part of the author's representation.
+ * <p>
+ * Read-only queries use JPQL constructor expressions, so rows are mapped directly into DTOs without
+ * creating managed entities, persistence-context snapshots or proxies.
  */
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+  String SELECT_AUTHOR_DTO = "SELECT new com.example.librarymanagementsystem.dto.AuthorDTO("
+      + "a.id, a.name, a.biography, a.birthDate, a.bookCount, a.version) FROM Author a";
+
   Optional<Author> findByName(String name);
 
   boolean existsByName(String name);
+
+  @Query(SELECT_AUTHOR_DTO + " ORDER BY a.id ASC")
+  List<AuthorDTO> findAllDTOs();
+
+  @Cacheable(cacheNames = CacheConfig.AUTHORS, unless = "#result == null")
+  @Query(SELECT_AUTHOR_DTO + " WHERE a.id = :id")
+  Optional<AuthorDTO> findDTOById(@Param("id") Long id);
+
+  @Query(SELECT_AUTHOR_DTO + " WHERE a.id > :after ORDER BY a.id ASC")
+  List<AuthorDTO> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+  @Query(SELECT_AUTHOR_DTO + " WHERE a.id < :before ORDER BY a.id DESC")
+  List<AuthorDTO> findPageBefore(@Param("before") Long before, Pageable pageable);
+
+  @Query("SELECT a.id FROM Author a WHERE a.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  @Query(SELECT_AUTHOR_DTO + " ORDER BY a.bookCount DESC, a.id DESC")
+  List<AuthorDTO> findTopByBookCount(Pageable pageable);
+
+  @Modifying
+  @Query("UPDATE Author a SET a.bookCount = a.bookCount + :delta, a.version = a.version + 1 WHERE a.id = :id")
+  int adjustBookCount(@Param("id") Long id, @Param("delta") long delta);
+
+  @Modifying
+  @Query("UPDATE Author a SET a.bookCount = (SELECT COUNT(b) FROM Book b WHERE b.author = a), a.version = a.version + 1 "
+      + "WHERE a.bookCount <> (SELECT COUNT(b) FROM Book b WHERE b.author = a)")
+  int reconcileBookCounts();
 }
@@ -0,0 +1,31 @@
+package com.example.librarymanagementsystem.repository;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria restricting a book listing.
+ * <p>
+ * Every criterion is optional; a {@code null} criterion does not restrict the result.
+ * Criteria are combined with AND. The publication date range is inclusive at both ends.
+ */
+@Getter
+public class BookFilter {
+  public static final BookFilter NONE = new BookFilter(null, null, null, null);
+
+  private final Long authorId;
+
+  private final Long genreId;
+
+  private final LocalDate publishedFrom;
+
+  private final LocalDate publishedTo;
+
+  public BookFilter(Long authorId, Long genreId, LocalDate publishedFrom, LocalDate publishedTo) {
+    this.authorId = authorId;
+    this.genreId = genreId;
+    this.publishedFrom = publishedFrom;
+    this.publishedTo = publishedTo;
+  }
+}
@@ -1,11 +1,14 @@
 package com.example.librarymanagementsystem.repository;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +21,25 @@ import java.util.Optional;
  * - existsByIsbn(String isbn): Checks the existence of a Book entity by ISBN.
  * - findByAuthorId(Long authorId): Retrieves a list of Book entities associated with a specific author's ID.
  * - findByGenreId(Long genreId): Retrieves a list of Book entities associated with a specific genre's ID.
+ * - findAllDTOs(): Read-only lookup selected straight into BookDTO.
+ * - findExistingIsbns(Collection isbns): Returns which of the given ISBNs are already taken, in one query.
+ * - findDTOById(Long id, FieldSet fields) / findDTOsByIdIn(Collection ids, FieldSet fields): Lookups by ID
+ *   selected straight into BookDTO, reading only the requested columns, see {@link BookRepositoryCustom}.
+ * - findVersionById(Long id): Version-only lookup for conditional requests, see {@link BookRepositoryCustom}.
+ * - findPageAfter(Long after, Pageable pageable): Keyset page read ordered by ID, used to build in-memory indexes.
+ * - findPage(BookFilter filter, BookSort sort, ...): Keyset page read with optional author, genre and
+ *   publication-date criteria and a selectable sort, see {@link BookRepositoryCustom}.
+ * <p>
+ * Read-only queries use JPQL constructor expressions, so rows are mapped directly into DTOs without
+ * creating managed entities, persistence-context snapshots or proxies for the author and genre.
  * <p>
  * This interface is used to interact with the database for operations related to the Book entity.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+  String SELECT_BOOK_DTO = "SELECT new com.example.librarymanagementsystem.dto.BookDTO("
+      + "b.id, b.title, b.isbn, b.publicationDate, b.description, b.author.id, b.genre.id, b.version) FROM Book b";
+
   Optional<Book> findByIsbn(String isbn);
 
   boolean existsByIsbn(String isbn);
@@ -34,4 +51,13 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
   @Query("SELECT b FROM Book b WHERE b.genre.id = :genreId")
   List<Book> findByGenreId(@Param("genreId") Long genreId);
+
+  @Query(SELECT_BOOK_DTO + " ORDER BY b.id ASC")
+  List<BookDTO> findAllDTOs();
+
+  @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+  List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+  @Query(SELECT_BOOK_DTO + " WHERE b.id > :after ORDER BY b.id ASC")
+  List<BookDTO> findPageAfter(@Param("after") Long after, Pageable pageable);
 }
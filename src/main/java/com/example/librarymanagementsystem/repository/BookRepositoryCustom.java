@@ -0,0 +1,57 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.FieldSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom query fragment of {@link BookRepository} for listings whose criteria are only known at runtime.
+ * <p>
+ * Methods:
+ * - {@code findDTOById}: Single-book lookup by ID, selected straight into a DTO.
+ * - {@code findDTOsByIdIn}: Lookup of several books by ID, such as the hits of a search.
+ * - {@code findVersionById}: Current version of a book, used to answer conditional requests.
+ * - {@code findPage}: Keyset page read combining any subset of {@link BookFilter} criteria with a {@link BookSort}.
+ * <p>
+ * The DTO reads take the {@link FieldSet} of the response and read only its columns, plus the ID and
+ * version; {@link FieldSet#ALL} reads every column.
+ */
+public interface BookRepositoryCustom {
+
+  /**
+   * Reads one book by ID into a DTO without loading the entity. This runs on every book detail request,
+   * so it is issued as a plain typed query: a string {@code @Query} method re-processes its query text on
+   * each invocation, which costs more than the projection saves for a single row.
+   */
+  Optional<BookDTO> findDTOById(Long id, FieldSet fields);
+
+  /**
+   * Reads the books with the given IDs, in no particular order; missing IDs are skipped.
+   */
+  List<BookDTO> findDTOsByIdIn(Collection<Long> ids, FieldSet fields);
+
+  /**
+   * Reads only the version of one book, so a conditional request whose entity tag is still current
+   * can be answered without reading the rest of the row. Issued as a typed query for the same reason
+   * as {@link #findDTOById}.
+   */
+  Optional<Long> findVersionById(Long id);
+
+  /**
+   * Reads up to {@code limit} books matching the filter, positioned by a keyset rather than an offset.
+   * Rows are selected straight into DTOs; no entities are loaded.
+   *
+   * @param filter    criteria the books must match
+   * @param sort      order of the listing
+   * @param fromId    ID of the book to continue after, or {@code null} to start at the beginning
+   * @param fromValue sort value of that book as produced by {@link BookSort#format}, may be {@code null}
+   * @param backward  whether to read towards the beginning of the listing; rows are then returned in reverse order
+   * @param limit     maximum number of books to return
+   * @param fields    columns to read; the sort property is read in any case, for the cursors
+   */
+  List<BookDTO> findPage(BookFilter filter, BookSort sort, Long fromId, String fromValue, boolean backward, int limit,
+                         FieldSet fields);
+}
@@ -0,0 +1,192 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JPQL implementation of {@link BookRepositoryCustom}.
+ * <p>
+ * Rows are selected with a constructor expression into {@link BookDTO}; the author and genre are
+ * read from the foreign key columns, so neither entities nor proxies are created.
+ * <p>
+ * When a {@link FieldSet} narrows the response, only the selected columns are read, as a tuple that is
+ * copied into a DTO whose other properties stay {@code null}. The ID and version are always read, since
+ * the entity tags are built from them, and so is the sort property, which the page cursors carry; a
+ * listing of titles never transfers the descriptions.
+ * <p>
+ * Only the criteria that are actually given end up in the WHERE clause, so each combination
+ * produces its own minimal statement that the database can serve from the matching index on
+ * {@code books} instead of evaluating {@code (:x IS NULL OR column = :x)} guards row by row.
+ * The statement is assembled as JPQL text rather than with the Criteria API: Hibernate caches the
+ * translation of a query string, while a criteria tree is translated again on every execution.
+ * There are only a few hundred distinct combinations, well within the query plan cache.
+ * <p>
+ * Pages continue from the last seen {@code (sort value, id)} pair. The seek predicate is written
+ * as {@code value >= :v AND (value > :v OR id > :id)} so the leading range condition stays
+ * sargable on the {@code (value, id)} indexes. Missing publication dates are treated as the
+ * largest value in both the ordering and the seek predicate.
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Optional<BookDTO> findDTOById(Long id, FieldSet fields) {
+    return select(fields, " WHERE b.id = :id", Map.of("id", id), null).stream().findFirst();
+  }
+
+  @Override
+  public List<BookDTO> findDTOsByIdIn(Collection<Long> ids, FieldSet fields) {
+    return select(fields, " WHERE b.id IN :ids", Map.of("ids", ids), null);
+  }
+
+  @Override
+  public Optional<Long> findVersionById(Long id) {
+    return entityManager.createQuery("SELECT b.version FROM Book b WHERE b.id = :id", Long.class)
+        .setParameter("id", id)
+        .getResultList().stream()
+        .findFirst();
+  }
+
+  @Override
+  public List<BookDTO> findPage(BookFilter filter, BookSort sort, Long fromId, String fromValue, boolean backward, int limit,
+                               FieldSet fields) {
+    List<String> predicates = new ArrayList<>();
+    Map<String, Object> parameters = new HashMap<>();
+    if (filter.getAuthorId() != null) {
+      predicates.add("b.author.id = :authorId");
+      parameters.put("authorId", filter.getAuthorId());
+    }
+    if (filter.getGenreId() != null) {
+      predicates.add("b.genre.id = :genreId");
+      parameters.put("genreId", filter.getGenreId());
+    }
+    if (filter.getPublishedFrom() != null) {
+      predicates.add("b.publicationDate >= :publishedFrom");
+      parameters.put("publishedFrom", filter.getPublishedFrom());
+    }
+    if (filter.getPublishedTo() != null) {
+      predicates.add("b.publicationDate <= :publishedTo");
+      parameters.put("publishedTo", filter.getPublishedTo());
+    }
+
+    boolean ascending = sort.descending() == backward;
+    String direction = ascending ? " ASC" : " DESC";
+    String orderBy;
+    if (sort.field() == BookSort.Field.ID) {
+      if (fromId != null) {
+        predicates.add(ascending ? "b.id > :fromId" : "b.id < :fromId");
+        parameters.put("fromId", fromId);
+      }
+      orderBy = "b.id" + direction;
+    } else {
+      String value = "b." + sort.field().property();
+      if (fromId != null) {
+        Comparable<?> from = sort.parseValue(fromValue);
+        predicates.add(seek(value, from != null, ascending));
+        parameters.put("fromId", fromId);
+        if (from != null) {
+          parameters.put("fromValue", from);
+        }
+      }
+      orderBy = value + direction + (ascending ? " NULLS LAST" : " NULLS FIRST") + ", b.id" + direction;
+    }
+
+    StringBuilder where = new StringBuilder();
+    if (!predicates.isEmpty()) {
+      where.append(" WHERE ").append(String.join(" AND ", predicates));
+    }
+    where.append(" ORDER BY ").append(orderBy);
+    return select(withField(fields, sort.field().property()), where.toString(), parameters, limit);
+  }
+
+  /**
+   * Runs {@code SELECT ... FROM Book b} followed by {@code clause}, reading all columns through the
+   * constructor expression or only the selected ones through a tuple.
+   */
+  private List<BookDTO> select(FieldSet fields, String clause, Map<String, Object> parameters, Integer limit) {
+    if (fields.isAll()) {
+      TypedQuery<BookDTO> query = entityManager.createQuery(BookRepository.SELECT_BOOK_DTO + clause, BookDTO.class);
+      parameters.forEach(query::setParameter);
+      return (limit == null ? query : query.setMaxResults(limit)).getResultList();
+    }
+
+    Set<String> names = new LinkedHashSet<>(fields.names());
+    names.add("id");
+    names.add("version");
+    List<String> columns = List.copyOf(names);
+    String select = columns.stream().map(BookRepositoryCustomImpl::path).collect(Collectors.joining(", "));
+    TypedQuery<Tuple> query = entityManager.createQuery("SELECT " + select + " FROM Book b" + clause, Tuple.class);
+    parameters.forEach(query::setParameter);
+    return (limit == null ? query : query.setMaxResults(limit)).getResultList().stream()
+        .map(tuple -> toDTO(columns, tuple))
+        .toList();
+  }
+
+  private static FieldSet withField(FieldSet fields, String name) {
+    if (fields.includes(name)) {
+      return fields;
+    }
+    Set<String> names = new LinkedHashSet<>(fields.names());
+    names.add(name);
+    return new FieldSet(names);
+  }
+
+  private static String path(String field) {
+    return switch (field) {
+      case "authorId" -> "b.author.id";
+      case "genreId" -> "b.genre.id";
+      default -> "b." + field;
+    };
+  }
+
+  private static BookDTO toDTO(List<String> columns, Tuple tuple) {
+    BookDTO dto = new BookDTO();
+    for (int i = 0; i < columns.size(); i++) {
+      Object value = tuple.get(i);
+      switch (columns.get(i)) {
+        case "id" -> dto.setId((Long) value);
+        case "title" -> dto.setTitle((String) value);
+        case "isbn" -> dto.setIsbn((String) value);
+        case "publicationDate" -> dto.setPublicationDate((LocalDate) value);
+        case "description" -> dto.setDescription((String) value);
+        case "authorId" -> dto.setAuthorId((Long) value);
+        case "genreId" -> dto.setGenreId((Long) value);
+        case "version" -> dto.setVersion((Long) value);
+        default -> throw new IllegalArgumentException("Unknown book field: " + columns.get(i));
+      }
+    }
+    return dto;
+  }
+
+  /**
+   * Builds the condition selecting rows strictly after {@code (:fromValue, :fromId)} in the given direction,
+   * with {@code null} values ordered after every non-null value.
+   */
+  private static String seek(String value, boolean hasValue, boolean ascending) {
+    if (!hasValue) {
+      String sameValue = "(" + value + " IS NULL AND b.id " + (ascending ? ">" : "<") + " :fromId)";
+      return ascending ? sameValue : "(" + sameValue + " OR " + value + " IS NOT NULL)";
+    }
+    String after = ascending
+        ? "(" + value + " >= :fromValue AND (" + value + " > :fromValue OR b.id > :fromId))"
+        : "(" + value + " <= :fromValue AND (" + value + " < :fromValue OR b.id < :fromId))";
+    return ascending ? "(" + after + " OR " + value + " IS NULL)" : after;
+  }
+}
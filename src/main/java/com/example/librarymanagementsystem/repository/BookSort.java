@@ -0,0 +1,100 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Sort order of a book listing: one book property, ascending or descending, with the book ID
+ * as tie-breaker so the order is total and can be resumed from a keyset cursor.
+ * <p>
+ * The textual form is the property name, prefixed with {@code -} for descending order,
+ * e.g. {@code title} or {@code -publicationDate}. Missing publication dates sort as the
+ * largest value: last in ascending order, first in descending order.
+ */
+public record BookSort(Field field, boolean descending) {
+
+  public static final BookSort DEFAULT = new BookSort(Field.ID, false);
+
+  /**
+   * The book properties a listing can be sorted by.
+   */
+  public enum Field {
+    ID("id"),
+    TITLE("title"),
+    PUBLICATION_DATE("publicationDate");
+
+    private final String property;
+
+    Field(String property) {
+      this.property = property;
+    }
+
+    public String property() {
+      return property;
+    }
+  }
+
+  /**
+   * Parses the textual form; {@code null} or blank selects {@link #DEFAULT}.
+   *
+   * @throws IllegalArgumentException if the property is not sortable
+   */
+  public static BookSort parse(String sort) {
+    if (sort == null || sort.isBlank()) {
+      return DEFAULT;
+    }
+    boolean descending = sort.startsWith("-");
+    String property = descending ? sort.substring(1) : sort;
+    for (Field field : Field.values()) {
+      if (field.property.equals(property)) {
+        return new BookSort(field, descending);
+      }
+    }
+    throw new IllegalArgumentException("Unsupported sort '" + sort + "', expected one of "
+        + Arrays.stream(Field.values()).map(Field::property).collect(Collectors.joining(", "))
+        + ", optionally prefixed with '-'");
+  }
+
+  /**
+   * Returns the sort value of the book as text, or {@code null} when the book has none.
+   * The identifier itself is not repeated, so sorting by ID always yields {@code null}.
+   */
+  public String format(BookDTO book) {
+    return switch (field) {
+      case ID -> null;
+      case TITLE -> book.getTitle();
+      case PUBLICATION_DATE -> book.getPublicationDate() == null ? null : book.getPublicationDate().toString();
+    };
+  }
+
+  /**
+   * Converts text produced by {@link #format} back into a value comparable with the sort property.
+   *
+   * @throws IllegalArgumentException if the text is not a valid value of the property
+   */
+  public Comparable<?> parseValue(String value) {
+    if (value == null) {
+      return null;
+    }
+    return switch (field) {
+      case ID -> null;
+      case TITLE -> value;
+      case PUBLICATION_DATE -> {
+        try {
+          yield LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+          throw new IllegalArgumentException("Invalid publication date in cursor: " + value);
+        }
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return (descending ? "-" : "") + field.property;
+  }
+}
@@ -1,9 +1,18 @@
 package com.example.librarymanagementsystem.repository;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.GenreDTO;
 import com.example.librarymanagementsystem.model.Genre;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,12 +22,59 @@ import java.util.Optional;
  * Methods:
  * - {@code findByName(String name)}: Retrieves a Genre entity based on its name.
  * - {@code existsByName(String name)}: Checks the existence of a Genre entity by its name.
+ * - {@code findAllDTOs()} / {@code findDTOById(Long id)}: Read-only lookups selected straight into {@link GenreDTO}.
+ *   {@code findDTOById} is served from the {@code genres} cache, see {@link CacheConfig}.
+ * - {@code findPageAfter(Long after, Pageable pageable)} / {@code findPageBefore(Long before, Pageable pageable)}:
+ *   Keyset page reads ordered by ID, used for cursor pagination.
+ * - {@code findExistingIds(Collection ids)}: Returns which of the given IDs exist, in one query.
+ * - {@code findTopByBookCount(Pageable pageable)}: Genres with the most books, read from the
+ *   {@code (book_count, id)} index.
+ * - {@code sumBookCounts()}: Total number of books, as every book has exactly one genre.
+ * - {@code adjustBookCount(Long id, long delta)} / {@code reconcileBookCounts()}: Maintain the {@code book_count}
+ *   column, see {@code BookCounters}. Both bump the version, since the count is part of the genre's representation.
+ * <p>
+ * Read-only queries use JPQL constructor expressions, so rows are mapped directly into DTOs without
+ * creating managed entities, persistence-context snapshots or proxies.
  * <p>
  * This interface is used to interact with the database for operations related to the Genre entity.
  */
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Long> {
+  String SELECT_GENRE_DTO = "SELECT new com.example.librarymanagementsystem.dto.GenreDTO("
+      + "g.id, g.name, g.description, g.bookCount, g.version) FROM Genre g";
+
   Optional<Genre> findByName(String name);
 
   boolean existsByName(String name);
+
+  @Query(SELECT_GENRE_DTO + " ORDER BY g.id ASC")
+  List<GenreDTO> findAllDTOs();
+
+  @Cacheable(cacheNames = CacheConfig.GENRES, unless = "#result == null")
+  @Query(SELECT_GENRE_DTO + " WHERE g.id = :id")
+  Optional<GenreDTO> findDTOById(@Param("id") Long id);
+
+  @Query(SELECT_GENRE_DTO + " WHERE g.id > :after ORDER BY g.id ASC")
+  List<GenreDTO> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+  @Query(SELECT_GENRE_DTO + " WHERE g.id < :before ORDER BY g.id DESC")
+  List<GenreDTO> findPageBefore(@Param("before") Long before, Pageable pageable);
+
+  @Query("SELECT g.id FROM Genre g WHERE g.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  @Query(SELECT_GENRE_DTO + " ORDER BY g.bookCount DESC, g.id DESC")
+  List<GenreDTO> findTopByBookCount(Pageable pageable);
+
+  @Query("SELECT COALESCE(SUM(g.bookCount), 0) FROM Genre g")
+  long sumBookCounts();
+
+  @Modifying
+  @Query("UPDATE Genre g SET g.bookCount = g.bookCount + :delta, g.version = g.version + 1 WHERE g.id = :id")
+  int adjustBookCount(@Param("id") Long id, @Param("delta") long delta);
+
+  @Modifying
+  @Query("UPDATE Genre g SET g.bookCount = (SELECT COUNT(b) FROM Book b WHERE b.genre = g), g.version = g.version + 1 "
+      + "WHERE g.bookCount <> (SELECT COUNT(b) FROM Book b WHERE b.genre = g)")
+  int reconcileBookCounts();
 }
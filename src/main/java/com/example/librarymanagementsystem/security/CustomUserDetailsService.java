@@ -2,6 +2,9 @@ package com.example.librarymanagementsystem.security;
 
 import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.stream.Collectors;
@@ -24,18 +28,55 @@ import java.util.stream.Collectors;
  * - Retrieve a user entity by the provided username.
  * - Throw a {@link UsernameNotFoundException} if the user does not exist.
  * - Map the user's roles to security-granted authorities to be used by Spring Security.
+ * - Keep loaded users briefly, so a login, and the retries of a client that mistyped its password,
+ *   read the user from the database once.
+ * <p>
+ * Cached users are keyed by the name or email they were looked up with. Unknown users are not cached. A
+ * cached user can be out of date for at most the configured time; {@link #evict(String)} drops one earlier.
+ * <p>
+ * Configuration:
+ * - {@code library.login.user-cache.maximum-size}: Users kept, defaults to 10000; 0 turns the cache off.
+ * - {@code library.login.user-cache.ttl}: How long a user is kept after loading, defaults to 30s.
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
   private final UserRepository userRepository;
+  private final Cache<String, UserDetails> users;
 
-  public CustomUserDetailsService(UserRepository userRepository) {
+  public CustomUserDetailsService(UserRepository userRepository,
+                                  @Value("${library.login.user-cache.maximum-size:10000}") long cacheSize,
+                                  @Value("${library.login.user-cache.ttl:30s}") Duration ttl) {
     this.userRepository = userRepository;
+    this.users = cacheSize > 0
+        ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build()
+        : null;
   }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    if (users == null) {
+      return load(username);
+    }
+    UserDetails cached = users.getIfPresent(username);
+    if (cached == null) {
+      cached = load(username);
+      users.put(username, cached);
+    }
+    // A copy, since Spring Security erases the password of the user it authenticated
+    return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+  }
+
+  /**
+   * Drops the cached user looked up with the given name or email, so the next login reads it again.
+   */
+  public void evict(String username) {
+    if (users != null) {
+      users.invalidate(username);
+    }
+  }
+
+  private UserDetails load(String username) {
     User user = userRepository.findByUsernameOrEmail(username, username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + username));
 
@@ -1,5 +1,8 @@
 package com.example.librarymanagementsystem.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -16,8 +19,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -31,27 +41,53 @@ import java.util.stream.Collectors;
  * - Verify the validity of a token by checking its signature and expiration.
  * - Integrate with the Spring Security framework to set authentication context based on
  * JWT-provided claims during incoming HTTP requests.
+ * - Revoke single tokens, by their {@code jti} claim, or all tokens a user was issued until now, and refuse
+ * revoked tokens without a database lookup (see {@link TokenDenylist}).
  * <p>
  * Injection of required properties is handled through the following annotations:
  * - {@code @Value("${jwt.secret}")}: Injects the secret key used for signing and verifying tokens.
  * - {@code @Value("${jwt.expiration}")}: Injects the duration for token expiration.
+ * - {@code @Value("${library.jwt.cache.maximum-size:10000}")}: Bounds the cache of verified tokens; 0 turns it off.
+ * - {@code @Value("${library.jwt.denylist.file:}")}: File that revocations are persisted to and restored from
+ * at startup; revocations are kept in memory only if it is empty.
  * <p>
- * The filtering mechanism is implemented in the {@code doFilterInternal} method to extract
- * JWT from the HTTP Authorization header, validate it, and set the authentication context with
- * roles and username.
+ * The signing key and the parser are built once. The filtering mechanism is implemented in the
+ * {@code doFilterInternal} method to extract JWT from the HTTP Authorization header and set the
+ * authentication context with roles and username. A token is verified and parsed once; the resulting
+ * authentication is then cached under the SHA-256 digest of the token until the token expires, so repeated
+ * requests with the same token skip the signature check. Invalid tokens are never cached. Revocations are
+ * checked on every request, including for cached tokens, so they take effect at once.
  */
 @Component
 public class JwtTokenProvider extends OncePerRequestFilter {
 
-  @Value("${jwt.secret}")
-  private String jwtSecret;
+  private final SecretKey key;
+  private final JwtParser parser;
+  private final int jwtExpiration;
+  private final Cache<ByteBuffer, VerifiedToken> verified;
+  private final MessageDigest digest;
+  private final TokenDenylist denylist;
 
-  @Value("${jwt.expiration}")
-  private int jwtExpiration;
+  public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                          @Value("${jwt.expiration}") int jwtExpiration,
+                          @Value("${library.jwt.cache.maximum-size:10000}") long cacheSize,
+                          @Value("${library.jwt.denylist.file:}") String denylistFile) {
+    this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.jwtExpiration = jwtExpiration;
+    this.verified = cacheSize > 0
+        ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfter(new UntilTokenExpiry()).build()
+        : null;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    this.denylist = new TokenDenylist(jwtExpiration,
+        StringUtils.hasText(denylistFile) ? Path.of(denylistFile) : null);
+  }
 
   public String generateToken(String username, String role) {
-    SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
     Claims claims = Jwts.claims().setSubject(username);
     claims.put("roles", List.of(role));
 
@@ -60,6 +96,7 @@ public class JwtTokenProvider extends OncePerRequestFilter {
 
     return Jwts.builder()
         .setClaims(claims)
+        .setId(UUID.randomUUID().toString())
         .setIssuedAt(now)
         .setExpiration(expiryDate)
         .signWith(key, SignatureAlgorithm.HS512)
@@ -67,31 +104,16 @@ public class JwtTokenProvider extends OncePerRequestFilter {
   }
 
   public String getUsernameFromJWT(String token) {
-    SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
-
-    return claims.getSubject();
+    return parser.parseClaimsJws(token).getBody().getSubject();
   }
 
   public List<String> getRolesFromJWT(String token) {
-    SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
-
-    return (List<String>) claims.get("roles");
+    return roles(parser.parseClaimsJws(token).getBody());
   }
 
   public boolean validateToken(String authToken) {
     try {
-      SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-      Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+      parser.parseClaimsJws(authToken);
       return true;
     } catch (JwtException | IllegalArgumentException e) {
       // Log the exception if needed
@@ -99,22 +121,80 @@ public class JwtTokenProvider extends OncePerRequestFilter {
     return false;
   }
 
+  /**
+   * Returns the authentication carried by a token, with its username and roles as granted authorities,
+   * or {@code null} if the token is missing or invalid. The reactive read API authenticates its requests
+   * with this method too, so both APIs apply the same rules.
+   * <p>
+   * The returned authentication may be shared by every request that presents the same token, and must
+   * not be modified.
+   */
+  public UsernamePasswordAuthenticationToken getAuthentication(String token) {
+    if (!StringUtils.hasText(token)) {
+      return null;
+    }
+    VerifiedToken verifiedToken;
+    if (verified == null) {
+      verifiedToken = verify(token);
+    } else {
+      ByteBuffer tokenDigest = digest(token);
+      verifiedToken = verified.getIfPresent(tokenDigest);
+      if (verifiedToken == null) {
+        verifiedToken = verify(token);
+        if (verifiedToken != null) {
+          verified.put(tokenDigest, verifiedToken);
+        }
+      }
+    }
+    if (verifiedToken == null
+        || denylist.isRevoked(verifiedToken.jti(), verifiedToken.authentication().getName(), verifiedToken.issuedAtMillis())) {
+      return null;
+    }
+    return verifiedToken.authentication();
+  }
+
+  /**
+   * Revokes a token until it expires. Returns {@code false}, and revokes nothing, if the token is not valid.
+   */
+  public boolean revokeToken(String token) {
+    VerifiedToken verifiedToken = StringUtils.hasText(token) ? verify(token) : null;
+    if (verifiedToken == null) {
+      return false;
+    }
+    if (verifiedToken.jti() != null) {
+      denylist.revokeToken(verifiedToken.jti(), verifiedToken.expiresAtMillis());
+    } else {
+      // Tokens issued before they carried an ID can only be revoked with all other tokens of their user
+      denylist.revokeUser(verifiedToken.authentication().getName(), verifiedToken.issuedAtMillis());
+    }
+    return true;
+  }
+
+  /**
+   * Revokes every token issued to a user until now. Since tokens record their issue time in whole seconds,
+   * this includes tokens issued later in the same second; tokens issued after that are accepted again.
+   */
+  public void revokeUser(String username) {
+    denylist.revokeUser(username, System.currentTimeMillis());
+  }
+
+  /**
+   * Extracts the token from the value of an {@code Authorization} header, or returns {@code null} if it
+   * does not hold a bearer token.
+   */
+  public static String resolveToken(String authorizationHeader) {
+    if (StringUtils.hasText(authorizationHeader) && authorizationHeader.startsWith("Bearer ")) {
+      return authorizationHeader.substring(7);
+    }
+    return null;
+  }
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     try {
-      String jwt = getJwtFromRequest(request);
-
-      if (StringUtils.hasText(jwt) && validateToken(jwt)) {
-        String username = getUsernameFromJWT(jwt);
-        List<String> roles = getRolesFromJWT(jwt);
-
-        List<SimpleGrantedAuthority> authorities = roles.stream()
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-            username, null, authorities);
+      UsernamePasswordAuthenticationToken authentication = getAuthentication(resolveToken(request.getHeader("Authorization")));
+      if (authentication != null) {
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
     } catch (Exception ex) {
@@ -124,11 +204,78 @@ public class JwtTokenProvider extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private String getJwtFromRequest(HttpServletRequest request) {
-    String bearerToken = request.getHeader("Authorization");
-    if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-      return bearerToken.substring(7);
+  private VerifiedToken verify(String token) {
+    Claims claims;
+    try {
+      claims = parser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+    List<SimpleGrantedAuthority> authorities = roles(claims).stream()
+        .map(SimpleGrantedAuthority::new)
+        .collect(Collectors.toList());
+    Date expiration = claims.getExpiration();
+    Date issuedAt = claims.getIssuedAt();
+    return new VerifiedToken(new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities),
+        jti(claims.getId()),
+        issuedAt != null ? issuedAt.getTime() : 0L,
+        expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns a token ID as a UUID. IDs that are not UUIDs, which this provider does not issue, are mapped
+   * to a name-based UUID.
+   */
+  private static UUID jti(String id) {
+    if (id == null) {
+      return null;
+    }
+    try {
+      return UUID.fromString(id);
+    } catch (IllegalArgumentException e) {
+      return UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private ByteBuffer digest(String token) {
+    MessageDigest tokenDigest;
+    try {
+      tokenDigest = (MessageDigest) digest.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("SHA-256 digests cannot be cloned", e);
+    }
+    return ByteBuffer.wrap(tokenDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> roles(Claims claims) {
+    List<String> roles = (List<String>) claims.get("roles");
+    return roles != null ? roles : List.of();
+  }
+
+  private record VerifiedToken(UsernamePasswordAuthenticationToken authentication, UUID jti, long issuedAtMillis,
+                               long expiresAtMillis) {
+  }
+
+  /**
+   * Keeps a verified token no longer than the token itself is valid.
+   */
+  private static final class UntilTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+      long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+      return remainingMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(Math.min(remainingMillis, Long.MAX_VALUE / 1_000_000));
+    }
+
+    @Override
+    public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
     }
-    return null;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.example.librarymanagementsystem.security;
+
+import com.example.librarymanagementsystem.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies login passwords on a dedicated, bounded executor.
+ * <p>
+ * BCrypt costs tens of milliseconds of CPU per check by design. Run on the request threads, a burst of
+ * logins, such as at a shift change, would take every CPU and most request threads, and catalogue reads
+ * would queue behind it. Here at most {@code library.login.threads} checks run at once and at most
+ * {@code library.login.queue-capacity} wait; a login beyond that is refused at once with a
+ * {@link ServiceUnavailableException}, answered with 503 and a {@code Retry-After} header, instead of
+ * holding a request thread while it waits. The calling thread waits only for its own check.
+ * <p>
+ * Configuration:
+ * - {@code library.login.threads}: Checks run at once, defaults to the number of CPUs.
+ * - {@code library.login.queue-capacity}: Checks that may wait for a thread, defaults to 100.
+ * - {@code library.login.retry-after}: Delay suggested to refused clients, defaults to 1s.
+ */
+@Component
+public class PasswordVerifier implements AutoCloseable {
+
+  private final PasswordEncoder passwordEncoder;
+  private final Duration retryAfter;
+  private final ThreadPoolExecutor executor;
+
+  public PasswordVerifier(PasswordEncoder passwordEncoder,
+                          @Value("${library.login.threads:0}") int threads,
+                          @Value("${library.login.queue-capacity:100}") int queueCapacity,
+                          @Value("${library.login.retry-after:1s}") Duration retryAfter) {
+    this.passwordEncoder = passwordEncoder;
+    this.retryAfter = retryAfter;
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger counter = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        task -> {
+          Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Checks a raw password against its stored hash, waiting for a free hashing thread.
+   *
+   * @throws ServiceUnavailableException if too many checks are already running and waiting
+   */
+  public boolean matches(String rawPassword, String encodedPassword) {
+    Future<Boolean> match;
+    try {
+      match = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    } catch (RejectedExecutionException e) {
+      throw new ServiceUnavailableException("Too many logins at once; try again shortly", retryAfter);
+    }
+    try {
+      return match.get();
+    } catch (InterruptedException e) {
+      match.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException("The login was interrupted; try again shortly", retryAfter);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password verification failed", e.getCause());
+    }
+  }
+
+  /**
+   * Returns the number of checks waiting for a hashing thread.
+   */
+  public int waiting() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
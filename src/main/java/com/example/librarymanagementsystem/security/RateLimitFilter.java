@@ -0,0 +1,196 @@
+package com.example.librarymanagementsystem.security;
+
+import com.example.librarymanagementsystem.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the request rate of each client with token buckets, so that one client cannot starve the others
+ * and password guessing on the login endpoint is slowed down before it costs password hashing.
+ * <p>
+ * Requests are grouped by route, and every group has its own limit:
+ * - {@code auth}: Logins and registrations, counted per client IP address.
+ * - {@code reads}: {@code GET} and {@code HEAD} requests under {@code /api/v1}.
+ * - {@code writes}: Other requests under {@code /api/v1}, which are mostly admin writes.
+ * Reads and writes are counted per authenticated user, or per IP address for anonymous requests. Other
+ * paths, such as the actuator and the API docs, are not limited. The IP address is the one the servlet
+ * container reports; behind a proxy, enable {@code server.forward-headers-strategy} so it is the client's.
+ * <p>
+ * A bucket holds {@code limit} tokens and is refilled evenly over {@code period}, so a client may send a
+ * burst of up to {@code limit} requests and then one request every {@code period / limit}. The bucket is
+ * kept in the generic cell rate form: a single {@code AtomicLong} holds the time at which it will be full
+ * again and is advanced by compare-and-set, so concurrent requests of one client never take a lock.
+ * Buckets are kept in a bounded cache and dropped after a period without requests, when they would be
+ * full anyway.
+ * <p>
+ * Every limited response carries {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers, the latter in seconds until the bucket is full. A request over the limit
+ * is answered with 429 Too Many Requests and a {@code Retry-After} header, in seconds.
+ * <p>
+ * Configuration:
+ * - {@code library.rate-limit.enabled}: Turns rate limiting off when {@code false}, defaults to true.
+ * - {@code library.rate-limit.<group>.limit}: Requests per period, defaults to 100 for {@code auth},
+ *   600 for {@code reads} and 120 for {@code writes}.
+ * - {@code library.rate-limit.<group>.period}: Period over which the limit applies, defaults to 1m.
+ * - {@code library.rate-limit.max-clients}: Buckets kept per group, defaults to 100000.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  static final String LIMIT_HEADER = "RateLimit-Limit";
+  static final String REMAINING_HEADER = "RateLimit-Remaining";
+  static final String RESET_HEADER = "RateLimit-Reset";
+
+  private final boolean enabled;
+  private final ObjectMapper objectMapper;
+  private final Group auth;
+  private final Group reads;
+  private final Group writes;
+
+  public RateLimitFilter(Environment environment, ObjectMapper objectMapper) {
+    this.enabled = environment.getProperty("library.rate-limit.enabled", Boolean.class, true);
+    this.objectMapper = objectMapper;
+    long maxClients = environment.getProperty("library.rate-limit.max-clients", Long.class, 100_000L);
+    this.auth = group(environment, "auth", 100, maxClients);
+    this.reads = group(environment, "reads", 600, maxClients);
+    this.writes = group(environment, "writes", 120, maxClients);
+  }
+
+  private static Group group(Environment environment, String name, int defaultLimit, long maxClients) {
+    int limit = environment.getProperty("library.rate-limit." + name + ".limit", Integer.class, defaultLimit);
+    Duration period = DurationStyle.detectAndParse(environment.getProperty("library.rate-limit." + name + ".period", "1m"));
+    if (limit < 1 || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("library.rate-limit." + name + " needs a positive limit and period");
+    }
+    return new Group(limit, period, maxClients);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || !request.getRequestURI().startsWith("/api/v1/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String path = request.getRequestURI();
+    Group group;
+    String client;
+    if (path.equals("/api/v1/auth/login") || path.equals("/api/v1/auth/register")) {
+      group = auth;
+      client = "ip:" + request.getRemoteAddr();
+    } else {
+      String method = request.getMethod();
+      group = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? reads : writes;
+      client = client(request);
+    }
+
+    long now = System.nanoTime();
+    TokenBucket bucket = group.buckets.get(client, key -> new TokenBucket());
+    long fullAt = bucket.tryAcquire(now, group.emissionNanos, group.burstNanos);
+    response.setIntHeader(LIMIT_HEADER, group.limit);
+    if (fullAt == TokenBucket.REJECTED) {
+      long retryAfter = bucket.nanosUntilNextToken(now, group.emissionNanos, group.burstNanos);
+      response.setIntHeader(REMAINING_HEADER, 0);
+      response.setHeader(RESET_HEADER, Long.toString(seconds(bucket.nanosUntilFull(now))));
+      response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds(retryAfter)));
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      objectMapper.writeValue(response.getOutputStream(),
+          new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests; try again later"));
+      return;
+    }
+    long untilFull = fullAt - now;
+    response.setHeader(REMAINING_HEADER, Long.toString((group.burstNanos - untilFull) / group.emissionNanos));
+    response.setHeader(RESET_HEADER, Long.toString(seconds(untilFull)));
+    filterChain.doFilter(request, response);
+  }
+
+  private static String client(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "user:" + authentication.getName();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private static long seconds(long nanos) {
+    return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+  }
+
+  private static final class Group {
+
+    final int limit;
+    final long emissionNanos;
+    final long burstNanos;
+    final Cache<String, TokenBucket> buckets;
+
+    Group(int limit, Duration period, long maxClients) {
+      this.limit = limit;
+      this.emissionNanos = Math.max(1, period.toNanos() / limit);
+      this.burstNanos = emissionNanos * limit;
+      this.buckets = Caffeine.newBuilder()
+          .maximumSize(maxClients)
+          .expireAfterAccess(period)
+          .build();
+    }
+  }
+
+  /**
+   * A token bucket in the generic cell rate form. The state is the time, on the {@link System#nanoTime()}
+   * scale, at which the bucket will be full again; a request takes a token by moving it one emission
+   * interval later, which is allowed as long as it stays within one burst of now.
+   */
+  static final class TokenBucket {
+
+    static final long REJECTED = Long.MIN_VALUE;
+
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token, returning the new time at which the bucket is full, or {@link #REJECTED} if it is empty.
+     */
+    long tryAcquire(long now, long emissionNanos, long burstNanos) {
+      while (true) {
+        long current = fullAt.get();
+        long next = Math.max(current, now) + emissionNanos;
+        if (next - now > burstNanos) {
+          return REJECTED;
+        }
+        if (fullAt.compareAndSet(current, next)) {
+          return next;
+        }
+      }
+    }
+
+    long nanosUntilNextToken(long now, long emissionNanos, long burstNanos) {
+      return Math.max(0, fullAt.get() + emissionNanos - now - burstNanos);
+    }
+
+    long nanosUntilFull(long now) {
+      return Math.max(0, fullAt.get() - now);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.example.librarymanagementsystem.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked JWTs, held in memory so that checking a request costs two hash lookups and no database access.
+ * <p>
+ * Two kinds of revocation are kept:
+ * - Single tokens, by their {@code jti} claim, such as the token of a user who logged out. An entry is kept
+ *   until the token expires.
+ * - All tokens of a user issued up to a point in time ("not before"), such as after an account was
+ *   compromised. An entry is kept until the last token it covers has expired, one token lifetime later.
+ * Expired entries are pruned whenever a revocation is added. Checks allocate nothing: the token's ID is
+ * parsed once when the token is first verified, and the lookups use it and the subject as they are.
+ * <p>
+ * If a file is configured, every revocation is appended to it, and it is read back and compacted at startup,
+ * so a restarted node revokes the same tokens. Records are binary and fixed-size except for the username:
+ * 25 bytes per token and 11 bytes plus the username per user. A record cut short by a crash is ignored.
+ * Revocations are serialized by a {@code ReentrantLock} rather than a monitor, since they append to the
+ * file while holding it, and a virtual thread blocked on I/O inside {@code synchronized} pins its carrier.
+ * Revocations are local to the node; nodes behind a load balancer need the revocation on each of them.
+ */
+class TokenDenylist {
+
+  private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+  private static final int MAGIC = 0x4A44454E;
+  private static final byte VERSION = 1;
+  private static final byte TOKEN = 1;
+  private static final byte USER = 2;
+
+  private final Map<UUID, Long> tokens = new ConcurrentHashMap<>();
+  private final Map<String, NotBefore> users = new ConcurrentHashMap<>();
+  private final long tokenLifetimeMillis;
+  private final Path file;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * @param tokenLifetimeMillis the lifetime of issued tokens, which bounds how long a user revocation is kept
+   * @param file                where revocations are persisted, or {@code null} to keep them in memory only
+   */
+  TokenDenylist(long tokenLifetimeMillis, Path file) {
+    this.tokenLifetimeMillis = tokenLifetimeMillis;
+    this.file = file;
+    if (file != null) {
+      load();
+    }
+  }
+
+  /**
+   * Returns whether a token was revoked, by its ID or by a revocation of all tokens of its subject that
+   * were issued up to a later time.
+   *
+   * @param jti            the token's ID, or {@code null} if it has none
+   * @param subject        the token's subject
+   * @param issuedAtMillis when the token was issued
+   */
+  boolean isRevoked(UUID jti, String subject, long issuedAtMillis) {
+    if (jti != null && !tokens.isEmpty() && tokens.containsKey(jti)) {
+      return true;
+    }
+    if (!users.isEmpty() && subject != null) {
+      NotBefore notBefore = users.get(subject);
+      return notBefore != null && issuedAtMillis <= notBefore.millis();
+    }
+    return false;
+  }
+
+  /**
+   * Revokes a single token until it expires.
+   */
+  void revokeToken(UUID jti, long expiresAtMillis) {
+    long now = System.currentTimeMillis();
+    if (expiresAtMillis <= now) {
+      return;
+    }
+    lock.lock();
+    try {
+      prune(now);
+      tokens.merge(jti, expiresAtMillis, Math::max);
+      append(out -> {
+        out.writeByte(TOKEN);
+        out.writeLong(jti.getMostSignificantBits());
+        out.writeLong(jti.getLeastSignificantBits());
+        out.writeLong(expiresAtMillis);
+      });
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Revokes every token of a user issued up to and including the given time.
+   */
+  void revokeUser(String username, long notBeforeMillis) {
+    long now = System.currentTimeMillis();
+    lock.lock();
+    try {
+      prune(now);
+      users.merge(username, new NotBefore(notBeforeMillis, notBeforeMillis + tokenLifetimeMillis),
+          (current, added) -> added.millis() > current.millis() ? added : current);
+      append(out -> {
+        out.writeByte(USER);
+        out.writeLong(notBeforeMillis);
+        out.writeUTF(username);
+      });
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size() {
+    return tokens.size() + users.size();
+  }
+
+  private void prune(long now) {
+    tokens.values().removeIf(expiresAt -> expiresAt <= now);
+    users.values().removeIf(notBefore -> notBefore.expiresAtMillis() <= now);
+  }
+
+  private void load() {
+    long now = System.currentTimeMillis();
+    if (Files.exists(file)) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+          throw new IllegalStateException("Not a token denylist: " + file);
+        }
+        while (true) {
+          byte kind = in.readByte();
+          if (kind == TOKEN) {
+            UUID jti = new UUID(in.readLong(), in.readLong());
+            long expiresAt = in.readLong();
+            if (expiresAt > now) {
+              tokens.merge(jti, expiresAt, Math::max);
+            }
+          } else if (kind == USER) {
+            long notBefore = in.readLong();
+            String username = in.readUTF();
+            if (notBefore + tokenLifetimeMillis > now) {
+              users.merge(username, new NotBefore(notBefore, notBefore + tokenLifetimeMillis),
+                  (current, added) -> added.millis() > current.millis() ? added : current);
+            }
+          } else {
+            throw new IllegalStateException("Unknown record " + kind + " in token denylist " + file);
+          }
+        }
+      } catch (EOFException e) {
+        // End of the file, or a record cut short by a crash
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read token denylist " + file, e);
+      }
+    }
+    compact();
+    log.info("Loaded {} token revocations from {}", size(), file);
+  }
+
+  /**
+   * Rewrites the file with the live revocations only, replacing it atomically.
+   */
+  private void compact() {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        for (Map.Entry<UUID, Long> token : tokens.entrySet()) {
+          out.writeByte(TOKEN);
+          out.writeLong(token.getKey().getMostSignificantBits());
+          out.writeLong(token.getKey().getLeastSignificantBits());
+          out.writeLong(token.getValue());
+        }
+        for (Map.Entry<String, NotBefore> user : users.entrySet()) {
+          out.writeByte(USER);
+          out.writeLong(user.getValue().millis());
+          out.writeUTF(user.getKey());
+        }
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write token denylist " + file, e);
+    }
+  }
+
+  private void append(Record record) {
+    if (file == null) {
+      return;
+    }
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+      record.writeTo(out);
+    } catch (IOException e) {
+      // The revocation holds on this node until it restarts
+      log.error("Cannot persist token revocation to {}", file, e);
+    }
+  }
+
+  private interface Record {
+    void writeTo(DataOutputStream out) throws IOException;
+  }
+
+  private record NotBefore(long millis, long expiresAtMillis) {
+  }
+}
@@ -1,17 +1,20 @@
 package com.example.librarymanagementsystem.services;
 
 import com.example.librarymanagementsystem.dto.UserDTO;
+import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.exception.UnauthorizedException;
 import com.example.librarymanagementsystem.model.User;
 import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.security.CustomUserDetailsService;
 import com.example.librarymanagementsystem.security.JwtTokenProvider;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import com.example.librarymanagementsystem.security.PasswordVerifier;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,40 +27,58 @@ import java.util.Map;
  * <p>
  * Responsibilities:
  * - Authenticate users by validating their credentials and generating a JWT.
+ * - Revoke issued tokens on logout, and a single token or all tokens of a user on an administrator's request.
  * - Register new users with proper validation for unique usernames and emails.
  * - Convert User entities to UserDTO for external use.
  * <p>
  * Dependencies:
- * - AuthenticationManager: Used for authenticating the user credentials.
+ * - CustomUserDetailsService: Loads the user logging in, once per login and briefly cached.
+ * - PasswordVerifier: Checks login passwords on its bounded executor, refusing logins with 503 when saturated.
  * - UserRepository: Provides access to user-related database operations.
  * - PasswordEncoder: Encodes user passwords before persisting to storage.
  * - JwtTokenProvider: Manages the generation of JWT tokens and associated operations.
+ * <p>
+ * A failed login is answered with 401 whether the user is unknown or the password is wrong, and both
+ * cost a password check, so the response does not tell which users exist.
  */
 @Service
 public class AuthService {
 
-  private final AuthenticationManager authenticationManager;
+  private static final String INVALID_CREDENTIALS = "Invalid username/email or password";
+
+  private final CustomUserDetailsService userDetailsService;
+  private final PasswordVerifier passwordVerifier;
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final JwtTokenProvider jwtTokenProvider;
+  private volatile String unknownUserPassword;
 
-  public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository,
-                     PasswordEncoder passwordEncoder, JwtTokenProvider jwtTokenProvider) {
-    this.authenticationManager = authenticationManager;
+  public AuthService(CustomUserDetailsService userDetailsService, PasswordVerifier passwordVerifier,
+                     UserRepository userRepository, PasswordEncoder passwordEncoder,
+                     JwtTokenProvider jwtTokenProvider) {
+    this.userDetailsService = userDetailsService;
+    this.passwordVerifier = passwordVerifier;
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.jwtTokenProvider = jwtTokenProvider;
   }
 
   public Map<String, String> authenticateUser(String username, String password) {
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(username, password)
-    );
+    UserDetails user;
+    try {
+      user = userDetailsService.loadUserByUsername(username);
+    } catch (UsernameNotFoundException e) {
+      passwordVerifier.matches(password, unknownUserPassword());
+      throw new UnauthorizedException(INVALID_CREDENTIALS);
+    }
+    if (!passwordVerifier.matches(password, user.getPassword())) {
+      // The cached user may predate a password change
+      userDetailsService.evict(username);
+      throw new UnauthorizedException(INVALID_CREDENTIALS);
+    }
 
-    SecurityContextHolder.getContext().setAuthentication(authentication);
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new IllegalArgumentException("User not found"));
-    String jwt = jwtTokenProvider.generateToken(user.getUsername(), user.getRole());
+    String role = user.getAuthorities().iterator().next().getAuthority();
+    String jwt = jwtTokenProvider.generateToken(user.getUsername(), role);
 
     Map<String, String> response = new HashMap<>();
     response.put("token", jwt);
@@ -88,6 +109,46 @@ public class AuthService {
     return convertToDTO(savedUser);
   }
 
+  /**
+   * Revokes the token of the current request, so it is refused from now on.
+   */
+  public void logout(String token) {
+    if (!jwtTokenProvider.revokeToken(token)) {
+      throw new IllegalArgumentException("A valid bearer token is required");
+    }
+  }
+
+  /**
+   * Revokes a token on behalf of an administrator.
+   */
+  public void revokeToken(String token) {
+    if (!jwtTokenProvider.revokeToken(token)) {
+      throw new IllegalArgumentException("The token is not valid or has already expired");
+    }
+  }
+
+  /**
+   * Revokes every token issued to a user so far; the user has to log in again.
+   */
+  public void revokeUser(String username) {
+    if (!userRepository.existsByUsername(username)) {
+      throw new ResourceNotFoundException("User not found with username: " + username);
+    }
+    jwtTokenProvider.revokeUser(username);
+  }
+
+  /**
+   * Returns a hash to check the passwords of unknown users against, so that they take as long as a wrong password.
+   */
+  private String unknownUserPassword() {
+    String hash = unknownUserPassword;
+    if (hash == null) {
+      hash = passwordEncoder.encode("unknown-user-password");
+      unknownUserPassword = hash;
+    }
+    return hash;
+  }
+
   private UserDTO convertToDTO(User user) {
     UserDTO dto = new UserDTO();
     dto.setId(user.getId());
@@ -1,14 +1,32 @@
 package com.example.librarymanagementsystem.services;
 
 import com.example.librarymanagementsystem.dto.AuthorDTO;
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.config.SuggestIndexConfig;
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import com.example.librarymanagementsystem.event.AuthorChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.index.NameSuggestIndex;
 import com.example.librarymanagementsystem.model.Author;
 import com.example.librarymanagementsystem.repository.AuthorRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Service class for managing authors in the library management system.
@@ -20,17 +38,28 @@ import java.util.stream.Collectors;
  * <p>
  * Features:
  * - Retrieve all authors from the repository.
+ * - Page through authors with opaque keyset cursors.
+ * - Stream every author as newline-delimited JSON for bulk export.
+ * - Suggest author names for a typed prefix, tolerating one typo, from memory.
  * - Fetch a specific author by their ID.
  * - Create a new author entry, ensuring no duplicates by name.
  * - Update an existing author's details after validating the ID and name conflicts.
- * - Delete an author only if no associated books exist within the system.
+ * - Delete an author only if no associated books exist, as recorded by its maintained book count.
  * <p>
- * This class uses the {@code AuthorRepository} for database interactions and transactions.
+ * This class uses the {@code AuthorRepository} for database interactions and transactions,
+ * the {@code NdjsonExporter} to stream the authors table during exports, and the
+ * {@code authorSuggestIndex} for typeahead lookups. Every committed change is announced with an
+ * {@code AuthorChangedEvent} so the in-memory index stays current.
+ * <p>
+ * Single authors, the full list and listing pages are cached in memory (see {@code CacheConfig});
+ * every change evicts the affected entries once its transaction commits.
  * <p>
  * Exceptions:
  * - Throws {@code ResourceNotFoundException} when an author with the specified ID is not found.
  * - Throws {@code IllegalArgumentException} for invalid or duplicate data.
  * - Throws {@code IllegalStateException} when attempting to delete an author with associated books.
+ * - Throws {@code PreconditionFailedException} when an update or deletion names an expected version
+ *   that is no longer current.
  * <p>
  * Annotated with:
  * - {@code @Service} to denote it as a service layer component for dependency injection.
@@ -41,23 +70,59 @@ import java.util.stream.Collectors;
 public class AuthorService {
 
   private final AuthorRepository authorRepository;
+  private final NdjsonExporter ndjsonExporter;
+  private final NameSuggestIndex authorSuggestIndex;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public AuthorService(AuthorRepository authorRepository) {
+  public AuthorService(AuthorRepository authorRepository, NdjsonExporter ndjsonExporter,
+                       @Qualifier(SuggestIndexConfig.AUTHORS) NameSuggestIndex authorSuggestIndex,
+                       ApplicationEventPublisher eventPublisher) {
     this.authorRepository = authorRepository;
+    this.ndjsonExporter = ndjsonExporter;
+    this.authorSuggestIndex = authorSuggestIndex;
+    this.eventPublisher = eventPublisher;
   }
 
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.AUTHOR_LISTS, key = "'all'")
   public List<AuthorDTO> getAllAuthors() {
-    return authorRepository.findAll().stream()
-        .map(this::convertToDTO)
-        .collect(Collectors.toList());
+    return authorRepository.findAllDTOs();
+  }
+
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.AUTHOR_LISTS, key = "{#limit, #after, #before}")
+  public CursorPage<AuthorDTO> getAuthors(Integer limit, String after, String before) {
+    return CursorPagination.page(limit, after, before,
+        authorRepository::findPageAfter, authorRepository::findPageBefore,
+        AuthorDTO::getId, Function.identity());
   }
 
+  @Transactional(readOnly = true)
+  public long exportAuthors(OutputStream out) throws IOException {
+    return ndjsonExporter.export(
+        "SELECT id, name, biography, birth_date, book_count, version FROM authors ORDER BY id",
+        AuthorService::mapRow, out);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<SuggestionDTO> suggestAuthors(String prefix, Integer limit) {
+    int resolvedLimit = NameSuggestIndex.resolveLimit(limit);
+    if (prefix == null || prefix.isBlank()) {
+      return List.of();
+    }
+    return authorSuggestIndex.suggest(prefix, resolvedLimit);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
   public AuthorDTO getAuthorById(Long id) {
-    Author author = authorRepository.findById(id)
+    return authorRepository.findDTOById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + id));
-    return convertToDTO(author);
   }
 
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.AUTHOR_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
   public AuthorDTO createAuthor(AuthorDTO authorDTO) {
     if (authorRepository.existsByName(authorDTO.getName())) {
       throw new IllegalArgumentException("Author with name '" + authorDTO.getName() + "' already exists");
@@ -65,12 +130,20 @@ public class AuthorService {
 
     Author author = convertToEntity(authorDTO);
     Author savedAuthor = authorRepository.save(author);
-    return convertToDTO(savedAuthor);
+    AuthorDTO savedDTO = convertToDTO(savedAuthor);
+    eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.CREATED, savedDTO));
+    return savedDTO;
   }
 
-  public AuthorDTO updateAuthor(Long id, AuthorDTO authorDTO) {
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.AUTHORS, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.AUTHOR_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
+  public AuthorDTO updateAuthor(Long id, AuthorDTO authorDTO, Long expectedVersion) {
     Author existingAuthor = authorRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + id));
+    VersionCheck.require(expectedVersion, existingAuthor.getVersion(), "Author", id);
 
     // Check if name is being changed and if the new name already exists
     if (!existingAuthor.getName().equals(authorDTO.getName()) &&
@@ -82,20 +155,30 @@ public class AuthorService {
     existingAuthor.setBiography(authorDTO.getBiography());
     existingAuthor.setBirthDate(authorDTO.getBirthDate());
 
-    Author updatedAuthor = authorRepository.save(existingAuthor);
-    return convertToDTO(updatedAuthor);
+    // Flushed so that the returned DTO carries the version just written
+    Author updatedAuthor = authorRepository.saveAndFlush(existingAuthor);
+    AuthorDTO updatedDTO = convertToDTO(updatedAuthor);
+    eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.UPDATED, updatedDTO));
+    return updatedDTO;
   }
 
-  public void deleteAuthor(Long id) {
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.AUTHORS, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.AUTHOR_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
+  public void deleteAuthor(Long id, Long expectedVersion) {
     Author author = authorRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + id));
+    VersionCheck.require(expectedVersion, author.getVersion(), "Author", id);
 
-    // Check if author has associated books
-    if (author.getBooks() != null && !author.getBooks().isEmpty()) {
+    // Check if author has associated books, from the maintained count rather than the collection
+    if (author.getBookCount() > 0) {
       throw new IllegalStateException("Cannot delete author with associated books");
     }
 
     authorRepository.deleteById(id);
+    eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.DELETED, convertToDTO(author)));
   }
 
   private AuthorDTO convertToDTO(Author author) {
@@ -104,6 +187,19 @@ public class AuthorService {
     dto.setName(author.getName());
     dto.setBiography(author.getBiography());
     dto.setBirthDate(author.getBirthDate());
+    dto.setBookCount(author.getBookCount());
+    dto.setVersion(author.getVersion());
+    return dto;
+  }
+
+  private static AuthorDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+    AuthorDTO dto = new AuthorDTO();
+    dto.setId(rs.getLong("id"));
+    dto.setName(rs.getString("name"));
+    dto.setBiography(rs.getString("biography"));
+    dto.setBirthDate(rs.getObject("birth_date", LocalDate.class));
+    dto.setBookCount(rs.getLong("book_count"));
+    dto.setVersion(rs.getLong("version"));
     return dto;
   }
 
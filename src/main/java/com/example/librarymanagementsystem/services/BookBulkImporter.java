@@ -0,0 +1,231 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.BulkReportDTO;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.index.IsbnFilter;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates books from a JSON array read incrementally from an input stream.
+ * <p>
+ * The array is parsed one element at a time and processed in chunks, so memory use is bounded by
+ * the chunk size rather than the request size. Each chunk is handled in its own transaction:
+ * - ISBN uniqueness and author and genre existence are checked with one {@code IN} query each for
+ *   the whole chunk instead of one lookup per book. ISBNs that the {@link IsbnFilter} rules out are
+ *   left out of the query.
+ * - Authors and genres are attached as references, without loading them.
+ * - Books are persisted and flushed together; with sequence-generated IDs and
+ *   {@code hibernate.jdbc.batch_size} set, Hibernate sends the inserts as JDBC batches.
+ * - Book counts are raised with one statement per distinct author and genre of the chunk, see
+ *   {@link BookCounters}.
+ * <p>
+ * Every element gets an entry in the returned report. Invalid elements are rejected individually
+ * and do not affect the rest of their chunk. Chunks that were committed stay committed if a later
+ * chunk fails, so a client retrying a failed request should resubmit only the rejected items.
+ * <p>
+ * Configuration:
+ * - {@code library.bulk.chunk-size}: Books validated and inserted per transaction, defaults to 500.
+ */
+@Component
+public class BookBulkImporter {
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManager entityManager;
+  private final BookRepository bookRepository;
+  private final AuthorRepository authorRepository;
+  private final GenreRepository genreRepository;
+  private final IsbnFilter isbnFilter;
+  private final BookCounters bookCounters;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int chunkSize;
+
+  public BookBulkImporter(ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager,
+                          EntityManager entityManager, BookRepository bookRepository, AuthorRepository authorRepository,
+                          GenreRepository genreRepository, IsbnFilter isbnFilter, BookCounters bookCounters,
+                          ApplicationEventPublisher eventPublisher, @Value("${library.bulk.chunk-size:500}") int chunkSize) {
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.entityManager = entityManager;
+    this.bookRepository = bookRepository;
+    this.authorRepository = authorRepository;
+    this.genreRepository = genreRepository;
+    this.isbnFilter = isbnFilter;
+    this.bookCounters = bookCounters;
+    this.eventPublisher = eventPublisher;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Reads a JSON array of books from the stream and creates every valid one.
+   *
+   * @return one result per array element, in array order
+   * @throws IllegalArgumentException if the body is not a well-formed JSON array
+   */
+  public BulkReportDTO importBooks(InputStream in) throws IOException {
+    List<BulkItemResultDTO> results = new ArrayList<>();
+    Set<String> acceptedIsbns = new HashSet<>();
+    List<Item> chunk = new ArrayList<>(chunkSize);
+    int index = 0;
+
+    try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IllegalArgumentException("Request body must be a JSON array of books");
+      }
+      for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+        if (token == null) {
+          throw new IllegalArgumentException("Unexpected end of input after item " + (index - 1));
+        }
+        chunk.add(read(index++, parser.readValueAsTree()));
+        if (chunk.size() == chunkSize) {
+          results.addAll(importChunk(chunk, acceptedIsbns));
+          chunk.clear();
+        }
+      }
+    } catch (JsonParseException ex) {
+      throw new IllegalArgumentException("Malformed JSON near item " + index + " (" + ex.getOriginalMessage()
+          + "); " + countCreated(results) + " books from earlier items were already created");
+    }
+
+    if (!chunk.isEmpty()) {
+      results.addAll(importChunk(chunk, acceptedIsbns));
+    }
+    return new BulkReportDTO(results);
+  }
+
+  private Item read(int index, JsonNode node) {
+    BookDTO book;
+    try {
+      book = objectMapper.treeToValue(node, BookDTO.class);
+    } catch (JsonProcessingException ex) {
+      return new Item(index, null, List.of("Invalid book: " + ex.getOriginalMessage()));
+    }
+    List<String> errors = validator.validate(book).stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .toList();
+    return new Item(index, book, errors);
+  }
+
+  private List<BulkItemResultDTO> importChunk(List<Item> chunk, Set<String> acceptedIsbns) {
+    List<Item> candidates = chunk.stream().filter(item -> item.errors().isEmpty()).toList();
+    Set<String> chunkIsbns = new HashSet<>();
+    try {
+      List<BulkItemResultDTO> results = transactionTemplate.execute(
+          status -> insertChunk(chunk, candidates, acceptedIsbns, chunkIsbns));
+      acceptedIsbns.addAll(chunkIsbns);
+      return results;
+    } catch (DataIntegrityViolationException ex) {
+      // Another request inserted a conflicting ISBN between our check and the insert; the chunk was rolled back.
+      return chunk.stream()
+          .map(item -> BulkItemResultDTO.rejected(item.index(), item.errors().isEmpty()
+              ? List.of("Conflicting concurrent change, retry this item") : item.errors()))
+          .toList();
+    }
+  }
+
+  private List<BulkItemResultDTO> insertChunk(List<Item> chunk, List<Item> candidates, Set<String> acceptedIsbns,
+                                              Set<String> chunkIsbns) {
+    Set<String> takenIsbns = isbnFilter.existing(
+        candidates.stream().map(item -> item.book().getIsbn()).toList(), bookRepository::findExistingIsbns);
+    Set<Long> authorIds = new HashSet<>(existing(
+        candidates.stream().map(item -> item.book().getAuthorId()), authorRepository::findExistingIds));
+    Set<Long> genreIds = new HashSet<>(existing(
+        candidates.stream().map(item -> item.book().getGenreId()), genreRepository::findExistingIds));
+
+    List<BulkItemResultDTO> results = new ArrayList<>(chunk.size());
+    List<Book> created = new ArrayList<>();
+    for (Item item : chunk) {
+      if (!item.errors().isEmpty()) {
+        results.add(BulkItemResultDTO.rejected(item.index(), item.errors()));
+        continue;
+      }
+      BookDTO dto = item.book();
+      List<String> errors = new ArrayList<>();
+      if (!authorIds.contains(dto.getAuthorId())) {
+        errors.add("Author not found with id: " + dto.getAuthorId());
+      }
+      if (!genreIds.contains(dto.getGenreId())) {
+        errors.add("Genre not found with id: " + dto.getGenreId());
+      }
+      if (dto.getIsbn() != null && (takenIsbns.contains(dto.getIsbn()) || acceptedIsbns.contains(dto.getIsbn())
+          || (errors.isEmpty() && !chunkIsbns.add(dto.getIsbn())))) {
+        errors.add("Book with ISBN '" + dto.getIsbn() + "' already exists");
+      }
+      if (!errors.isEmpty()) {
+        results.add(BulkItemResultDTO.rejected(item.index(), errors));
+        continue;
+      }
+
+      Book book = new Book();
+      book.setTitle(dto.getTitle());
+      book.setIsbn(dto.getIsbn());
+      book.setPublicationDate(dto.getPublicationDate());
+      book.setDescription(dto.getDescription());
+      book.setAuthor(authorRepository.getReferenceById(dto.getAuthorId()));
+      book.setGenre(genreRepository.getReferenceById(dto.getGenreId()));
+      entityManager.persist(book);
+      created.add(book);
+      results.add(BulkItemResultDTO.created(item.index(), book.getId()));
+    }
+
+    // Flushed through the repository so that constraint violations arrive translated.
+    bookRepository.flush();
+    bookCounters.adjust(
+        created.stream().collect(Collectors.groupingBy(book -> book.getAuthor().getId(), Collectors.counting())),
+        created.stream().collect(Collectors.groupingBy(book -> book.getGenre().getId(), Collectors.counting())));
+    entityManager.clear();
+    for (Book book : created) {
+      eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, new BookDTO(book.getId(), book.getTitle(),
+          book.getIsbn(), book.getPublicationDate(), book.getDescription(), book.getAuthor().getId(),
+          book.getGenre().getId(), book.getVersion())));
+    }
+    return results;
+  }
+
+  private static <T> List<T> existing(Stream<T> keys, Function<Collection<T>, List<T>> query) {
+    Set<T> distinct = keys.filter(Objects::nonNull).collect(Collectors.toSet());
+    return distinct.isEmpty() ? List.of() : query.apply(distinct);
+  }
+
+  private static long countCreated(List<BulkItemResultDTO> results) {
+    return results.stream().filter(result -> result.getStatus() == BulkItemResultDTO.Status.CREATED).count();
+  }
+
+  private record Item(int index, BookDTO book, List<String> errors) {
+  }
+}
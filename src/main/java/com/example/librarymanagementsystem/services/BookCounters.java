@@ -0,0 +1,148 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps the {@code book_count} columns of authors and genres in step with the books table.
+ * <p>
+ * Every book write calls in here from its own transaction, and the counts are changed with a single
+ * {@code UPDATE ... SET book_count = book_count + :delta} per affected row. The adjustment commits or
+ * rolls back together with the book, so the counts are exact rather than eventually consistent, and
+ * concurrent writers serialize on the row lock instead of overwriting each other's increments.
+ * Rows are always updated in ID order, authors before genres, so two writers cannot deadlock.
+ * <p>
+ * The update also bumps the row's version, because the count is part of the author or genre
+ * representation and its ETag must change with it. The cached DTO, the cached listings and the
+ * statistics are evicted once the transaction commits.
+ * <p>
+ * The column is added and filled for existing databases by {@code SchemaUpgradeConfig}. Counts off for
+ * any other reason, such as books written by anything that bypasses the services, are repaired by
+ * {@link #reconcile()} once the application is ready.
+ * <p>
+ * Configuration:
+ * - {@code library.book-counts.reconcile-on-startup}: Recounts every author and genre at startup,
+ *   defaults to true. Only rows whose count is off are written.
+ */
+@Component
+public class BookCounters {
+
+  private static final Logger log = LoggerFactory.getLogger(BookCounters.class);
+
+  private final AuthorRepository authorRepository;
+  private final GenreRepository genreRepository;
+  private final CacheManager cacheManager;
+  private final boolean reconcileOnStartup;
+
+  public BookCounters(AuthorRepository authorRepository, GenreRepository genreRepository, CacheManager cacheManager,
+                      @Value("${library.book-counts.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+    this.authorRepository = authorRepository;
+    this.genreRepository = genreRepository;
+    this.cacheManager = cacheManager;
+    this.reconcileOnStartup = reconcileOnStartup;
+  }
+
+  /**
+   * Records that a book of the author and genre was created ({@code delta} 1) or deleted ({@code delta} -1).
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void adjust(Long authorId, Long genreId, long delta) {
+    adjust(Map.of(authorId, delta), Map.of(genreId, delta));
+  }
+
+  /**
+   * Records that a book moved from one author or genre to another. Unchanged references cost nothing.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void move(Long previousAuthorId, Long previousGenreId, Long authorId, Long genreId) {
+    Map<Long, Long> authors = new TreeMap<>();
+    Map<Long, Long> genres = new TreeMap<>();
+    if (!Objects.equals(previousAuthorId, authorId)) {
+      authors.put(previousAuthorId, -1L);
+      authors.put(authorId, 1L);
+    }
+    if (!Objects.equals(previousGenreId, genreId)) {
+      genres.put(previousGenreId, -1L);
+      genres.put(genreId, 1L);
+    }
+    adjust(authors, genres);
+  }
+
+  /**
+   * Applies net count changes by author and genre ID, one statement per ID with a non-zero change.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void adjust(Map<Long, Long> authorDeltas, Map<Long, Long> genreDeltas) {
+    boolean changed = false;
+    for (Map.Entry<Long, Long> delta : new TreeMap<>(authorDeltas).entrySet()) {
+      if (delta.getValue() != 0) {
+        authorRepository.adjustBookCount(delta.getKey(), delta.getValue());
+        cache(CacheConfig.AUTHORS).evict(delta.getKey());
+        changed = true;
+      }
+    }
+    for (Map.Entry<Long, Long> delta : new TreeMap<>(genreDeltas).entrySet()) {
+      if (delta.getValue() != 0) {
+        genreRepository.adjustBookCount(delta.getKey(), delta.getValue());
+        cache(CacheConfig.GENRES).evict(delta.getKey());
+        changed = true;
+      }
+    }
+    if (changed) {
+      clearListings();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void reconcileOnStartup() {
+    if (reconcileOnStartup) {
+      reconcile();
+    }
+  }
+
+  /**
+   * Recounts the books of every author and genre and corrects the counts that are off.
+   *
+   * @return the number of authors and genres whose count was corrected
+   */
+  @Transactional
+  public int reconcile() {
+    long started = System.nanoTime();
+    int authors = authorRepository.reconcileBookCounts();
+    int genres = genreRepository.reconcileBookCounts();
+    if (authors + genres > 0) {
+      cache(CacheConfig.AUTHORS).clear();
+      cache(CacheConfig.GENRES).clear();
+      clearListings();
+    }
+    log.info("Reconciled book counts of {} authors and {} genres in {} ms",
+        authors, genres, (System.nanoTime() - started) / 1_000_000);
+    return authors + genres;
+  }
+
+  private void clearListings() {
+    cache(CacheConfig.AUTHOR_LISTS).clear();
+    cache(CacheConfig.GENRE_LISTS).clear();
+    cache(CacheConfig.STATS).clear();
+  }
+
+  private Cache cache(String name) {
+    return Objects.requireNonNull(cacheManager.getCache(name), name);
+  }
+}
@@ -1,17 +1,38 @@
 package com.example.librarymanagementsystem.services;
 
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BulkReportDTO;
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.index.BookSearchIndex;
+import com.example.librarymanagementsystem.index.InvertedIndex;
+import com.example.librarymanagementsystem.index.IsbnFilter;
 import com.example.librarymanagementsystem.model.Author;
 import com.example.librarymanagementsystem.model.Book;
 import com.example.librarymanagementsystem.model.Genre;
 import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.BookFilter;
 import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.BookSort;
 import com.example.librarymanagementsystem.repository.GenreRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -22,22 +43,45 @@ import java.util.stream.Collectors;
  * <p>
  * Responsibilities:
  * - Fetching all books from the database.
+ * - Paging through books with opaque keyset cursors, optionally filtered by author, genre and
+ *   publication-date range and sorted by title or publication date.
+ * - Streaming every book as newline-delimited JSON for bulk export.
+ * - Ranked full-text search over titles and descriptions, answered from the in-memory index.
  * - Retrieving a single book by its unique identifier (ID).
  * - Adding a new book to the database after validating its details.
+ * - Creating many books at once from a streamed JSON array, with a per-item report.
  * - Updating an existing book's information, ensuring unique constraints such as ISBN are maintained.
  * - Deleting a book based on its unique identifier (ID).
  * <p>
  * Dependencies:
  * - BookRepository: To manage the data access layer for Book entities.
- * - AuthorRepository: To fetch and validate associated Author entities.
- * - GenreRepository: To fetch and validate associated Genre entities.
+ * - AuthorRepository: To validate associated authors, answered from the authors cache.
+ * - GenreRepository: To validate associated genres, answered from the genres cache.
+ * - NdjsonExporter: To stream the books table over a JDBC cursor during exports.
+ * - BookBulkImporter: To validate and insert bulk submissions in batched, chunked transactions.
+ * - BookSearchIndex: To answer full-text searches without querying the database.
+ * - IsbnFilter: To skip the ISBN uniqueness query when the ISBN is definitely new.
+ * - BookCounters: To keep the book counts of authors and genres exact within each write's transaction.
+ * - ApplicationEventPublisher: To announce every committed book change to in-memory indexes.
  * <p>
  * Methods:
  * - getAllBooks: Fetches all books from the database and converts them into DTOs.
+ * - getBooks: Fetches one keyset page of books matching a BookFilter in the requested sort order, with
+ *   cursors to the neighbouring pages. Only the criteria that are given end up in the query.
+ * - getBooksByAuthor / getBooksByGenre: Pages through the books of one author or genre, which must exist.
+ * - exportBooks: Streams all books as NDJSON without loading them into the persistence context.
+ * - searchBooks: Returns the top-k books for a free-text query, ranked by BM25.
  * - getBookById: Retrieves the details of a book by its ID, throwing an exception if not found.
+ * - getBookVersion: Reads only the current version of a book, to answer conditional requests cheaply.
  * - createBook: Creates a new book entity using the provided DTO and persists it in the database.
+ * - createBooks: Creates every valid book of a JSON array read from a stream. Runs outside the class-level
+ *   transaction because the importer commits one transaction per chunk.
  * - updateBook: Updates the details of an existing book identified by its ID with the new data provided in the DTO.
- * - deleteBook: Deletes a book by its ID after verifying its existence.
+ *   When an expected version is given, the update is refused unless the book is still at that version.
+ * - deleteBook: Deletes a book by its ID after verifying its existence and, if given, its expected version.
+ * <p>
+ * The page, search and single-book reads take the FieldSet of the response and read only its columns,
+ * so a listing of titles never transfers the descriptions.
  * <p>
  * Utility Methods:
  * - convertToDTO: Converts a Book entity into a Data Transfer Object (DTO) for response purposes.
@@ -46,6 +90,7 @@ import java.util.stream.Collectors;
  * Exceptions:
  * - ResourceNotFoundException: Thrown when a book, author, or genre is not found in the database.
  * - IllegalArgumentException: Thrown when invalid data, such as non-unique ISBN, is provided.
+ * - PreconditionFailedException: Thrown when a conditional write names a version that is no longer current.
  * <p>
  * Annotations:
  * - @Service: Marks the class as a Spring service component.
@@ -58,60 +103,144 @@ public class BookService {
   private final BookRepository bookRepository;
   private final AuthorRepository authorRepository;
   private final GenreRepository genreRepository;
+  private final NdjsonExporter ndjsonExporter;
+  private final BookBulkImporter bookBulkImporter;
+  private final BookSearchIndex bookSearchIndex;
+  private final IsbnFilter isbnFilter;
+  private final BookCounters bookCounters;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public BookService(BookRepository bookRepository, AuthorRepository authorRepository, GenreRepository genreRepository) {
+  public BookService(BookRepository bookRepository, AuthorRepository authorRepository, GenreRepository genreRepository,
+                     NdjsonExporter ndjsonExporter, BookBulkImporter bookBulkImporter, BookSearchIndex bookSearchIndex,
+                     IsbnFilter isbnFilter, BookCounters bookCounters, ApplicationEventPublisher eventPublisher) {
     this.bookRepository = bookRepository;
     this.authorRepository = authorRepository;
     this.genreRepository = genreRepository;
+    this.ndjsonExporter = ndjsonExporter;
+    this.bookBulkImporter = bookBulkImporter;
+    this.bookSearchIndex = bookSearchIndex;
+    this.isbnFilter = isbnFilter;
+    this.bookCounters = bookCounters;
+    this.eventPublisher = eventPublisher;
   }
 
+  @Transactional(readOnly = true)
   public List<BookDTO> getAllBooks() {
-    return bookRepository.findAll().stream()
-        .map(this::convertToDTO)
+    return bookRepository.findAllDTOs();
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<BookDTO> getBooks(BookFilter filter, String sort, Integer limit, String after, String before,
+                                      FieldSet fields) {
+    if (filter.getPublishedFrom() != null && filter.getPublishedTo() != null
+        && filter.getPublishedFrom().isAfter(filter.getPublishedTo())) {
+      throw new IllegalArgumentException("publishedFrom must not be after publishedTo");
+    }
+    BookSort order = BookSort.parse(sort);
+    String sortKey = order.toString();
+    return CursorPagination.pageByKey(limit, after, before,
+        cursor -> CursorPagination.decodeKey(cursor, sortKey),
+        (from, backward, size) -> bookRepository.findPage(filter, order,
+            from == null ? null : from.id(), from == null ? null : from.value(), backward, size, fields),
+        book -> CursorPagination.encodeKey(sortKey, book.getId(), order.format(book)),
+        Function.identity());
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<BookDTO> getBooksByAuthor(Long authorId, String sort, Integer limit, String after, String before,
+                                              FieldSet fields) {
+    if (authorRepository.findDTOById(authorId).isEmpty()) {
+      throw new ResourceNotFoundException("Author not found with id: " + authorId);
+    }
+    return getBooks(new BookFilter(authorId, null, null, null), sort, limit, after, before, fields);
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<BookDTO> getBooksByGenre(Long genreId, String sort, Integer limit, String after, String before,
+                                             FieldSet fields) {
+    if (genreRepository.findDTOById(genreId).isEmpty()) {
+      throw new ResourceNotFoundException("Genre not found with id: " + genreId);
+    }
+    return getBooks(new BookFilter(null, genreId, null, null), sort, limit, after, before, fields);
+  }
+
+  @Transactional(readOnly = true)
+  public long exportBooks(OutputStream out) throws IOException {
+    return ndjsonExporter.export(
+        "SELECT id, title, isbn, publication_date, description, author_id, genre_id, version FROM books ORDER BY id",
+        BookService::mapRow, out);
+  }
+
+  @Transactional(readOnly = true)
+  public List<BookDTO> searchBooks(String query, Integer limit, FieldSet fields) {
+    if (query == null || query.isBlank()) {
+      throw new IllegalArgumentException("Search query is required");
+    }
+
+    List<InvertedIndex.Hit> hits = bookSearchIndex.search(query, CursorPagination.resolveLimit(limit));
+    if (hits.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, BookDTO> books = bookRepository.findDTOsByIdIn(hits.stream().map(InvertedIndex.Hit::id).toList(), fields).stream()
+        .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+    return hits.stream()
+        .map(hit -> books.get(hit.id()))
+        .filter(Objects::nonNull)
         .collect(Collectors.toList());
   }
 
-  public BookDTO getBookById(Long id) {
-    Book book = bookRepository.findById(id)
+  @Transactional(readOnly = true)
+  public BookDTO getBookById(Long id, FieldSet fields) {
+    return bookRepository.findDTOById(id, fields)
+        .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public long getBookVersion(Long id) {
+    return bookRepository.findVersionById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-    return convertToDTO(book);
   }
 
   public BookDTO createBook(BookDTO bookDTO) {
-    if (bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+    if (isbnFilter.exists(bookDTO.getIsbn(), bookRepository::existsByIsbn)) {
       throw new IllegalArgumentException("Book with ISBN '" + bookDTO.getIsbn() + "' already exists");
     }
 
-    Author author = authorRepository.findById(bookDTO.getAuthorId())
-        .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + bookDTO.getAuthorId()));
-
-    Genre genre = genreRepository.findById(bookDTO.getGenreId())
-        .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + bookDTO.getGenreId()));
+    Author author = authorReference(bookDTO.getAuthorId());
+    Genre genre = genreReference(bookDTO.getGenreId());
 
     Book book = convertToEntity(bookDTO);
     book.setAuthor(author);
     book.setGenre(genre);
 
     Book savedBook = bookRepository.save(book);
-    return convertToDTO(savedBook);
+    bookCounters.adjust(bookDTO.getAuthorId(), bookDTO.getGenreId(), 1);
+    BookDTO savedDTO = convertToDTO(savedBook);
+    eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, savedDTO));
+    return savedDTO;
   }
 
-  public BookDTO updateBook(Long id, BookDTO bookDTO) {
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkReportDTO createBooks(InputStream books) throws IOException {
+    return bookBulkImporter.importBooks(books);
+  }
+
+  public BookDTO updateBook(Long id, BookDTO bookDTO, Long expectedVersion) {
     Book existingBook = bookRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+    VersionCheck.require(expectedVersion, existingBook.getVersion(), "Book", id);
 
     // Check if ISBN is being changed and if the new ISBN already exists
-    if (!existingBook.getIsbn().equals(bookDTO.getIsbn()) &&
-        bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+    if (!Objects.equals(existingBook.getIsbn(), bookDTO.getIsbn()) &&
+        isbnFilter.exists(bookDTO.getIsbn(), bookRepository::existsByIsbn)) {
       throw new IllegalArgumentException("Book with ISBN '" + bookDTO.getIsbn() + "' already exists");
     }
 
-    Author author = authorRepository.findById(bookDTO.getAuthorId())
-        .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + bookDTO.getAuthorId()));
-
-    Genre genre = genreRepository.findById(bookDTO.getGenreId())
-        .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + bookDTO.getGenreId()));
+    Author author = authorReference(bookDTO.getAuthorId());
+    Genre genre = genreReference(bookDTO.getGenreId());
 
+    BookDTO previousDTO = convertToDTO(existingBook);
     existingBook.setTitle(bookDTO.getTitle());
     existingBook.setIsbn(bookDTO.getIsbn());
     existingBook.setPublicationDate(bookDTO.getPublicationDate());
@@ -119,15 +248,41 @@ public class BookService {
     existingBook.setAuthor(author);
     existingBook.setGenre(genre);
 
-    Book updatedBook = bookRepository.save(existingBook);
-    return convertToDTO(updatedBook);
+    // Flushed so that the returned DTO carries the version just written
+    Book updatedBook = bookRepository.saveAndFlush(existingBook);
+    bookCounters.move(previousDTO.getAuthorId(), previousDTO.getGenreId(), bookDTO.getAuthorId(), bookDTO.getGenreId());
+    BookDTO updatedDTO = convertToDTO(updatedBook);
+    eventPublisher.publishEvent(new BookChangedEvent(ChangeType.UPDATED, updatedDTO, previousDTO));
+    return updatedDTO;
   }
 
-  public void deleteBook(Long id) {
+  public void deleteBook(Long id, Long expectedVersion) {
     Book book = bookRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+    VersionCheck.require(expectedVersion, book.getVersion(), "Book", id);
 
+    BookDTO deletedDTO = convertToDTO(book);
     bookRepository.deleteById(id);
+    bookCounters.adjust(deletedDTO.getAuthorId(), deletedDTO.getGenreId(), -1);
+    eventPublisher.publishEvent(new BookChangedEvent(ChangeType.DELETED, deletedDTO));
+  }
+
+  /**
+   * Returns an uninitialized reference to the author after checking that it exists. The check is
+   * answered from the authors cache, so attaching an author to a book costs no query.
+   */
+  private Author authorReference(Long authorId) {
+    if (authorRepository.findDTOById(authorId).isEmpty()) {
+      throw new ResourceNotFoundException("Author not found with id: " + authorId);
+    }
+    return authorRepository.getReferenceById(authorId);
+  }
+
+  private Genre genreReference(Long genreId) {
+    if (genreRepository.findDTOById(genreId).isEmpty()) {
+      throw new ResourceNotFoundException("Genre not found with id: " + genreId);
+    }
+    return genreRepository.getReferenceById(genreId);
   }
 
   private BookDTO convertToDTO(Book book) {
@@ -139,6 +294,20 @@ public class BookService {
     dto.setDescription(book.getDescription());
     dto.setAuthorId(book.getAuthor() != null ? book.getAuthor().getId() : null);
     dto.setGenreId(book.getGenre() != null ? book.getGenre().getId() : null);
+    dto.setVersion(book.getVersion());
+    return dto;
+  }
+
+  private static BookDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+    BookDTO dto = new BookDTO();
+    dto.setId(rs.getLong("id"));
+    dto.setTitle(rs.getString("title"));
+    dto.setIsbn(rs.getString("isbn"));
+    dto.setPublicationDate(rs.getObject("publication_date", LocalDate.class));
+    dto.setDescription(rs.getString("description"));
+    dto.setAuthorId(rs.getLong("author_id"));
+    dto.setGenreId(rs.getLong("genre_id"));
+    dto.setVersion(rs.getLong("version"));
     return dto;
   }
 
@@ -0,0 +1,178 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Helper for keyset (cursor) pagination over entities ordered by their identifier.
+ * <p>
+ * Pages are read with {@code WHERE id > :after ORDER BY id} (or the reverse for {@code before}),
+ * always fetching one extra row to learn whether a further page exists. No OFFSET is ever issued,
+ * so reading page 10,000 costs the same index seek as reading page 1.
+ * <p>
+ * Cursors are opaque to clients: the last seen identifier encoded as URL-safe Base64.
+ * Listings sorted by another column use composite cursors carrying the sort, the identifier
+ * and the sort value of the last seen row, see {@link #encodeKey} and {@link #pageByKey}.
+ * Malformed cursors or limits are rejected with {@link IllegalArgumentException}.
+ */
+public final class CursorPagination {
+
+  public static final int DEFAULT_LIMIT = 20;
+  public static final int MAX_LIMIT = 100;
+
+  private static final String CURSOR_PREFIX = "id:";
+  private static final String KEY_PREFIX = "key:";
+
+  /**
+   * Position decoded from a composite cursor: the identifier and the sort value of the last seen
+   * row. The value is {@code null} when the row had none.
+   */
+  public record Key(long id, String value) {
+  }
+
+  /**
+   * Reads rows of a listing from a position, in either direction.
+   *
+   * @param <K> the decoded cursor type
+   * @param <E> the row type
+   */
+  @FunctionalInterface
+  public interface Seek<K, E> {
+    /**
+     * @param from     position to continue after, or {@code null} to start at the beginning
+     * @param backward whether to read towards the beginning; rows are then returned in reverse order
+     * @param limit    maximum number of rows to return
+     */
+    List<E> read(K from, boolean backward, int limit);
+  }
+
+  private CursorPagination() {
+  }
+
+  public static int resolveLimit(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+    return limit;
+  }
+
+  public static String encode(Long id) {
+    byte[] raw = (CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  public static long decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(CURSOR_PREFIX)) {
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+      }
+      return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+
+  public static String encodeKey(String sort, long id, String value) {
+    String raw = KEY_PREFIX + sort + ":" + id + (value == null ? "" : ":" + value);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a composite cursor, checking that it was issued for the same sort.
+   */
+  public static Key decodeKey(String cursor, String sort) {
+    String[] parts;
+    try {
+      parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    if (parts.length < 3 || !KEY_PREFIX.equals(parts[0] + ":")) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    if (!parts[1].equals(sort)) {
+      throw new IllegalArgumentException("Cursor was issued for sort '" + parts[1] + "', not '" + sort + "'");
+    }
+    try {
+      return new Key(Long.parseLong(parts[2]), parts.length == 4 ? parts[3] : null);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+
+  /**
+   * Reads one page in either direction and assembles the cursors around it.
+   *
+   * @param limit       requested page size, {@code null} for the default
+   * @param after       cursor of the last item of the previous page, or {@code null}
+   * @param before      cursor of the first item of the next page, or {@code null}
+   * @param afterQuery  ascending query returning rows with an id greater than the given one
+   * @param beforeQuery descending query returning rows with an id smaller than the given one
+   * @param idOf        extracts the identifier of a row
+   * @param mapper      converts a row into the item placed on the page
+   */
+  public static <E, D> CursorPage<D> page(Integer limit, String after, String before,
+                                          BiFunction<Long, Pageable, List<E>> afterQuery,
+                                          BiFunction<Long, Pageable, List<E>> beforeQuery,
+                                          Function<E, Long> idOf, Function<E, D> mapper) {
+    return pageByKey(limit, after, before, CursorPagination::decode,
+        (from, backward, size) -> backward
+            ? beforeQuery.apply(from, PageRequest.of(0, size))
+            : afterQuery.apply(from == null ? 0L : from, PageRequest.of(0, size)),
+        row -> encode(idOf.apply(row)), mapper);
+  }
+
+  /**
+   * Reads one page in either direction of a listing with an arbitrary cursor format.
+   *
+   * @param limit    requested page size, {@code null} for the default
+   * @param after    cursor of the last item of the previous page, or {@code null}
+   * @param before   cursor of the first item of the next page, or {@code null}
+   * @param decoder  turns a cursor into a position, rejecting malformed ones
+   * @param seek     reads rows from a position
+   * @param cursorOf builds the cursor pointing at a row
+   * @param mapper   converts a row into the item placed on the page
+   */
+  public static <E, K, D> CursorPage<D> pageByKey(Integer limit, String after, String before,
+                                                  Function<String, K> decoder, Seek<K, E> seek,
+                                                  Function<E, String> cursorOf, Function<E, D> mapper) {
+    if (after != null && before != null) {
+      throw new IllegalArgumentException("Only one of 'after' and 'before' may be given");
+    }
+    int pageSize = resolveLimit(limit);
+
+    if (before != null) {
+      List<E> rows = new ArrayList<>(seek.read(decoder.apply(before), true, pageSize + 1));
+      boolean hasPrevious = rows.size() > pageSize;
+      if (hasPrevious) {
+        rows.remove(pageSize);
+      }
+      Collections.reverse(rows);
+      String next = rows.isEmpty() ? null : cursorOf.apply(rows.get(rows.size() - 1));
+      String prev = hasPrevious ? cursorOf.apply(rows.get(0)) : null;
+      return new CursorPage<>(rows.stream().map(mapper).toList(), pageSize, next, prev);
+    }
+
+    List<E> rows = seek.read(after == null ? null : decoder.apply(after), false, pageSize + 1);
+    boolean hasNext = rows.size() > pageSize;
+    if (hasNext) {
+      rows = rows.subList(0, pageSize);
+    }
+    String next = hasNext ? cursorOf.apply(rows.get(rows.size() - 1)) : null;
+    String prev = after != null && !rows.isEmpty() ? cursorOf.apply(rows.get(0)) : null;
+    return new CursorPage<>(rows.stream().map(mapper).toList(), pageSize, next, prev);
+  }
+}
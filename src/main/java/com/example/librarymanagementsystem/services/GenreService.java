@@ -1,14 +1,31 @@
 package com.example.librarymanagementsystem.services;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.config.SuggestIndexConfig;
+import com.example.librarymanagementsystem.dto.CursorPage;
 import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import com.example.librarymanagementsystem.event.GenreChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.index.NameSuggestIndex;
 import com.example.librarymanagementsystem.model.Genre;
 import com.example.librarymanagementsystem.repository.GenreRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Service class for managing genres in the library management system.
@@ -19,10 +36,15 @@ import java.util.stream.Collectors;
  * <p>
  * Key Methods:
  * - getAllGenres: Retrieves a list of all genres in the system.
+ * - getGenres: Retrieves one keyset page of genres ordered by ID, with cursors to the neighbouring pages.
+ * - exportGenres: Streams all genres as NDJSON over a JDBC cursor.
+ * - suggestGenres: Suggests genre names for a typed prefix from the in-memory typeahead index.
  * - getGenreById: Retrieves a specific genre based on its ID.
  * - createGenre: Adds a new genre, with validation to prevent duplicates.
  * - updateGenre: Updates an existing genre, with validation on name uniqueness.
- * - deleteGenre: Deletes a genre, ensuring it has no associated entities like books.
+ * - deleteGenre: Deletes a genre, ensuring it has no associated books by reading its maintained book count.
+ * Both writes take an optional expected version and are refused with a {@code PreconditionFailedException}
+ * when the genre has been changed since the client read it.
  * <p>
  * Utility Methods:
  * - convertToDTO: Transforms a Genre entity into its corresponding DTO.
@@ -30,7 +52,10 @@ import java.util.stream.Collectors;
  * <p>
  * This service ensures data integrity and performs necessary validations
  * such as checking for duplicate names and preventing deletion of genres
- * with associated books.
+ * with associated books. Every change is announced with a {@code GenreChangedEvent},
+ * which keeps the {@code genreSuggestIndex} current once the transaction commits.
+ * Single genres, the full list and listing pages are cached in memory (see {@code CacheConfig});
+ * every change evicts the affected entries once its transaction commits.
  * <p>
  * Annotations:
  * - {@code @Service}: Marks this class as a Spring service component.
@@ -41,23 +66,59 @@ import java.util.stream.Collectors;
 @Transactional
 public class GenreService {
   private final GenreRepository genreRepository;
+  private final NdjsonExporter ndjsonExporter;
+  private final NameSuggestIndex genreSuggestIndex;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public GenreService(GenreRepository genreRepository) {
+  public GenreService(GenreRepository genreRepository, NdjsonExporter ndjsonExporter,
+                      @Qualifier(SuggestIndexConfig.GENRES) NameSuggestIndex genreSuggestIndex,
+                      ApplicationEventPublisher eventPublisher) {
     this.genreRepository = genreRepository;
+    this.ndjsonExporter = ndjsonExporter;
+    this.genreSuggestIndex = genreSuggestIndex;
+    this.eventPublisher = eventPublisher;
   }
 
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.GENRE_LISTS, key = "'all'")
   public List<GenreDTO> getAllGenres() {
-    return genreRepository.findAll().stream()
-        .map(this::convertToDTO)
-        .collect(Collectors.toList());
+    return genreRepository.findAllDTOs();
   }
 
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.GENRE_LISTS, key = "{#limit, #after, #before}")
+  public CursorPage<GenreDTO> getGenres(Integer limit, String after, String before) {
+    return CursorPagination.page(limit, after, before,
+        genreRepository::findPageAfter, genreRepository::findPageBefore,
+        GenreDTO::getId, Function.identity());
+  }
+
+  @Transactional(readOnly = true)
+  public long exportGenres(OutputStream out) throws IOException {
+    return ndjsonExporter.export(
+        "SELECT id, name, description, book_count, version FROM genres ORDER BY id",
+        GenreService::mapRow, out);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<SuggestionDTO> suggestGenres(String prefix, Integer limit) {
+    int resolvedLimit = NameSuggestIndex.resolveLimit(limit);
+    if (prefix == null || prefix.isBlank()) {
+      return List.of();
+    }
+    return genreSuggestIndex.suggest(prefix, resolvedLimit);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
   public GenreDTO getGenreById(Long id) {
-    Genre genre = genreRepository.findById(id)
+    return genreRepository.findDTOById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
-    return convertToDTO(genre);
   }
 
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.GENRE_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
   public GenreDTO createGenre(GenreDTO genreDTO) {
     if (genreRepository.existsByName(genreDTO.getName())) {
       throw new IllegalArgumentException("Genre with name '" + genreDTO.getName() + "' already exists");
@@ -65,12 +126,20 @@ public class GenreService {
 
     Genre genre = convertToEntity(genreDTO);
     Genre savedGenre = genreRepository.save(genre);
-    return convertToDTO(savedGenre);
+    GenreDTO savedDTO = convertToDTO(savedGenre);
+    eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.CREATED, savedDTO));
+    return savedDTO;
   }
 
-  public GenreDTO updateGenre(Long id, GenreDTO genreDTO) {
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.GENRES, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.GENRE_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
+  public GenreDTO updateGenre(Long id, GenreDTO genreDTO, Long expectedVersion) {
     Genre existingGenre = genreRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
+    VersionCheck.require(expectedVersion, existingGenre.getVersion(), "Genre", id);
 
     // Check if name is being changed and if the new name already exists
     if (!existingGenre.getName().equals(genreDTO.getName()) &&
@@ -81,20 +150,30 @@ public class GenreService {
     existingGenre.setName(genreDTO.getName());
     existingGenre.setDescription(genreDTO.getDescription());
 
-    Genre updatedGenre = genreRepository.save(existingGenre);
-    return convertToDTO(updatedGenre);
+    // Flushed so that the returned DTO carries the version just written
+    Genre updatedGenre = genreRepository.saveAndFlush(existingGenre);
+    GenreDTO updatedDTO = convertToDTO(updatedGenre);
+    eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.UPDATED, updatedDTO));
+    return updatedDTO;
   }
 
-  public void deleteGenre(Long id) {
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.GENRES, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.GENRE_LISTS, allEntries = true),
+      @CacheEvict(cacheNames = CacheConfig.STATS, allEntries = true)
+  })
+  public void deleteGenre(Long id, Long expectedVersion) {
     Genre genre = genreRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
+    VersionCheck.require(expectedVersion, genre.getVersion(), "Genre", id);
 
-    // Check if genre has associated books
-    if (genre.getBooks() != null && !genre.getBooks().isEmpty()) {
+    // Check if genre has associated books, from the maintained count rather than the collection
+    if (genre.getBookCount() > 0) {
       throw new IllegalStateException("Cannot delete genre with associated books");
     }
 
     genreRepository.deleteById(id);
+    eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.DELETED, convertToDTO(genre)));
   }
 
   private GenreDTO convertToDTO(Genre genre) {
@@ -102,6 +181,18 @@ public class GenreService {
     dto.setId(genre.getId());
     dto.setName(genre.getName());
     dto.setDescription(genre.getDescription());
+    dto.setBookCount(genre.getBookCount());
+    dto.setVersion(genre.getVersion());
+    return dto;
+  }
+
+  private static GenreDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+    GenreDTO dto = new GenreDTO();
+    dto.setId(rs.getLong("id"));
+    dto.setName(rs.getString("name"));
+    dto.setDescription(rs.getString("description"));
+    dto.setBookCount(rs.getLong("book_count"));
+    dto.setVersion(rs.getLong("version"));
     return dto;
   }
 
@@ -0,0 +1,63 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.CatalogueStatsDTO;
+import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for catalogue statistics.
+ * <p>
+ * Statistics are read from the book counts maintained on authors and genres (see {@link BookCounters})
+ * rather than by counting books:
+ * - The number of books is the sum of the genre counts, since every book has exactly one genre.
+ * - The top authors and genres are the first rows of the {@code (book_count, id)} indexes.
+ * The totals therefore cost a scan of the genres and a count of the authors and genres, not of the books.
+ * Running totals would make them constant, but would have to be kept in a single row that every book
+ * write updates, serializing all of them on its lock.
+ * <p>
+ * Results are cached by the number of top entries requested and cleared whenever a book, author or
+ * genre changes (see {@code CacheConfig}), so a dashboard polling this is answered from memory
+ * between changes, and the queries run once per change at most.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StatsService {
+
+  public static final int DEFAULT_TOP = 5;
+  public static final int MAX_TOP = 50;
+
+  private final AuthorRepository authorRepository;
+  private final GenreRepository genreRepository;
+
+  public StatsService(AuthorRepository authorRepository, GenreRepository genreRepository) {
+    this.authorRepository = authorRepository;
+    this.genreRepository = genreRepository;
+  }
+
+  @Cacheable(cacheNames = CacheConfig.STATS, key = "{#top}")
+  public CatalogueStatsDTO getStats(Integer top) {
+    int resolvedTop = resolveTop(top);
+    PageRequest first = PageRequest.of(0, resolvedTop);
+    return new CatalogueStatsDTO(
+        genreRepository.sumBookCounts(),
+        authorRepository.count(),
+        genreRepository.count(),
+        authorRepository.findTopByBookCount(first),
+        genreRepository.findTopByBookCount(first));
+  }
+
+  private static int resolveTop(Integer top) {
+    if (top == null) {
+      return DEFAULT_TOP;
+    }
+    if (top < 1 || top > MAX_TOP) {
+      throw new IllegalArgumentException("Top must be between 1 and " + MAX_TOP);
+    }
+    return top;
+  }
+}
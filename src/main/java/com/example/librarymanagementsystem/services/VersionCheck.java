@@ -0,0 +1,27 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.exception.PreconditionFailedException;
+
+/**
+ * Checks the version a client expects a resource to be at, as sent in an {@code If-Match} header.
+ * <p>
+ * The check runs against the version of the entity loaded for the write. A change committed by
+ * another transaction after that read is still caught: Hibernate includes the version in the
+ * UPDATE or DELETE statement and fails the write when no row matches.
+ */
+final class VersionCheck {
+
+  private VersionCheck() {
+  }
+
+  /**
+   * Throws {@link PreconditionFailedException} when an expected version is given and differs from the
+   * current one. A {@code null} expectation means the write is unconditional.
+   */
+  static void require(Long expected, long current, String resource, Long id) {
+    if (expected != null && expected != current) {
+      throw new PreconditionFailedException(resource + " with id " + id + " has been modified: expected version "
+          + expected + " but it is at version " + current);
+    }
+  }
+}
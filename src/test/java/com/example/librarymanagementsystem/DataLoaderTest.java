@@ -0,0 +1,58 @@
+package com.example.librarymanagementsystem;
+
+import com.example.librarymanagementsystem.model.User;
+import com.example.librarymanagementsystem.repository.UserRepository;
+import com.example.librarymanagementsystem.support.StatementRecorder;
+import com.example.librarymanagementsystem.support.StatementRecorder.Budget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementRecorder.class)
+class DataLoaderTest {
+
+    @Autowired
+    private DataLoader dataLoader;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Test
+    void seedsNothingWithOneQueryWhenDataExists() throws Exception {
+        AtomicInteger inserted = new AtomicInteger(-1);
+
+        List<String> executed = statements.assertBudget("DataLoader.seed", Budget.selects(1),
+                () -> inserted.set(dataLoader.seed()));
+
+        assertEquals(0, inserted.get());
+        assertEquals(1, executed.size());
+    }
+
+    @Test
+    void insertsMissingUserWithPrecomputedHash() throws Exception {
+        userRepository.delete(userRepository.findByUsername("admin").orElseThrow());
+
+        statements.assertBudget("DataLoader.seed", Budget.selects(1).inserts(1), () -> assertEquals(1, dataLoader.seed()));
+
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        assertEquals("ROLE_ADMIN", admin.getRole());
+        assertTrue(passwordEncoder.matches("admin", admin.getPassword()));
+        assertTrue(passwordEncoder.matches("password", userRepository.findByUsername("user").orElseThrow().getPassword()));
+    }
+}
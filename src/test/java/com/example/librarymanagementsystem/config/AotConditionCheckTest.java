@@ -0,0 +1,40 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.reactive.ReactiveCatalogueServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AotConditionCheckTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Test
+    void reportsOptInsSetAfterTheBuild() {
+        environment.setProperty("library.threads.virtual", "true");
+        environment.setProperty("library.reactive.enabled", "false");
+
+        assertEquals(List.of("library.threads.virtual"), AotConditionCheck.fixedByAot(environment, beanFactory));
+    }
+
+    @Test
+    void reportsOptInsTurnedOffAfterTheBuild() {
+        beanFactory.registerBeanDefinition("reactiveCatalogueServer", new RootBeanDefinition(ReactiveCatalogueServer.class));
+
+        assertEquals(List.of("library.reactive.enabled"), AotConditionCheck.fixedByAot(environment, beanFactory));
+    }
+
+    @Test
+    void acceptsOptInsMatchingTheBuild() {
+        environment.setProperty("library.threads.virtual", "true");
+        beanFactory.registerBeanDefinition("virtualThreadConfig", new RootBeanDefinition(VirtualThreadConfig.class));
+
+        assertEquals(List.of(), AotConditionCheck.fixedByAot(environment, beanFactory));
+    }
+}
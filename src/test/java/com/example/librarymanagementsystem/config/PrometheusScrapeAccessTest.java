@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "library.metrics.scrape.password=scrape-secret")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusScrapeAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapesWithBasicAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+
+    @Test
+    void refusesOtherCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "admin")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void stillServesAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+
+    @Test
+    void scrapeCredentialsOpenNothingElse() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/books").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isForbidden());
+    }
+}
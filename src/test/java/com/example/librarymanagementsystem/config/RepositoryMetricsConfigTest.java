@@ -0,0 +1,60 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import com.example.librarymanagementsystem.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class RepositoryMetricsConfigTest {
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Test
+    void recordsRowsAndStatementsPerRepositoryMethod() {
+        int genres = genreRepository.findAllDTOs().size();
+        userRepository.findByUsername("nobody");
+
+        DistributionSummary genreRows = summary("library.repository.rows", "GenreRepository", "findAllDTOs");
+        assertEquals(genres, genreRows.takeSnapshot().max());
+        assertEquals(1, summary("library.repository.statements", "GenreRepository", "findAllDTOs").takeSnapshot().max());
+        assertEquals(0, summary("library.repository.rows", "UserRepository", "findByUsername").takeSnapshot().max());
+    }
+
+    @Test
+    void publishesDatabaseMetricsForPrometheus() {
+        genreRepository.findAllDTOs();
+
+        String scrape = prometheusMeterRegistry.scrape();
+
+        assertTrue(scrape.contains("library_repository_rows_count{method=\"findAllDTOs\",repository=\"GenreRepository\""), scrape);
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "repository latency histogram");
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool acquire histogram");
+        assertTrue(scrape.contains("hikaricp_connections_idle{"), "pool idle gauge");
+        assertTrue(scrape.contains("hibernate_entities_loads_total{"), "Hibernate statistics");
+    }
+
+    private DistributionSummary summary(String name, String repository, String method) {
+        return meterRegistry.get(name).tag("repository", repository).tag("method", method).summary();
+    }
+}
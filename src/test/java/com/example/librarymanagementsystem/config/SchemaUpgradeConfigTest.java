@@ -0,0 +1,72 @@
+package com.example.librarymanagementsystem.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaUpgradeConfigTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", "sa", "", true));
+        // The schema as Hibernate created it before entity versions and book counts
+        jdbcTemplate.execute("CREATE TABLE authors (id bigint PRIMARY KEY, name varchar(100) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE genres (id bigint PRIMARY KEY, name varchar(100) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("CREATE TABLE books (id bigint PRIMARY KEY, title varchar(255) NOT NULL, "
+                + "author_id bigint NOT NULL REFERENCES authors, genre_id bigint NOT NULL REFERENCES genres)");
+        jdbcTemplate.update("INSERT INTO authors VALUES (1, 'Author One'), (2, 'Author Two')");
+        jdbcTemplate.update("INSERT INTO genres VALUES (1, 'Fiction')");
+        jdbcTemplate.update("INSERT INTO books VALUES (1, 'Book One', 1, 1), (2, 'Book Two', 1, 1)");
+    }
+
+    @Test
+    void addsVersionsToExistingRows() {
+        SchemaUpgradeConfig.upgrade(jdbcTemplate);
+
+        assertEquals(List.of(0L), jdbcTemplate.queryForList("SELECT DISTINCT version FROM books", Long.class));
+        assertEquals(List.of("AUTHORS", "BOOKS", "GENRES"), jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.columns "
+                        + "WHERE column_name = 'VERSION' AND is_nullable = 'NO' ORDER BY table_name", String.class));
+    }
+
+    @Test
+    void countsBooksOfExistingRows() {
+        SchemaUpgradeConfig.upgrade(jdbcTemplate);
+
+        assertEquals(List.of(2L, 0L), jdbcTemplate.queryForList("SELECT book_count FROM authors ORDER BY id", Long.class));
+        assertEquals(List.of(1L, 0L), jdbcTemplate.queryForList("SELECT version FROM authors ORDER BY id", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT book_count FROM genres", Long.class));
+        assertEquals(List.of("IDX_AUTHORS_BOOK_COUNT", "IDX_GENRES_BOOK_COUNT"), jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE index_name LIKE 'IDX_%' ORDER BY index_name",
+                String.class));
+    }
+
+    @Test
+    void leavesCurrentSchemaAlone() {
+        SchemaUpgradeConfig.upgrade(jdbcTemplate);
+        jdbcTemplate.update("UPDATE books SET version = 4");
+        jdbcTemplate.update("UPDATE authors SET book_count = 7");
+
+        SchemaUpgradeConfig.upgrade(jdbcTemplate);
+
+        assertEquals(4L, jdbcTemplate.queryForObject("SELECT MIN(version) FROM books", Long.class));
+        assertEquals(7L, jdbcTemplate.queryForObject("SELECT MIN(book_count) FROM authors", Long.class));
+    }
+
+    @Test
+    void skipsMissingTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+
+        SchemaUpgradeConfig.upgrade(jdbcTemplate);
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_schema = CURRENT_SCHEMA", Long.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.librarymanagementsystem.controller;
+
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.support.StatementRecorder;
+import com.example.librarymanagementsystem.support.StatementRecorder.Budget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Holds each endpoint to the statements it needs against the real services and H2, so an N+1 select or an
+ * extra round trip fails here with the statements listed. The controller tests with mocked services, such
+ * as {@link GenreControllerTest}, cover the responses themselves.
+ */
+@SpringBootTest(properties = "library.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementRecorder.class)
+class EndpointStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementRecorder statements;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Long bookId;
+    private Long authorId;
+    private Long genreId;
+
+    @BeforeEach
+    void findSeededBook() {
+        Book book = bookRepository.findAll().get(0);
+        bookId = book.getId();
+        authorId = book.getAuthor().getId();
+        genreId = book.getGenre().getId();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void bookReads() throws Exception {
+        statements.assertBudget("GET /api/v1/books", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/books")).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/books?authorId=&sort=-title", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/books").param("authorId", authorId.toString()).param("sort", "-title"))
+                        .andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/books/{id}", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/books/" + bookId)).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/books/search", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/books/search").param("q", "book"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(greaterThan(0))));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void bookWrites() throws Exception {
+        String book = "{\"title\":\"Budgeted book\",\"authorId\":" + authorId + ",\"genreId\":" + genreId + "}";
+
+        statements.assertBudget("POST /api/v1/books", Budget.selects(2).updates(2).inserts(1),
+                () -> mockMvc.perform(post("/api/v1/books").contentType(MediaType.APPLICATION_JSON).content(book))
+                        .andExpect(status().isCreated()));
+        Long createdId = bookRepository.findAll().stream()
+                .filter(candidate -> candidate.getTitle().equals("Budgeted book"))
+                .findFirst().orElseThrow().getId();
+
+        statements.assertBudget("PUT /api/v1/books/{id}", Budget.selects(3).updates(1),
+                () -> mockMvc.perform(put("/api/v1/books/" + createdId).contentType(MediaType.APPLICATION_JSON)
+                                .content(book.replace("Budgeted book", "Budgeted book, revised")))
+                        .andExpect(status().isOk()));
+        statements.assertBudget("DELETE /api/v1/books/{id}", Budget.selects(1).updates(2).deletes(1),
+                () -> mockMvc.perform(delete("/api/v1/books/" + createdId)).andExpect(status().isNoContent()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void genres() throws Exception {
+        statements.assertBudget("GET /api/v1/genres", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/genres")).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/genres/{id}", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/genres/" + genreId)).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/genres/{id}/books", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/genres/" + genreId + "/books")).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/genres/suggest", Budget.none(),
+                () -> mockMvc.perform(get("/api/v1/genres/suggest").param("prefix", "fic")).andExpect(status().isOk()));
+        statements.assertBudget("POST /api/v1/genres", Budget.selects(1).inserts(1),
+                () -> mockMvc.perform(post("/api/v1/genres").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Budgeted genre\"}"))
+                        .andExpect(status().isCreated()));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void authorsAndStats() throws Exception {
+        statements.assertBudget("GET /api/v1/authors", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/authors")).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/authors/{id}", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/authors/" + authorId)).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/authors/{id}/books", Budget.selects(1),
+                () -> mockMvc.perform(get("/api/v1/authors/" + authorId + "/books")).andExpect(status().isOk()));
+        statements.assertBudget("GET /api/v1/stats", Budget.selects(5),
+                () -> mockMvc.perform(get("/api/v1/stats")).andExpect(status().isOk()));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void listsStatementsOverBudget() {
+        AssertionError error = assertThrows(AssertionError.class, () -> statements.assertBudget(
+                "GET /api/v1/books", Budget.none(),
+                () -> mockMvc.perform(get("/api/v1/books")).andExpect(status().isOk())));
+
+        assertTrue(error.getMessage().startsWith("GET /api/v1/books executed 1 selects (budget 0):"), error.getMessage());
+        assertTrue(error.getMessage().contains("\n  1. select ") && error.getMessage().contains(" from books "),
+                error.getMessage());
+    }
+}
@@ -1,9 +1,19 @@
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.services.BookService;
 import com.example.librarymanagementsystem.services.GenreService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.example.librarymanagementsystem.controller.v1.GenreController;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPage;
+import com.example.librarymanagementsystem.dto.FieldSet;
 import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import com.example.librarymanagementsystem.exception.PreconditionFailedException;
+import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,11 +22,20 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +48,9 @@ class GenreControllerTest {
     @MockBean
     private GenreService genreService;
 
+    @MockBean
+    private BookService bookService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -39,13 +61,296 @@ class GenreControllerTest {
         GenreDTO genre2 = new GenreDTO("Non-Fiction", "Non-fictional books");
         List<GenreDTO> genres = Arrays.asList(genre1, genre2);
 
-        when(genreService.getAllGenres()).thenReturn(genres);
+        when(genreService.getGenres(isNull(), isNull(), isNull()))
+                .thenReturn(new CursorPage<>(genres, 20, null, null));
 
         mockMvc.perform(get("/api/v1/genres"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Fiction"))
-                .andExpect(jsonPath("$[1].name").value("Non-Fiction"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Fiction"))
+                .andExpect(jsonPath("$.items[1].name").value("Non-Fiction"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenresPage() throws Exception {
+        GenreDTO genre = new GenreDTO("Fiction", "Fictional books");
+        genre.setId(3L);
+
+        when(genreService.getGenres(eq(1), eq("aWQ6Mg"), isNull()))
+                .thenReturn(new CursorPage<>(List.of(genre), 1, "aWQ6Mw", "aWQ6Mw"));
+
+        mockMvc.perform(get("/api/v1/genres").param("limit", "1").param("after", "aWQ6Mg"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3L))
+                .andExpect(jsonPath("$.limit").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("aWQ6Mw"))
+                .andExpect(jsonPath("$.prevCursor").value("aWQ6Mw"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportGenres() throws Exception {
+        String ndjson = "{\"id\":1,\"name\":\"Fiction\"}\n{\"id\":2,\"name\":\"Non-Fiction\"}\n";
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(genreService).exportGenres(any(OutputStream.class));
+
+        mockMvc.perform(get("/api/v1/genres/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(ndjson));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void suggestGenres() throws Exception {
+        when(genreService.suggestGenres("fic", 5)).thenReturn(List.of(
+                new SuggestionDTO(1L, "Fiction"), new SuggestionDTO(3L, "Science Fiction")));
+
+        mockMvc.perform(get("/api/v1/genres/suggest").param("prefix", "fic").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[1].name").value("Science Fiction"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreBooks() throws Exception {
+        BookDTO book = new BookDTO();
+        book.setId(7L);
+        book.setTitle("Dune");
+        when(bookService.getBooksByGenre(1L, "-publicationDate", 10, null, null, FieldSet.ALL))
+                .thenReturn(new CursorPage<>(List.of(book), 10, "next", null));
+
+        mockMvc.perform(get("/api/v1/genres/1/books").param("sort", "-publicationDate").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Dune"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreBooksGenreNotFound() throws Exception {
+        when(bookService.getBooksByGenre(eq(9L), isNull(), isNull(), isNull(), isNull(), eq(FieldSet.ALL)))
+                .thenThrow(new ResourceNotFoundException("Genre not found with id: 9"));
+
+        mockMvc.perform(get("/api/v1/genres/9/books"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreBooksAsCbor() throws Exception {
+        BookDTO book = new BookDTO();
+        book.setId(7L);
+        book.setTitle("Dune");
+        book.setPublicationDate(LocalDate.of(1965, 8, 1));
+        when(bookService.getBooksByGenre(eq(1L), isNull(), isNull(), isNull(), isNull(), eq(FieldSet.ALL)))
+                .thenReturn(new CursorPage<>(List.of(book), 20, null, null));
+
+        byte[] body = mockMvc.perform(get("/api/v1/genres/1/books").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = objectMapper.copyWith(new CBORFactory()).readTree(body);
+        assertEquals("Dune", page.at("/items/0/title").asText());
+        assertEquals("1965-08-01", page.at("/items/0/publicationDate").asText());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreBooksGenreNotFoundAsSmile() throws Exception {
+        when(bookService.getBooksByGenre(eq(9L), isNull(), isNull(), isNull(), isNull(), eq(FieldSet.ALL)))
+                .thenThrow(new ResourceNotFoundException("Genre not found with id: 9"));
+
+        byte[] body = mockMvc.perform(get("/api/v1/genres/9/books").accept("application/x-jackson-smile"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode error = objectMapper.copyWith(new SmileFactory()).readTree(body);
+        assertEquals(404, error.get("status").asInt());
+        assertEquals("Genre not found with id: 9", error.get("message").asText());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreBooksSelectedFields() throws Exception {
+        BookDTO book = new BookDTO(7L, "Dune", "9780441013593", LocalDate.of(1965, 8, 1), "Desert planet", 2L, 1L, 0L);
+        when(bookService.getBooksByGenre(eq(1L), isNull(), isNull(), isNull(), isNull(),
+                eq(FieldSet.parse("title,isbn", BookDTO.FIELDS))))
+                .thenReturn(new CursorPage<>(List.of(book), 20, null, null));
+
+        mockMvc.perform(get("/api/v1/genres/1/books").param("fields", "title,isbn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7L))
+                .andExpect(jsonPath("$.items[0].title").value("Dune"))
+                .andExpect(jsonPath("$.items[0].isbn").value("9780441013593"))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.items[0].publicationDate").doesNotExist())
+                .andExpect(jsonPath("$.limit").value(20));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreByIdSelectedFields() throws Exception {
+        when(genreService.getGenreById(1L)).thenReturn(new GenreDTO(1L, "Fiction", "Fictional books", 4L, 3L));
+
+        mockMvc.perform(get("/api/v1/genres/1").param("fields", "name, bookCount"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"name\":\"Fiction\",\"bookCount\":4}", true));
+
+        mockMvc.perform(get("/api/v1/genres/1").param("fields", "name,title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        "Unknown field 'title', expected any of id, name, description, bookCount, version"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createGenreIgnoresFields() throws Exception {
+        when(genreService.createGenre(any(GenreDTO.class)))
+                .thenReturn(new GenreDTO(1L, "Science Fiction", "Sci-fi books", 0L, 0L));
+
+        mockMvc.perform(post("/api/v1/genres")
+                        .with(csrf())
+                        .param("fields", "name,nonsense")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Science Fiction\",\"description\":\"Sci-fi books\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("Science Fiction"))
+                .andExpect(jsonPath("$.description").value("Sci-fi books"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreByIdRevalidates() throws Exception {
+        GenreDTO genre = new GenreDTO(1L, "Fiction", "Fictional books", 0L, 3L);
+        when(genreService.getGenreById(1L)).thenReturn(genre);
+
+        mockMvc.perform(get("/api/v1/genres/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "max-age=10, private, stale-while-revalidate=60"))
+                .andExpect(jsonPath("$.version").value(3));
+
+        mockMvc.perform(get("/api/v1/genres/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/v1/genres/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreByIdTagsFormat() throws Exception {
+        when(genreService.getGenreById(1L)).thenReturn(new GenreDTO(1L, "Fiction", "Fictional books", 0L, 3L));
+
+        mockMvc.perform(get("/api/v1/genres/1").accept("application/cbor"))
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"3-cbor\""));
+        mockMvc.perform(get("/api/v1/genres/1").header("Accept", "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"3-smile\""));
+        mockMvc.perform(get("/api/v1/genres/1").header("Accept", "*/*;q=0.8, application/json"))
+                .andExpect(header().string("ETag", "\"3\""));
+        mockMvc.perform(get("/api/v1/genres/1").accept("application/cbor").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/genres/1").accept("application/cbor").header("If-None-Match", "\"3-cbor\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateGenreIfMatchFormatTag() throws Exception {
+        when(genreService.updateGenre(eq(1L), any(GenreDTO.class), eq(3L)))
+                .thenReturn(new GenreDTO(1L, "Science Fiction", "Sci-fi books", 0L, 4L));
+
+        mockMvc.perform(put("/api/v1/genres/1")
+                        .with(csrf())
+                        .header("If-Match", "\"3-cbor\"")
+                        .accept("application/cbor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Science Fiction\",\"description\":\"Sci-fi books\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-cbor\""));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getGenreByIdTagsSelectedFields() throws Exception {
+        when(genreService.getGenreById(1L)).thenReturn(new GenreDTO(1L, "Fiction", "Fictional books", 0L, 3L));
+
+        String etag = mockMvc.perform(get("/api/v1/genres/1").param("fields", "name,bookCount"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.matches("\"3-f[0-9a-f]+\""), etag);
+
+        mockMvc.perform(get("/api/v1/genres/1").param("fields", "bookCount, name"))
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/v1/genres/1").param("fields", "name").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/genres/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+        mockMvc.perform(get("/api/v1/genres/1").param("fields", "name,bookCount").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateGenreIfMatchPartialTag() throws Exception {
+        when(genreService.updateGenre(eq(1L), any(GenreDTO.class), eq(3L)))
+                .thenReturn(new GenreDTO(1L, "Science Fiction", "Sci-fi books", 0L, 4L));
+
+        mockMvc.perform(put("/api/v1/genres/1")
+                        .with(csrf())
+                        .header("If-Match", "\"3-f1c2d\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Science Fiction\",\"description\":\"Sci-fi books\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateGenreIfMatch() throws Exception {
+        GenreDTO genreDTO = new GenreDTO("Science Fiction", "Sci-fi books");
+        when(genreService.updateGenre(eq(1L), any(GenreDTO.class), eq(2L)))
+                .thenReturn(new GenreDTO(1L, "Science Fiction", "Sci-fi books", 0L, 3L));
+        when(genreService.updateGenre(eq(1L), any(GenreDTO.class), eq(1L)))
+                .thenThrow(new PreconditionFailedException("Genre with id 1 has been modified"));
+
+        mockMvc.perform(put("/api/v1/genres/1")
+                        .with(csrf())
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(genreDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(put("/api/v1/genres/1")
+                        .with(csrf())
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(genreDTO)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/v1/genres/1")
+                        .with(csrf())
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(genreDTO)))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
@@ -58,6 +363,7 @@ class GenreControllerTest {
         when(genreService.createGenre(any(GenreDTO.class))).thenReturn(savedGenreDTO);
 
         mockMvc.perform(post("/api/v1/genres")
+                        .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(genreDTO)))
                 .andExpect(status().isCreated())
@@ -71,6 +377,7 @@ class GenreControllerTest {
         GenreDTO genreDTO = new GenreDTO("", "Sci-fi books"); // Empty name
 
         mockMvc.perform(post("/api/v1/genres")
+                        .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(genreDTO)))
                 .andExpect(status().isBadRequest());
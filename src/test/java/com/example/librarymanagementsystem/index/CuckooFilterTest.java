@@ -0,0 +1,74 @@
+package com.example.librarymanagementsystem.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuckooFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAndFewFalsePositives() {
+        CuckooFilter filter = new CuckooFilter(20_000);
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.add(isbn(i)));
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain(isbn(i)));
+        }
+        int falsePositives = 0;
+        for (int i = 20_000; i < 220_000; i++) {
+            if (filter.mightContain(isbn(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertEquals(20_000, filter.size());
+    }
+
+    @Test
+    void removesKeysOneCopyAtATime() {
+        CuckooFilter filter = new CuckooFilter(100);
+        filter.add("9780451524935");
+        filter.add("9780451524935");
+        filter.add("9780451526342");
+
+        assertTrue(filter.remove("9780451524935"));
+        assertTrue(filter.mightContain("9780451524935"));
+        assertTrue(filter.remove("9780451524935"));
+        assertFalse(filter.mightContain("9780451524935"));
+        assertFalse(filter.remove("9780451524935"));
+        assertTrue(filter.mightContain("9780451526342"));
+        assertEquals(1, filter.size());
+    }
+
+    @Test
+    void keepsEveryKeyWhenFull() {
+        CuckooFilter filter = new CuckooFilter(8);
+        List<String> added = new ArrayList<>();
+        int i = 0;
+        while (!filter.isFull()) {
+            String key = isbn(i++);
+            filter.add(key);
+            added.add(key);
+        }
+
+        assertFalse(filter.add(isbn(i)));
+        for (String key : added) {
+            assertTrue(filter.mightContain(key), key);
+        }
+
+        assertTrue(filter.remove(added.get(0)));
+        assertEquals(added.size() - 1, filter.size());
+        for (String key : added.subList(1, added.size())) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.librarymanagementsystem.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(3);
+        index.put(1L, "Nineteen Eighty-Four", "A dystopian novel about totalitarian surveillance");
+        index.put(2L, "Animal Farm", "A satirical allegory about the Russian revolution");
+        index.put(3L, "Brave New World", "A dystopian vision of a world state");
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        List<InvertedIndex.Hit> hits = index.search("world", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(3L, hits.get(0).id());
+
+        hits = index.search("dystopian world", 10);
+        assertEquals(List.of(3L, 1L), hits.stream().map(InvertedIndex.Hit::id).toList());
+    }
+
+    @Test
+    void foldsCaseAndDiacritics() {
+        index.put(4L, "Les Misérables", "Roman de Victor Hugo");
+
+        assertEquals(4L, index.search("MISERABLES", 10).get(0).id());
+        assertEquals(4L, index.search("misérables", 10).get(0).id());
+    }
+
+    @Test
+    void returnsTopKOnly() {
+        assertEquals(1, index.search("dystopian", 1).size());
+        assertTrue(index.search("the of a", 10).isEmpty());
+        assertTrue(index.search("unknown", 10).isEmpty());
+    }
+
+    @Test
+    void updatesReplacePreviousVersion() {
+        index.put(2L, "Homage to Catalonia", "Memoir of the Spanish civil war");
+
+        assertTrue(index.search("farm", 10).isEmpty());
+        assertEquals(2L, index.search("catalonia", 10).get(0).id());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void removedDocumentsAreNotReturned() {
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+
+        assertEquals(List.of(3L), index.search("dystopian", 10).stream().map(InvertedIndex.Hit::id).toList());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void compactionKeepsResultsConsistent() {
+        for (long id = 10; id < 3010; id++) {
+            index.put(id, "Filler " + id, "temporary entry");
+        }
+        for (long id = 10; id < 3010; id++) {
+            index.remove(id);
+        }
+        index.put(5000L, "Filler survivor", "temporary entry");
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(5000L), index.search("filler", 10).stream().map(InvertedIndex.Hit::id).toList());
+        assertEquals(3L, index.search("brave", 10).get(0).id());
+    }
+
+    @Test
+    void pruningKeepsTheExhaustiveTopK() {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] words = {"war", "peace", "river", "house", "night", "garden", "winter", "storm", "island", "letter"};
+        index = new InvertedIndex(3);
+        for (long id = 1; id <= 2000; id++) {
+            index.put(id, text(random, words, 3), text(random, words, 1 + random.nextInt(20)));
+            if (random.nextInt(10) == 0) {
+                index.remove(random.nextLong(1, id + 1));
+            }
+        }
+
+        for (int query = 0; query < 200; query++) {
+            String text = text(random, words, 1 + random.nextInt(4));
+            // A heap as large as the collection never fills, so nothing is pruned
+            List<InvertedIndex.Hit> all = index.search(text, index.size());
+            for (int k : new int[] {1, 5, 10, 50}) {
+                assertEquals(all.subList(0, Math.min(k, all.size())), index.search(text, k), text + " top " + k);
+            }
+        }
+    }
+
+    // Skewed towards the first words, so some posting lists are long and others short
+    private static String text(SplittableRandom random, String[] words, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(words[Math.min(random.nextInt(words.length), random.nextInt(words.length))]).append(' ');
+        }
+        return text.toString();
+    }
+}
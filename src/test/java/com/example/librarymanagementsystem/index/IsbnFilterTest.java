@@ -0,0 +1,98 @@
+package com.example.librarymanagementsystem.index;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.event.BookChangedEvent;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IsbnFilterTest {
+
+    private final List<BookDTO> books = new CopyOnWriteArrayList<>();
+    private BookRepository bookRepository;
+    private IsbnFilter isbnFilter;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.count()).thenAnswer(invocation -> (long) books.size());
+        when(bookRepository.findPageAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return books.stream().filter(book -> book.getId() > after).limit(pageable.getPageSize()).toList();
+        });
+        isbnFilter = new IsbnFilter(bookRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void keepsCheckingAndRecordsAdditionsWhileBuilding() {
+        books.add(book(1, isbn(1)));
+        isbnFilter.rebuild();
+        when(bookRepository.findPageAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            // Another request checks and commits a book while the table is being read
+            CompletableFuture.runAsync(() -> {
+                assertFalse(isbnFilter.exists(isbn(2), isbn -> false));
+                isbnFilter.onBookChanged(new BookChangedEvent(ChangeType.CREATED, book(2, isbn(2))));
+            }).get(5, TimeUnit.SECONDS);
+            return List.of(book(1, isbn(1)));
+        });
+
+        isbnFilter.rebuild();
+
+        AtomicInteger queries = new AtomicInteger();
+        assertTrue(isbnFilter.exists(isbn(2), isbn -> queries.incrementAndGet() > 0));
+        assertTrue(isbnFilter.exists(isbn(1), isbn -> queries.incrementAndGet() > 0));
+        assertEquals(2, queries.get());
+        assertEquals(2, isbnFilter.size());
+    }
+
+    @Test
+    void rebuildsInBackgroundWhenFull() throws InterruptedException {
+        isbnFilter.rebuild();
+
+        int count = 10_000;
+        for (int i = 1; i <= count; i++) {
+            BookDTO book = book(i, isbn(i));
+            books.add(book);
+            isbnFilter.onBookChanged(new BookChangedEvent(ChangeType.CREATED, book));
+        }
+        AtomicInteger queries = new AtomicInteger();
+        assertTrue(isbnFilter.exists(isbn(count), isbn -> queries.incrementAndGet() > 0));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (isbnFilter.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(isbnFilter.size() >= count, "size: " + isbnFilter.size());
+        for (int i = 1; i <= count; i++) {
+            assertTrue(isbnFilter.exists(isbn(i), isbn -> queries.incrementAndGet() > 0));
+        }
+        assertEquals(count + 1, queries.get());
+    }
+
+    private static BookDTO book(long id, String isbn) {
+        BookDTO book = new BookDTO();
+        book.setId(id);
+        book.setIsbn(isbn);
+        return book;
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.librarymanagementsystem.index;
+
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameSuggestIndexTest {
+
+    private NameSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameSuggestIndex();
+        index.put(1L, "George Orwell");
+        index.put(2L, "J. R. R. Tolkien");
+        index.put(3L, "Gabriel García Márquez");
+        index.put(4L, "Georgette Heyer");
+    }
+
+    @Test
+    void ranksWholeNameMatchesBeforeWordMatches() {
+        index.put(5L, "Tolkien Estate");
+
+        assertEquals(List.of(5L, 2L), ids(index.suggest("tolk", 10)));
+        assertEquals(List.of(1L, 4L), ids(index.suggest("Geor", 10)));
+    }
+
+    @Test
+    void rebuildsFromKeysetPages() {
+        List<SuggestionDTO> rows = List.of(new SuggestionDTO(2L, "Fiction"), new SuggestionDTO(5L, "Fantasy"),
+                new SuggestionDTO(9L, "Poetry"));
+        List<Long> pagesAfter = new ArrayList<>();
+        NameSuggestIndex rebuilt = new NameSuggestIndex("genre", NameSuggestIndex.keysetPages(after -> {
+            pagesAfter.add(after);
+            return rows.stream().filter(row -> row.getId() > after).limit(2).toList();
+        }, 2, SuggestionDTO::getId, SuggestionDTO::getName));
+        rebuilt.put(1L, "Stale");
+
+        rebuilt.rebuild();
+
+        assertEquals(List.of(0L, 5L), pagesAfter);
+        assertEquals(3, rebuilt.size());
+        assertEquals(List.of(5L, 2L), ids(rebuilt.suggest("f", 10)));
+    }
+
+    @Test
+    void foldsCaseAndDiacritics() {
+        assertEquals(List.of(3L), ids(index.suggest("GARCIA", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("márq", 10)));
+    }
+
+    @Test
+    void toleratesOneTypo() {
+        assertEquals(List.of(2L), ids(index.suggest("tolkein", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("orwel l", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("orwll", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("marquex", 10)));
+    }
+
+    @Test
+    void doesNotApplyTypoToleranceToShortPrefixes() {
+        assertTrue(index.suggest("zo", 10).isEmpty());
+    }
+
+    @Test
+    void honoursLimit() {
+        assertEquals(1, index.suggest("g", 1).size());
+        assertTrue(index.suggest("g", 0).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void updatesAndRemovesNames() {
+        index.put(1L, "Eric Blair");
+
+        assertTrue(index.suggest("orwell", 10).isEmpty());
+        assertEquals("Eric Blair", index.suggest("blair", 10).get(0).getName());
+
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+        assertTrue(index.suggest("blair", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rejectsOutOfRangeLimit() {
+        assertEquals(NameSuggestIndex.DEFAULT_LIMIT, NameSuggestIndex.resolveLimit(null));
+        assertThrows(IllegalArgumentException.class, () -> NameSuggestIndex.resolveLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> NameSuggestIndex.resolveLimit(NameSuggestIndex.MAX_LIMIT + 1));
+    }
+
+    private static List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.librarymanagementsystem.reactive;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "library.reactive.enabled=true",
+        "library.reactive.port=0",
+        "library.reactive.threads=2",
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "library.reactive.r2dbc.url=r2dbc:h2:mem:///reactivedb"
+})
+@ActiveProfiles("test")
+class ReactiveCatalogueServerTest {
+
+    @Autowired
+    private ReactiveCatalogueServer server;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + server.getPort())
+                .defaultHeader("Authorization", "Bearer " + jwtTokenProvider.generateToken("user", "ROLE_USER"))
+                .build();
+    }
+
+    @Test
+    void streamsBooksAsNdjson() {
+        List<BookDTO> books = client.get().uri("/api/v1/books")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookDTO.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(List.of("Book One", "Book Two"), books.stream().map(BookDTO::getTitle).toList());
+    }
+
+    @Test
+    void resumesAndLimitsBookList() {
+        Long first = client.get().uri("/api/v1/books?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookDTO.class).hasSize(1)
+                .returnResult().getResponseBody().get(0).getId();
+
+        client.get().uri("/api/v1/books?after=" + first)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Book Two");
+    }
+
+    @Test
+    void getsAuthorAndGenreById() {
+        client.get().uri("/api/v1/authors")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Author One")
+                .jsonPath("$[0].bookCount").isEqualTo(1);
+
+        client.get().uri("/api/v1/genres")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[1].name").isEqualTo("Non-Fiction");
+    }
+
+    @Test
+    void bookNotFound() {
+        client.get().uri("/api/v1/books/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Book not found with id: 999999");
+    }
+
+    @Test
+    void invalidParameter() {
+        client.get().uri("/api/v1/books?authorId=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid value 'abc' for parameter 'authorId'");
+    }
+
+    @Test
+    void rejectsMissingOrInvalidToken() {
+        WebTestClient anonymous = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+
+        anonymous.get().uri("/api/v1/books").exchange().expectStatus().isForbidden();
+        anonymous.get().uri("/api/v1/books")
+                .header("Authorization", "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void writesAreNotServed() {
+        client.delete().uri("/api/v1/books/1").exchange().expectStatus().isForbidden();
+    }
+}
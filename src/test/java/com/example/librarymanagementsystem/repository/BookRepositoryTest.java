@@ -0,0 +1,124 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.FieldSet;
+import com.example.librarymanagementsystem.model.Author;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Genre;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class BookRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author orwell;
+    private Genre fiction;
+    private Book animalFarm;
+    private Book burmeseDays;
+    private Book essays;
+    private Book nineteenEightyFour;
+
+    @BeforeEach
+    void setUp() {
+        orwell = entityManager.persist(new Author("George Orwell", null, null));
+        Author huxley = entityManager.persist(new Author("Aldous Huxley", null, null));
+        fiction = entityManager.persist(new Genre("Fiction", null));
+        Genre nonFiction = entityManager.persist(new Genre("Non-Fiction", null));
+
+        nineteenEightyFour = book("Nineteen Eighty-Four", LocalDate.of(1949, 6, 8), orwell, fiction);
+        animalFarm = book("Animal Farm", LocalDate.of(1945, 8, 17), orwell, fiction);
+        essays = book("Essays", null, orwell, nonFiction);
+        burmeseDays = book("Burmese Days", LocalDate.of(1934, 10, 25), orwell, fiction);
+        book("Brave New World", LocalDate.of(1932, 1, 1), huxley, fiction);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void combinesGivenCriteriaOnly() {
+        BookFilter filter = new BookFilter(orwell.getId(), fiction.getId(), LocalDate.of(1940, 1, 1), null);
+
+        List<BookDTO> books = bookRepository.findPage(filter, BookSort.parse("title"), null, null, false, 10, FieldSet.ALL);
+
+        assertEquals(List.of(animalFarm.getId(), nineteenEightyFour.getId()), ids(books));
+    }
+
+    @Test
+    void pagesThroughNullableSortInBothDirections() {
+        BookFilter filter = new BookFilter(orwell.getId(), null, null, null);
+        BookSort sort = BookSort.parse("publicationDate");
+        List<Long> ascending = List.of(burmeseDays.getId(), animalFarm.getId(), nineteenEightyFour.getId(), essays.getId());
+        List<Long> descending = List.of(essays.getId(), nineteenEightyFour.getId(), animalFarm.getId(), burmeseDays.getId());
+
+        assertEquals(ascending, readAll(filter, sort, false));
+        assertEquals(descending, readAll(filter, sort, true));
+        assertEquals(descending, readAll(filter, BookSort.parse("-publicationDate"), false));
+    }
+
+    @Test
+    void readsOnlySelectedColumns() {
+        BookFilter filter = new BookFilter(orwell.getId(), null, null, null);
+        FieldSet fields = FieldSet.parse("isbn,title", BookDTO.FIELDS);
+
+        BookDTO book = bookRepository.findPage(filter, BookSort.parse("publicationDate"), null, null, false, 1, fields).get(0);
+
+        assertEquals("Burmese Days", book.getTitle());
+        assertEquals(LocalDate.of(1934, 10, 25), book.getPublicationDate());
+        assertNotNull(book.getVersion());
+        assertNull(book.getAuthorId());
+        assertNull(book.getDescription());
+        assertEquals(List.of(burmeseDays.getId(), animalFarm.getId(), nineteenEightyFour.getId(), essays.getId()),
+                readAll(filter, BookSort.parse("publicationDate"), false, fields));
+        assertEquals("Animal Farm", bookRepository.findDTOById(animalFarm.getId(), fields).orElseThrow().getTitle());
+    }
+
+    private List<Long> readAll(BookFilter filter, BookSort sort, boolean backward) {
+        return readAll(filter, sort, backward, FieldSet.ALL);
+    }
+
+    private List<Long> readAll(BookFilter filter, BookSort sort, boolean backward, FieldSet fields) {
+        List<Long> ids = new ArrayList<>();
+        Long fromId = backward ? Long.MAX_VALUE : null;
+        String fromValue = null;
+        List<BookDTO> page;
+        do {
+            page = bookRepository.findPage(filter, sort, fromId, fromValue, backward, 1, fields);
+            for (BookDTO book : page) {
+                ids.add(book.getId());
+                fromId = book.getId();
+                fromValue = sort.format(book);
+            }
+        } while (!page.isEmpty());
+        return ids;
+    }
+
+    private Book book(String title, LocalDate publicationDate, Author author, Genre genre) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setPublicationDate(publicationDate);
+        book.setAuthor(author);
+        book.setGenre(genre);
+        return entityManager.persist(book);
+    }
+
+    private static List<Long> ids(List<BookDTO> books) {
+        return books.stream().map(BookDTO::getId).toList();
+    }
+}
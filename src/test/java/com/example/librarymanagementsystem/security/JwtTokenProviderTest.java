@@ -0,0 +1,72 @@
+package com.example.librarymanagementsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "7b9c2d6e8f1a3c5e7d9f2a4b6c8d0e1f3a5b7c9d1e2f4a6b8c0d2e4f6a8b0c2d4e6f8a0b2c4d6e8f0a2b4c6d8e0f2a4";
+
+    @Test
+    void authenticatesTokenAndReusesVerifiedAuthentication() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100, null);
+        String token = provider.generateToken("user", "ROLE_USER");
+
+        UsernamePasswordAuthenticationToken authentication = provider.getAuthentication(token);
+
+        assertEquals("user", authentication.getName());
+        assertEquals(List.of("ROLE_USER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertSame(authentication, provider.getAuthentication(token));
+    }
+
+    @Test
+    void rejectsMissingTamperedAndExpiredTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100, null);
+        String token = provider.generateToken("user", "ROLE_USER");
+        JwtTokenProvider expiring = new JwtTokenProvider(SECRET, -1_000, 100, null);
+
+        assertNull(provider.getAuthentication(null));
+        assertNull(provider.getAuthentication(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(provider.getAuthentication(expiring.generateToken("user", "ROLE_USER")));
+        assertFalse(provider.validateToken("not-a-token"));
+    }
+
+    @Test
+    void parsesEveryTimeWhenCacheIsOff() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 0, null);
+        String token = provider.generateToken("admin", "ROLE_ADMIN");
+
+        UsernamePasswordAuthenticationToken authentication = provider.getAuthentication(token);
+
+        assertEquals("admin", authentication.getName());
+        assertNotSame(authentication, provider.getAuthentication(token));
+        assertEquals("admin", provider.getUsernameFromJWT(token));
+        assertEquals(List.of("ROLE_ADMIN"), provider.getRolesFromJWT(token));
+    }
+
+    @Test
+    void refusesRevokedTokensEvenWhenCached() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100, null);
+        String loggedOut = provider.generateToken("user", "ROLE_USER");
+        String other = provider.generateToken("user", "ROLE_USER");
+        String admin = provider.generateToken("admin", "ROLE_ADMIN");
+        assertNotNull(provider.getAuthentication(loggedOut));
+
+        assertTrue(provider.revokeToken(loggedOut));
+        assertFalse(provider.revokeToken("not-a-token"));
+
+        assertNull(provider.getAuthentication(loggedOut));
+        assertNotNull(provider.getAuthentication(other));
+
+        provider.revokeUser("user");
+
+        assertNull(provider.getAuthentication(other));
+        assertNotNull(provider.getAuthentication(admin));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.security;
+
+import com.example.librarymanagementsystem.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    @Test
+    void refusesChecksBeyondThreadsAndQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        try (PasswordVerifier verifier = new PasswordVerifier(blocking, 1, 1, Duration.ofSeconds(2))) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> verifier.matches("a", "a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> verifier.matches("b", "c"));
+            while (verifier.waiting() == 0) {
+                Thread.sleep(10);
+            }
+
+            ServiceUnavailableException refused = assertThrows(ServiceUnavailableException.class,
+                    () -> verifier.matches("d", "d"));
+            assertEquals(Duration.ofSeconds(2), refused.getRetryAfter());
+
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+            assertFalse(queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
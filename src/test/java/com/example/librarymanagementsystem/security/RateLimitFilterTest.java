@@ -0,0 +1,84 @@
+package com.example.librarymanagementsystem.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new MockEnvironment()
+            .withProperty("library.rate-limit.auth.limit", "2")
+            .withProperty("library.rate-limit.reads.limit", "3")
+            .withProperty("library.rate-limit.reads.period", "1h"),
+            new ObjectMapper());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsLoginsBeyondLimitPerIp() throws Exception {
+        assertEquals(200, perform("POST", "/api/v1/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/auth/login", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("POST", "/api/v1/auth/login", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertEquals(200, perform("POST", "/api/v1/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void countsReadsPerUserAndReportsRemaining() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        MockHttpServletResponse first = perform("GET", "/api/v1/books", "10.0.0.1");
+        assertEquals("2", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1200", first.getHeader(RateLimitFilter.RESET_HEADER));
+        perform("GET", "/api/v1/books", "10.0.0.2");
+        perform("GET", "/api/v1/books", "10.0.0.3");
+        assertEquals(429, perform("GET", "/api/v1/books", "10.0.0.4").getStatus());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertEquals(200, perform("GET", "/api/v1/books", "10.0.0.4").getStatus());
+        assertNull(perform("GET", "/actuator/health", "10.0.0.4").getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    void bucketRefillsOneTokenPerEmissionInterval() {
+        RateLimitFilter.TokenBucket bucket = new RateLimitFilter.TokenBucket();
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        long burst = 2 * interval;
+
+        assertNotEquals(RateLimitFilter.TokenBucket.REJECTED, bucket.tryAcquire(0, interval, burst));
+        assertNotEquals(RateLimitFilter.TokenBucket.REJECTED, bucket.tryAcquire(0, interval, burst));
+        assertEquals(RateLimitFilter.TokenBucket.REJECTED, bucket.tryAcquire(0, interval, burst));
+        assertEquals(interval, bucket.nanosUntilNextToken(0, interval, burst));
+        assertNotEquals(RateLimitFilter.TokenBucket.REJECTED, bucket.tryAcquire(interval, interval, burst));
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
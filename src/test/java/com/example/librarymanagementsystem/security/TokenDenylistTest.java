@@ -0,0 +1,69 @@
+package com.example.librarymanagementsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenDenylistTest {
+
+    private static final long LIFETIME = 60_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void revokesTokensByIdAndUsersUpToNotBefore() {
+        TokenDenylist denylist = new TokenDenylist(LIFETIME, null);
+        long now = System.currentTimeMillis();
+        UUID revoked = UUID.randomUUID();
+
+        denylist.revokeToken(revoked, now + LIFETIME);
+        denylist.revokeUser("alice", now);
+
+        assertTrue(denylist.isRevoked(revoked, "bob", now));
+        assertFalse(denylist.isRevoked(UUID.randomUUID(), "bob", now));
+        assertTrue(denylist.isRevoked(UUID.randomUUID(), "alice", now - 1_000));
+        assertFalse(denylist.isRevoked(UUID.randomUUID(), "alice", now + 1_000));
+        assertFalse(denylist.isRevoked(null, "bob", now));
+    }
+
+    @Test
+    void prunesExpiredRevocations() {
+        TokenDenylist denylist = new TokenDenylist(LIFETIME, null);
+        long now = System.currentTimeMillis();
+
+        denylist.revokeToken(UUID.randomUUID(), now - 1);
+        denylist.revokeUser("alice", now - 2 * LIFETIME);
+        denylist.revokeToken(UUID.randomUUID(), now + LIFETIME);
+
+        assertEquals(1, denylist.size());
+    }
+
+    @Test
+    void restoresRevocationsFromFileAndIgnoresTruncatedRecord() throws Exception {
+        Path file = directory.resolve("denylist.bin");
+        long now = System.currentTimeMillis();
+        UUID revoked = UUID.randomUUID();
+        TokenDenylist denylist = new TokenDenylist(LIFETIME, file);
+        denylist.revokeToken(revoked, now + LIFETIME);
+        denylist.revokeUser("alice", now);
+        denylist.revokeToken(UUID.randomUUID(), now + LIFETIME);
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(5 + 25 + 11 + "alice".length() + 25, bytes.length);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        TokenDenylist restored = new TokenDenylist(LIFETIME, file);
+
+        assertEquals(2, restored.size());
+        assertTrue(restored.isRevoked(revoked, "bob", now));
+        assertTrue(restored.isRevoked(null, "alice", now));
+        assertEquals(5 + 25 + 11 + "alice".length(), Files.size(file));
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -27,6 +28,9 @@ class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -44,29 +48,29 @@ class AuthorServiceTest {
 
     @Test
     void getAllAuthors() {
-        List<Author> authors = Arrays.asList(author);
-        when(authorRepository.findAll()).thenReturn(authors);
+        List<AuthorDTO> authors = Arrays.asList(authorDTO);
+        when(authorRepository.findAllDTOs()).thenReturn(authors);
 
         List<AuthorDTO> result = authorService.getAllAuthors();
 
         assertEquals(1, result.size());
         assertEquals("George Orwell", result.get(0).getName());
-        verify(authorRepository, times(1)).findAll();
+        verify(authorRepository, times(1)).findAllDTOs();
     }
 
     @Test
     void getAuthorById() {
-        when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
+        when(authorRepository.findDTOById(1L)).thenReturn(Optional.of(authorDTO));
 
         AuthorDTO result = authorService.getAuthorById(1L);
 
         assertEquals("George Orwell", result.getName());
-        verify(authorRepository, times(1)).findById(1L);
+        verify(authorRepository, times(1)).findDTOById(1L);
     }
 
     @Test
     void getAuthorByIdNotFound() {
-        when(authorRepository.findById(1L)).thenReturn(Optional.empty());
+        when(authorRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> authorService.getAuthorById(1L));
     }
@@ -94,22 +98,22 @@ class AuthorServiceTest {
     void updateAuthor() {
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
         when(authorRepository.existsByName("Eric Arthur Blair")).thenReturn(false);
-        when(authorRepository.save(any(Author.class))).thenReturn(author);
+        when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(author);
 
         AuthorDTO updatedDTO = new AuthorDTO("Eric Arthur Blair", "British author", LocalDate.of(1903, 6, 25));
-        AuthorDTO result = authorService.updateAuthor(1L, updatedDTO);
+        AuthorDTO result = authorService.updateAuthor(1L, updatedDTO, null);
 
         assertEquals("Eric Arthur Blair", result.getName());
         verify(authorRepository, times(1)).findById(1L);
         verify(authorRepository, times(1)).existsByName("Eric Arthur Blair");
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
     }
 
     @Test
     void deleteAuthor() {
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
 
-        authorService.deleteAuthor(1L);
+        authorService.deleteAuthor(1L, null);
 
         verify(authorRepository, times(1)).findById(1L);
         verify(authorRepository, times(1)).deleteById(1L);
@@ -119,6 +123,6 @@ class AuthorServiceTest {
     void deleteAuthorNotFound() {
         when(authorRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> authorService.deleteAuthor(1L));
+        assertThrows(ResourceNotFoundException.class, () -> authorService.deleteAuthor(1L, null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.BulkReportDTO;
+import com.example.librarymanagementsystem.index.IsbnFilter;
+import com.example.librarymanagementsystem.model.Author;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Genre;
+import com.example.librarymanagementsystem.repository.AuthorRepository;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import com.example.librarymanagementsystem.services.BookBulkImporter;
+import com.example.librarymanagementsystem.services.BookCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BookBulkImporter.class, IsbnFilter.class, BookCounters.class, CacheConfig.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class,
+        MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
+@TestPropertySource(properties = "library.bulk.chunk-size=2")
+class BookBulkImporterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookBulkImporter bookBulkImporter;
+
+    @Autowired
+    private IsbnFilter isbnFilter;
+
+    @Autowired
+    private BookCounters bookCounters;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    private Author author;
+    private Genre genre;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(new Author("George Orwell", null, null));
+        genre = entityManager.persist(new Genre("Fiction", null));
+        Book existing = new Book();
+        existing.setTitle("Animal Farm");
+        existing.setIsbn("9780451526342");
+        existing.setAuthor(author);
+        existing.setGenre(genre);
+        entityManager.persist(existing);
+        entityManager.flush();
+        isbnFilter.rebuild();
+        bookCounters.reconcile();
+    }
+
+    @Test
+    void createsValidItemsAndReportsEachRejection() throws IOException {
+        String body = "["
+                + book("Nineteen Eighty-Four", "9780451524935", author.getId(), genre.getId()) + ","
+                + book("Animal Farm again", "9780451526342", author.getId(), genre.getId()) + ","
+                + book("", null, author.getId(), genre.getId()) + ","
+                + book("Homage to Catalonia", "9780156421171", 999L, genre.getId()) + ","
+                + book("Nineteen Eighty-Four copy", "9780451524935", author.getId(), genre.getId()) + ","
+                + "{\"title\": \"Bad date\", \"publicationDate\": \"yesterday\"},"
+                + book("Burmese Days", null, author.getId(), genre.getId())
+                + "]";
+
+        BulkReportDTO report = bookBulkImporter.importBooks(input(body));
+
+        assertEquals(2, report.getCreated());
+        assertEquals(5, report.getRejected());
+        List<BulkItemResultDTO> items = report.getItems();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), items.stream().map(BulkItemResultDTO::getIndex).toList());
+        assertEquals(BulkItemResultDTO.Status.CREATED, items.get(0).getStatus());
+        assertEquals(List.of("Book with ISBN '9780451526342' already exists"), items.get(1).getErrors());
+        assertEquals(List.of("title: Book title is required"), items.get(2).getErrors());
+        assertEquals(List.of("Author not found with id: 999"), items.get(3).getErrors());
+        assertEquals(List.of("Book with ISBN '9780451524935' already exists"), items.get(4).getErrors());
+        assertTrue(items.get(5).getErrors().get(0).startsWith("Invalid book"));
+        assertEquals(BulkItemResultDTO.Status.CREATED, items.get(6).getStatus());
+
+        Book created = bookRepository.findById(items.get(0).getId()).orElseThrow();
+        assertEquals("Nineteen Eighty-Four", created.getTitle());
+        assertEquals(author.getId(), created.getAuthor().getId());
+        assertTrue(bookRepository.existsById(items.get(6).getId()));
+        assertEquals(3L, authorRepository.findDTOById(author.getId()).orElseThrow().getBookCount());
+        assertEquals(3L, genreRepository.findDTOById(genre.getId()).orElseThrow().getBookCount());
+    }
+
+    @Test
+    void rejectsBodyThatIsNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> bookBulkImporter.importBooks(input("{\"title\": \"x\"}")));
+    }
+
+    private static String book(String title, String isbn, Long authorId, Long genreId) {
+        return "{\"title\": \"" + title + "\", \"isbn\": " + (isbn == null ? "null" : "\"" + isbn + "\"")
+                + ", \"authorId\": " + authorId + ", \"genreId\": " + genreId + "}";
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.librarymanagementsystem.service;
 
+import com.example.librarymanagementsystem.dto.CursorPage;
 import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.dto.SuggestionDTO;
+import com.example.librarymanagementsystem.event.ChangeType;
+import com.example.librarymanagementsystem.event.GenreChangedEvent;
+import com.example.librarymanagementsystem.exception.PreconditionFailedException;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.index.NameSuggestIndex;
 import com.example.librarymanagementsystem.model.Genre;
 import com.example.librarymanagementsystem.repository.GenreRepository;
+import com.example.librarymanagementsystem.services.CursorPagination;
 import com.example.librarymanagementsystem.services.GenreService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +18,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -18,6 +28,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +38,12 @@ class GenreServiceTest {
     @Mock
     private GenreRepository genreRepository;
 
+    @Mock
+    private NameSuggestIndex genreSuggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GenreService genreService;
 
@@ -43,29 +61,75 @@ class GenreServiceTest {
 
     @Test
     void getAllGenres() {
-        List<Genre> genres = Arrays.asList(genre);
-        when(genreRepository.findAll()).thenReturn(genres);
+        List<GenreDTO> genres = Arrays.asList(genreDTO);
+        when(genreRepository.findAllDTOs()).thenReturn(genres);
 
         List<GenreDTO> result = genreService.getAllGenres();
 
         assertEquals(1, result.size());
         assertEquals("Fiction", result.get(0).getName());
-        verify(genreRepository, times(1)).findAll();
+        verify(genreRepository, times(1)).findAllDTOs();
+    }
+
+    @Test
+    void getGenresFirstPage() {
+        GenreDTO second = new GenreDTO(2L, "Poetry", "Verse");
+        GenreDTO third = new GenreDTO(3L, "Drama", "Plays");
+        when(genreRepository.findPageAfter(0L, PageRequest.of(0, 3))).thenReturn(Arrays.asList(genreDTO, second, third));
+
+        CursorPage<GenreDTO> result = genreService.getGenres(2, null, null);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(2L, result.getItems().get(1).getId());
+        assertNotNull(result.getNextCursor());
+        assertNull(result.getPrevCursor());
+    }
+
+    @Test
+    void getGenresNextPage() {
+        GenreDTO third = new GenreDTO(3L, "Drama", "Plays");
+        when(genreRepository.findPageAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(third));
+
+        CursorPage<GenreDTO> result = genreService.getGenres(2, CursorPagination.encode(2L), null);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(3L, result.getItems().get(0).getId());
+        assertNull(result.getNextCursor());
+        assertEquals(CursorPagination.encode(3L), result.getPrevCursor());
+    }
+
+    @Test
+    void getGenresPreviousPage() {
+        GenreDTO second = new GenreDTO(2L, "Poetry", "Verse");
+        when(genreRepository.findPageBefore(eq(3L), any(Pageable.class))).thenReturn(Arrays.asList(second, genreDTO));
+
+        CursorPage<GenreDTO> result = genreService.getGenres(1, null, CursorPagination.encode(3L));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(2L, result.getItems().get(0).getId());
+        assertEquals(CursorPagination.encode(2L), result.getNextCursor());
+        assertEquals(CursorPagination.encode(2L), result.getPrevCursor());
+    }
+
+    @Test
+    void getGenresInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> genreService.getGenres(10, "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> genreService.getGenres(0, null, null));
     }
 
     @Test
     void getGenreById() {
-        when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+        when(genreRepository.findDTOById(1L)).thenReturn(Optional.of(genreDTO));
 
         GenreDTO result = genreService.getGenreById(1L);
 
         assertEquals("Fiction", result.getName());
-        verify(genreRepository, times(1)).findById(1L);
+        verify(genreRepository, times(1)).findDTOById(1L);
     }
 
     @Test
     void getGenreByIdNotFound() {
-        when(genreRepository.findById(1L)).thenReturn(Optional.empty());
+        when(genreRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> genreService.getGenreById(1L));
     }
@@ -93,22 +157,22 @@ class GenreServiceTest {
     void updateGenre() {
         when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
         when(genreRepository.existsByName("Science Fiction")).thenReturn(false);
-        when(genreRepository.save(any(Genre.class))).thenReturn(genre);
+        when(genreRepository.saveAndFlush(any(Genre.class))).thenReturn(genre);
 
         GenreDTO updatedDTO = new GenreDTO("Science Fiction", "Sci-fi books");
-        GenreDTO result = genreService.updateGenre(1L, updatedDTO);
+        GenreDTO result = genreService.updateGenre(1L, updatedDTO, null);
 
         assertEquals("Science Fiction", result.getName());
         verify(genreRepository, times(1)).findById(1L);
         verify(genreRepository, times(1)).existsByName("Science Fiction");
-        verify(genreRepository, times(1)).save(any(Genre.class));
+        verify(genreRepository, times(1)).saveAndFlush(any(Genre.class));
     }
 
     @Test
     void deleteGenre() {
         when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
 
-        genreService.deleteGenre(1L);
+        genreService.deleteGenre(1L, null);
 
         verify(genreRepository, times(1)).findById(1L);
         verify(genreRepository, times(1)).deleteById(1L);
@@ -118,6 +182,46 @@ class GenreServiceTest {
     void deleteGenreNotFound() {
         when(genreRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> genreService.deleteGenre(1L));
+        assertThrows(ResourceNotFoundException.class, () -> genreService.deleteGenre(1L, null));
+    }
+
+    @Test
+    void updateGenreAtStaleVersion() {
+        genre.setVersion(4L);
+        when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+
+        GenreDTO updatedDTO = new GenreDTO("Science Fiction", "Sci-fi books");
+        assertThrows(PreconditionFailedException.class, () -> genreService.updateGenre(1L, updatedDTO, 3L));
+        verify(genreRepository, never()).saveAndFlush(any(Genre.class));
+    }
+
+    @Test
+    void suggestGenres() {
+        List<SuggestionDTO> suggestions = List.of(new SuggestionDTO(1L, "Fiction"));
+        when(genreSuggestIndex.suggest("fic", 10)).thenReturn(suggestions);
+
+        assertSame(suggestions, genreService.suggestGenres("fic", null));
+    }
+
+    @Test
+    void suggestGenresBlankPrefix() {
+        assertTrue(genreService.suggestGenres("  ", 5).isEmpty());
+        verifyNoInteractions(genreSuggestIndex);
+    }
+
+    @Test
+    void suggestGenresInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> genreService.suggestGenres("fic", 51));
+    }
+
+    @Test
+    void createGenrePublishesEvent() {
+        when(genreRepository.existsByName("Fiction")).thenReturn(false);
+        when(genreRepository.save(any(Genre.class))).thenReturn(genre);
+
+        genreService.createGenre(genreDTO);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof GenreChangedEvent changed
+                && changed.getType() == ChangeType.CREATED && changed.getGenre().getId() == 1L));
     }
-}
\ No newline at end of file
+}
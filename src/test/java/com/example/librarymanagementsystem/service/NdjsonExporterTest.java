@@ -0,0 +1,138 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.WebConfig;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.model.Author;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Genre;
+import com.example.librarymanagementsystem.services.NdjsonExporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({NdjsonExporter.class, WebConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "library.export.fetch-size=2")
+class NdjsonExporterTest {
+
+    private static final String SQL =
+            "SELECT id, title, isbn, publication_date, author_id, genre_id FROM books ORDER BY id";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+    private Author author;
+    private Genre genre;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(new Author("George Orwell", null, null));
+        genre = entityManager.persist(new Genre("Fiction", null));
+        for (int i = 1; i <= 5; i++) {
+            Book book = new Book();
+            book.setTitle("Book \"" + i + "\"\nwith a line break");
+            book.setIsbn(String.format("978000000000%d", i));
+            book.setPublicationDate(LocalDate.of(1940 + i, 6, 8));
+            book.setAuthor(author);
+            book.setGenre(genre);
+            ids.add(entityManager.persist(book).getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void writesOneJsonObjectPerRow() throws IOException {
+        List<Integer> fetchSizes = new ArrayList<>();
+        List<Integer> rowNumbers = new ArrayList<>();
+        RowMapper<BookDTO> rowMapper = (rs, rowNum) -> {
+            fetchSizes.add(rs.getStatement().getFetchSize());
+            rowNumbers.add(rowNum);
+            BookDTO dto = new BookDTO();
+            dto.setId(rs.getLong("id"));
+            dto.setTitle(rs.getString("title"));
+            dto.setIsbn(rs.getString("isbn"));
+            dto.setPublicationDate(rs.getObject("publication_date", LocalDate.class));
+            dto.setAuthorId(rs.getLong("author_id"));
+            dto.setGenreId(rs.getLong("genre_id"));
+            return dto;
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = ndjsonExporter.export(SQL, rowMapper, out);
+
+        assertEquals(5, rows);
+        assertEquals(List.of(2, 2, 2, 2, 2), fetchSizes);
+        assertEquals(List.of(1, 2, 3, 4, 5), rowNumbers);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n", -1);
+        // Five documents and the empty string after the last newline
+        assertEquals(6, lines.length);
+        assertEquals("", lines[5]);
+        for (int i = 0; i < 5; i++) {
+            JsonNode json = objectMapper.readTree(lines[i]);
+            assertTrue(json.isObject(), lines[i]);
+            assertEquals(ids.get(i), json.get("id").asLong());
+            assertEquals("Book \"" + (i + 1) + "\"\nwith a line break", json.get("title").asText());
+            assertEquals("978000000000" + (i + 1), json.get("isbn").asText());
+            assertEquals((1941 + i) + "-06-08", json.get("publicationDate").asText());
+            assertEquals(author.getId(), json.get("authorId").asLong());
+            assertEquals(genre.getId(), json.get("genreId").asLong());
+        }
+    }
+
+    @Test
+    void flushesEveryFetchSizeRows() throws IOException {
+        List<Integer> linesAtFlush = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                linesAtFlush.add((int) toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+            }
+        };
+
+        ndjsonExporter.export(SQL, (rs, rowNum) -> rs.getLong("id"), out);
+
+        // After every second row, then once the rows run out
+        assertEquals(List.of(2, 4), linesAtFlush.subList(0, 2));
+        assertTrue(linesAtFlush.subList(2, linesAtFlush.size()).stream().allMatch(lines -> lines == 5), linesAtFlush.toString());
+        assertEquals(ids.stream().map(String::valueOf).toList(), out.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    void writesNothingForNoRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, ndjsonExporter.export(SQL.replace("ORDER BY", "WHERE id < 0 ORDER BY"),
+                (rs, rowNum) -> rs.getLong("id"), out));
+        assertEquals(0, out.size());
+    }
+}
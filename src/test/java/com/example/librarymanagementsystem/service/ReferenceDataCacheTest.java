@@ -0,0 +1,97 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.config.SuggestIndexConfig;
+import com.example.librarymanagementsystem.dto.GenreDTO;
+import com.example.librarymanagementsystem.index.NameSuggestIndex;
+import com.example.librarymanagementsystem.repository.GenreRepository;
+import com.example.librarymanagementsystem.services.GenreService;
+import com.example.librarymanagementsystem.services.NdjsonExporter;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CacheConfig.class, GenreService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private GenreService genreService;
+
+    @SpyBean
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private NdjsonExporter ndjsonExporter;
+
+    @MockBean(name = SuggestIndexConfig.GENRES)
+    private NameSuggestIndex genreSuggestIndex;
+
+    @AfterEach
+    void tearDown() {
+        genreRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void servesRepeatedLookupsFromMemoryUntilTheGenreChanges() {
+        GenreDTO created = genreService.createGenre(genre("Fiction"));
+
+        assertEquals("Fiction", genreService.getGenreById(created.getId()).getName());
+        assertEquals("Fiction", genreService.getGenreById(created.getId()).getName());
+        verify(genreRepository, times(1)).findDTOById(anyLong());
+
+        genreService.updateGenre(created.getId(), genre("Literary Fiction"), null);
+
+        assertEquals("Literary Fiction", genreService.getGenreById(created.getId()).getName());
+        verify(genreRepository, times(2)).findDTOById(anyLong());
+    }
+
+    @Test
+    void clearsListsWhenAGenreIsCreated() {
+        genreService.createGenre(genre("Fiction"));
+        assertEquals(1, genreService.getAllGenres().size());
+        assertEquals(1, genreService.getAllGenres().size());
+        verify(genreRepository, times(1)).findAllDTOs();
+
+        genreService.createGenre(genre("Poetry"));
+
+        assertEquals(2, genreService.getAllGenres().size());
+    }
+
+    @Test
+    void disablesCachesPerGroup() {
+        CacheManager manager = new CacheConfig().cacheManager(
+                new MockEnvironment().withProperty("library.cache.genres.enabled", "false"));
+
+        assertInstanceOf(NoOpCache.class, manager.getCache(CacheConfig.GENRES).getNativeCache());
+        assertInstanceOf(NoOpCache.class, manager.getCache(CacheConfig.GENRE_LISTS).getNativeCache());
+        assertInstanceOf(Cache.class, manager.getCache(CacheConfig.AUTHORS).getNativeCache());
+    }
+
+    private static GenreDTO genre(String name) {
+        GenreDTO dto = new GenreDTO();
+        dto.setName(name);
+        return dto;
+    }
+}
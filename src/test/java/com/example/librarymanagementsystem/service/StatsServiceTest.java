@@ -0,0 +1,97 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.CatalogueStatsDTO;
+import com.example.librarymanagementsystem.model.Author;
+import com.example.librarymanagementsystem.model.Book;
+import com.example.librarymanagementsystem.model.Genre;
+import com.example.librarymanagementsystem.services.BookCounters;
+import com.example.librarymanagementsystem.services.StatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StatsService.class, BookCounters.class, CacheConfig.class})
+class StatsServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private BookCounters bookCounters;
+
+    private Author orwell;
+    private Author huxley;
+    private Genre fiction;
+    private Genre essays;
+
+    @BeforeEach
+    void setUp() {
+        orwell = entityManager.persist(new Author("George Orwell", null, null));
+        huxley = entityManager.persist(new Author("Aldous Huxley", null, null));
+        fiction = entityManager.persist(new Genre("Fiction", null));
+        essays = entityManager.persist(new Genre("Essays", null));
+        book("Animal Farm", orwell, fiction);
+        book("Nineteen Eighty-Four", orwell, fiction);
+        book("Brave New World", huxley, fiction);
+        entityManager.flush();
+    }
+
+    @Test
+    void reconcileRepairsCountsWrittenPastTheServices() {
+        assertEquals(0, statsService.getStats(null).getBooks());
+
+        assertEquals(3, bookCounters.reconcile());
+        assertEquals(0, bookCounters.reconcile());
+
+        CatalogueStatsDTO stats = statsService.getStats(null);
+        assertEquals(3, stats.getBooks());
+        assertEquals(2, stats.getAuthors());
+        assertEquals(2, stats.getGenres());
+        assertEquals(List.of("George Orwell", "Aldous Huxley"),
+                stats.getTopAuthors().stream().map(author -> author.getName()).toList());
+        assertEquals(List.of(2L, 1L), stats.getTopAuthors().stream().map(author -> author.getBookCount()).toList());
+        assertEquals(3L, stats.getTopGenres().get(0).getBookCount());
+    }
+
+    @Test
+    void adjustAndMoveChangeOnlyTheAffectedCounts() {
+        bookCounters.reconcile();
+
+        bookCounters.adjust(huxley.getId(), essays.getId(), 1);
+        bookCounters.move(orwell.getId(), fiction.getId(), huxley.getId(), fiction.getId());
+
+        CatalogueStatsDTO stats = statsService.getStats(1);
+        assertEquals(4, stats.getBooks());
+        assertEquals("Aldous Huxley", stats.getTopAuthors().get(0).getName());
+        assertEquals(3L, stats.getTopAuthors().get(0).getBookCount());
+        assertEquals(List.of("Fiction"), stats.getTopGenres().stream().map(genre -> genre.getName()).toList());
+    }
+
+    @Test
+    void rejectsTopOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> statsService.getStats(0));
+        assertThrows(IllegalArgumentException.class, () -> statsService.getStats(StatsService.MAX_TOP + 1));
+    }
+
+    private void book(String title, Author author, Genre genre) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setGenre(genre);
+        entityManager.persist(book);
+    }
+}
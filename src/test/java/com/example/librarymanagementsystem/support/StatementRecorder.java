@@ -0,0 +1,173 @@
+package com.example.librarymanagementsystem.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Records the SQL statements sent to the database, so tests can hold an endpoint to a statement budget and
+ * catch N+1 selects or extra round trips when they are introduced.
+ * <p>
+ * Import it into a Spring test with {@code @Import(StatementRecorder.class)}; it wraps the {@link DataSource}
+ * bean, and records every statement executed inside {@link #assertBudget} or {@link #record}:
+ * <pre>
+ * statements.assertBudget("GET /api/v1/books", Budget.selects(1), () -&gt; mockMvc.perform(get("/api/v1/books")));
+ * </pre>
+ * A statement is recorded once per execution, and a JDBC batch once per {@code executeBatch}, as each is one
+ * round trip. Statements of all threads are recorded, so the application must be otherwise idle.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+  private static final Set<Class<?>> WRAPPED =
+      Set.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+  private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+  private volatile boolean recording;
+
+  /**
+   * Runs an action and returns the statements it executed, in order.
+   */
+  public List<String> record(Action action) throws Exception {
+    synchronized (this) {
+      statements.clear();
+      recording = true;
+      try {
+        action.run();
+      } finally {
+        recording = false;
+      }
+      return List.copyOf(statements);
+    }
+  }
+
+  /**
+   * Runs an action and fails, listing every statement it executed, if it executed more statements of any
+   * kind than the budget allows.
+   *
+   * @param name   what the action is, such as the endpoint it calls, for the failure message
+   * @param budget statements of each kind the action may execute at most
+   * @param action the action, such as a {@code MockMvc} request with its expectations
+   * @return the statements the action executed
+   */
+  public List<String> assertBudget(String name, Budget budget, Action action) throws Exception {
+    List<String> executed = record(action);
+    int[] counts = new int[Kind.values().length];
+    for (String sql : executed) {
+      counts[Kind.of(sql).ordinal()]++;
+    }
+    List<String> exceeded = new ArrayList<>();
+    for (Kind kind : Kind.values()) {
+      int allowed = budget.allowed(kind);
+      if (counts[kind.ordinal()] > allowed) {
+        exceeded.add(counts[kind.ordinal()] + " " + kind.label() + " (budget " + allowed + ")");
+      }
+    }
+    if (!exceeded.isEmpty()) {
+      StringBuilder message = new StringBuilder(name).append(" executed ").append(String.join(", ", exceeded)).append(':');
+      for (int i = 0; i < executed.size(); i++) {
+        message.append("\n  ").append(i + 1).append(". ").append(executed.get(i));
+      }
+      throw new AssertionError(message.toString());
+    }
+    return executed;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource, null) : bean;
+  }
+
+  private Object wrap(Class<?> type, Object target, String preparedSql) {
+    return Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      String name = method.getName();
+      if (recording && target instanceof Statement && name.startsWith("execute")) {
+        // Statement.execute*(sql) carries its SQL; PreparedStatement.execute*() runs the prepared one
+        statements.add(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+      }
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+      if (result == null || !WRAPPED.contains(method.getReturnType())) {
+        return result;
+      }
+      boolean prepares = name.equals("prepareStatement") || name.equals("prepareCall");
+      return wrap(method.getReturnType(), result, prepares ? (String) args[0] : null);
+    });
+  }
+
+  /**
+   * An action that may execute statements, such as a request through {@code MockMvc}.
+   */
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  /**
+   * The statements of each kind an action may execute at most; kinds not given are not allowed at all.
+   */
+  public record Budget(int selects, int inserts, int updates, int deletes) {
+
+    public static Budget selects(int selects) {
+      return new Budget(selects, 0, 0, 0);
+    }
+
+    public static Budget none() {
+      return new Budget(0, 0, 0, 0);
+    }
+
+    public Budget inserts(int inserts) {
+      return new Budget(selects, inserts, updates, deletes);
+    }
+
+    public Budget updates(int updates) {
+      return new Budget(selects, inserts, updates, deletes);
+    }
+
+    public Budget deletes(int deletes) {
+      return new Budget(selects, inserts, updates, deletes);
+    }
+
+    int allowed(Kind kind) {
+      return switch (kind) {
+        case SELECT -> selects;
+        case INSERT -> inserts;
+        case UPDATE -> updates;
+        case DELETE -> deletes;
+        case OTHER -> 0;
+      };
+    }
+  }
+
+  private enum Kind {
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    static Kind of(String sql) {
+      String statement = sql == null ? "" : sql.stripLeading().toLowerCase(Locale.ROOT);
+      for (Kind kind : values()) {
+        if (statement.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+          return kind;
+        }
+      }
+      return statement.startsWith("with") ? SELECT : OTHER;
+    }
+
+    String label() {
+      return name().toLowerCase(Locale.ROOT) + (this == OTHER ? " statements" : "s");
+    }
+  }
+}